@@ -0,0 +1,92 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Description: 网格布局单个 position 的间距计算、分割线几何及一帧去重分割线合并，position 顺序递增模拟滑动
+ */
+@State(Scope.Thread)
+public class GridSpacingBenchmark {
+
+    // 一帧内可见的 child 数量
+    private static final int VISIBLE_ITEM_COUNT = 32;
+    private static final int COLUMN_WIDTH = 270;
+    private static final int ROW_HEIGHT = 100;
+
+    @Param({"1000", "100000", "10000000"})
+    public int itemCount;
+
+    @Param({"1", "2", "3", "4", "6", "8", "12"})
+    public int spanCount;
+
+    @Param({"UNIFORM", "RANDOM", "HEADER_HEAVY"})
+    public SpanDistribution distribution;
+
+    private int[] mSpanSizes;
+    private SpanIndex mSpanIndex;
+    private SpacingEngine mEngine;
+    private final int[] mOffsets = new int[4];
+    private final SumDividerSink mSink = new SumDividerSink();
+    private final GridLines mGridLines = new GridLines();
+    private int mFrameStart;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        final int[] spanSizes = distribution.spanSizes(itemCount, spanCount);
+        mSpanSizes = spanSizes;
+        mSpanIndex = new SpanInfo(position -> spanSizes[position], spanCount, itemCount);
+        mEngine = new SpacingEngine(SpacingConfigs.typical());
+    }
+
+    private int nextPosition() {
+        final int position = mPosition;
+        mPosition = position + 1 == itemCount ? 0 : position + 1;
+        return position;
+    }
+
+    @Benchmark
+    public int offsets() {
+        final int position = nextPosition();
+        mEngine.gridOffsets(mOffsets, mSpanIndex, position, mSpanSizes[position], spanCount, itemCount,
+                SpacingEngine.VERTICAL, false);
+        return mOffsets[SpacingEngine.LEFT] + mOffsets[SpacingEngine.TOP]
+                + mOffsets[SpacingEngine.RIGHT] + mOffsets[SpacingEngine.BOTTOM];
+    }
+
+    @Benchmark
+    public float dividers() {
+        final int position = nextPosition();
+        mSink.sum = 0;
+        mEngine.gridDividers(mSink, mSpanIndex, position, itemCount, SpacingEngine.VERTICAL,
+                0, position, 270, position + 100);
+        return mSink.sum;
+    }
+
+    /**
+     * Description: 一帧：可见 child 依次登记去重分割线，最后合并输出
+     */
+    @Benchmark
+    public float gridLines() {
+        final int first = mFrameStart;
+        mFrameStart = first + 1 >= itemCount - VISIBLE_ITEM_COUNT ? 0 : first + 1;
+        mSink.sum = 0;
+
+        final int firstRow = mSpanIndex.getRowByPosition(first);
+        for (int position = first; position < first + VISIBLE_ITEM_COUNT; position++) {
+            // 行内偏移下标为 Item 占据的最后一个 Span
+            final int column = Math.max(0, mSpanIndex.getCurrentRowRelativeOffsetIndex(position)
+                    - mSpanSizes[position] + 1);
+            final int left = column * COLUMN_WIDTH;
+            final int top = (mSpanIndex.getRowByPosition(position) - firstRow) * ROW_HEIGHT;
+            mEngine.gridLines(mGridLines, mSpanIndex, position, itemCount, SpacingEngine.VERTICAL,
+                    left, top, left + mSpanSizes[position] * COLUMN_WIDTH, top + ROW_HEIGHT);
+        }
+        mGridLines.flush(mSink, SpacingEngine.VERTICAL);
+        return mSink.sum;
+    }
+}
@@ -0,0 +1,49 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Description: 线性布局单个 position 的间距计算及分割线几何
+ */
+@State(Scope.Thread)
+public class LinearSpacingBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int itemCount;
+
+    private SpacingEngine mEngine;
+    private final int[] mOffsets = new int[4];
+    private final SumDividerSink mSink = new SumDividerSink();
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        mEngine = new SpacingEngine(SpacingConfigs.typical());
+    }
+
+    private int nextPosition() {
+        final int position = mPosition;
+        mPosition = position + 1 == itemCount ? 0 : position + 1;
+        return position;
+    }
+
+    @Benchmark
+    public int offsets() {
+        mEngine.linearOffsets(mOffsets, nextPosition(), itemCount, SpacingEngine.VERTICAL, false);
+        return mOffsets[SpacingEngine.LEFT] + mOffsets[SpacingEngine.TOP]
+                + mOffsets[SpacingEngine.RIGHT] + mOffsets[SpacingEngine.BOTTOM];
+    }
+
+    @Benchmark
+    public float divider() {
+        final int position = nextPosition();
+        mSink.sum = 0;
+        mEngine.linearDivider(mSink, SpacingEngine.VERTICAL, position, itemCount,
+                1080, position, 0f, 0f, 0, 0, 1080, 1920);
+        return mSink.sum;
+    }
+}
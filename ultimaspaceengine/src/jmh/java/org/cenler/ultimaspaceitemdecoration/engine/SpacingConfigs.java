@@ -0,0 +1,29 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 基准测试使用的配置
+ */
+final class SpacingConfigs {
+
+    private SpacingConfigs() {
+    }
+
+    /**
+     * @return 常见配置：隐藏首尾、带外边距与分割线，覆盖所有分支
+     */
+    static SpacingConfig typical() {
+        return new SpacingConfig.Builder()
+                .setHiddenFirst(true)
+                .setHiddenLast(true)
+                .setVerticalSpace(24)
+                .setHorizontalSpace(16)
+                .setHorizontalOuter(true)
+                .setPaddingStart(12)
+                .setPaddingEnd(12)
+                .setPaddingTop(8)
+                .setPaddingBottom(8)
+                .setDividerSize(3)
+                .setDividerPaddingEnable(true)
+                .build();
+    }
+}
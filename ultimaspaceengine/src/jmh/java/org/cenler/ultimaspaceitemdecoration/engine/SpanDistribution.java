@@ -0,0 +1,55 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Random;
+
+/**
+ * Description: 基准测试使用的 Span 大小分布，预先生成避免把 Lookup 本身的开销计入结果
+ */
+public enum SpanDistribution {
+
+    /**
+     * 每个 Item 占 1 个 Span
+     */
+    UNIFORM {
+        @Override
+        int spanSize(Random random, int position, int spanCount) {
+            return 1;
+        }
+    },
+
+    /**
+     * 随机 1 ~ spanCount
+     */
+    RANDOM {
+        @Override
+        int spanSize(Random random, int position, int spanCount) {
+            return 1 + random.nextInt(spanCount);
+        }
+    },
+
+    /**
+     * 每 8 个 Item 一个占满整行的 Header，其余 1 个 Span
+     */
+    HEADER_HEAVY {
+        @Override
+        int spanSize(Random random, int position, int spanCount) {
+            return position % 8 == 0 ? spanCount : 1;
+        }
+    };
+
+    abstract int spanSize(Random random, int position, int spanCount);
+
+    /**
+     * @param itemCount Item 数量
+     * @param spanCount Span 数量
+     * @return 每个 position 的 Span 大小（固定种子，结果可复现）
+     */
+    int[] spanSizes(int itemCount, int spanCount) {
+        final Random random = new Random(42);
+        final int[] spanSizes = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            spanSizes[i] = spanSize(random, i, spanCount);
+        }
+        return spanSizes;
+    }
+}
@@ -0,0 +1,36 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Description: {@link SpanInfo} 完整构建
+ */
+@State(Scope.Benchmark)
+public class SpanInfoBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int itemCount;
+
+    @Param({"1", "2", "3", "4", "6", "8", "12"})
+    public int spanCount;
+
+    @Param({"UNIFORM", "RANDOM", "HEADER_HEAVY"})
+    public SpanDistribution distribution;
+
+    private SpanSizeProvider mSpanSizeProvider;
+
+    @Setup
+    public void setUp() {
+        final int[] spanSizes = distribution.spanSizes(itemCount, spanCount);
+        mSpanSizeProvider = position -> spanSizes[position];
+    }
+
+    @Benchmark
+    public SpanInfo build() {
+        return new SpanInfo(mSpanSizeProvider, spanCount, itemCount);
+    }
+}
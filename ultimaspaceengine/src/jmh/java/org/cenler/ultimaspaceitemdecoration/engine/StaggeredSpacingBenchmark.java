@@ -0,0 +1,108 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+
+/**
+ * Description: 流式布局单个 position 的间距计算及一帧分割线几何，position 顺序递增模拟滑动
+ * <p>
+ * 占满整行的 Item 由 Span 大小分布决定（Span 大小等于 spanCount），其余 Item 依次轮流放入各列
+ */
+@State(Scope.Thread)
+public class StaggeredSpacingBenchmark {
+
+    // 一帧内可见的 child 数量
+    private static final int VISIBLE_ITEM_COUNT = 32;
+    private static final int COLUMN_WIDTH = 270;
+    private static final int ITEM_HEIGHT = 100;
+
+    @Param({"1000", "100000", "10000000"})
+    public int itemCount;
+
+    @Param({"1", "2", "3", "4", "6", "8", "12"})
+    public int spanCount;
+
+    @Param({"UNIFORM", "RANDOM", "HEADER_HEAVY"})
+    public SpanDistribution distribution;
+
+    // 每个 position 所在列，占满整行时为 -1
+    private int[] mSpanIndexes;
+    private SpacingEngine mEngine;
+    private final int[] mOffsets = new int[4];
+    private final SumDividerSink mSink = new SumDividerSink();
+    private final StaggeredGutters mGutters = new StaggeredGutters();
+    private int[] mColumnBottoms;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        final int[] spanSizes = distribution.spanSizes(itemCount, spanCount);
+        mSpanIndexes = new int[itemCount];
+        int next = 0;
+        for (int i = 0; i < itemCount; i++) {
+            if (spanSizes[i] == spanCount) {
+                mSpanIndexes[i] = -1;
+                next = 0;
+            } else {
+                mSpanIndexes[i] = next;
+                next = (next + 1) % spanCount;
+            }
+        }
+        mColumnBottoms = new int[spanCount];
+        mEngine = new SpacingEngine(SpacingConfigs.typical());
+    }
+
+    @Benchmark
+    public int offsets() {
+        final int position = mPosition;
+        mPosition = position + 1 == itemCount ? 0 : position + 1;
+        final int spanIndex = mSpanIndexes[position];
+        mEngine.staggeredOffsets(mOffsets, position, Math.max(0, spanIndex), spanIndex < 0,
+                spanCount, itemCount, SpacingEngine.VERTICAL);
+        return mOffsets[SpacingEngine.LEFT] + mOffsets[SpacingEngine.TOP]
+                + mOffsets[SpacingEngine.RIGHT] + mOffsets[SpacingEngine.BOTTOM];
+    }
+
+    /**
+     * Description: 一帧：可见 child 依次登记分割线与列间隔线，最后合并输出列间隔线
+     */
+    @Benchmark
+    public float dividers() {
+        final int first = mPosition;
+        mPosition = first + 1 >= itemCount - VISIBLE_ITEM_COUNT ? 0 : first + 1;
+        mSink.sum = 0;
+
+        final int[] columnBottoms = mColumnBottoms;
+        Arrays.fill(columnBottoms, 0);
+        for (int position = first; position < first + VISIBLE_ITEM_COUNT; position++) {
+            final int spanIndex = mSpanIndexes[position];
+            final boolean isFullSpan = spanIndex < 0;
+            final int height = ITEM_HEIGHT + (position % 3) * 40;
+            final int left;
+            final int right;
+            int top = 0;
+            if (isFullSpan) {
+                for (int bottom : columnBottoms) {
+                    top = Math.max(top, bottom);
+                }
+                Arrays.fill(columnBottoms, top + height);
+                left = 0;
+                right = spanCount * COLUMN_WIDTH;
+            } else {
+                top = columnBottoms[spanIndex];
+                columnBottoms[spanIndex] = top + height;
+                left = spanIndex * COLUMN_WIDTH;
+                right = left + COLUMN_WIDTH;
+            }
+            mEngine.staggeredDividers(mSink, mGutters, SpacingEngine.VERTICAL, position, itemCount,
+                    Math.max(0, spanIndex), isFullSpan, spanCount, left, top, right, top + height);
+        }
+        mGutters.flush(mSink, SpacingEngine.VERTICAL);
+        return mSink.sum;
+    }
+}
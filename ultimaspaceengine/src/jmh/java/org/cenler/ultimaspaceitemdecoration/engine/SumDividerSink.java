@@ -0,0 +1,14 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 累加线段坐标，防止分割线计算被 JIT 消除
+ */
+final class SumDividerSink implements DividerSink {
+
+    float sum;
+
+    @Override
+    public void add(float startX, float startY, float stopX, float stopY) {
+        sum += startX + startY + stopX + stopY;
+    }
+}
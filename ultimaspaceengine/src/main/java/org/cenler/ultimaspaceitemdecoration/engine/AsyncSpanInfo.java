@@ -0,0 +1,321 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Description: 后台构建的网格布局 Span 信息
+ * <p>
+ * 1、Span 大小快照分批拷贝：调用线程每次 {@link #advanceSnapshot()}（每帧一次）最多读取一批，拷贝完成后才提交后台构建
+ * 2、完整的 {@link SpanInfo} 在传入的 {@link Executor} 上根据快照构建，完成后原子发布，下次查询时切换；
+ * 之前使用带扫描窗口的 {@link LazySpanInfo} 按需计算（只扫描可见行附近的窗口，更早的检查点按估算补齐，不从头扫描）
+ * 3、发布前收到 Adapter 局部通知时只修补快照的变化区间（插入、修改的区间重新读取，删除、移动只搬移数组），
+ * 正在构建的结果作废；连续多次通知只在下一次 {@link #advanceSnapshot()} 时合并提交一次构建
+ * <p>
+ * 线程：快照拷贝与修补、构建提交、所有查询及通知只在调用线程（主线程）执行；后台线程只根据已提交的快照构建 {@link SpanInfo}，
+ * 提交后的快照不再修改（修补前先复制）
+ */
+public final class AsyncSpanInfo implements SpanIndex {
+
+    public static final int DEFAULT_SNAPSHOT_CHUNK_SIZE = 8192;
+
+    private final int mSpanCount;
+    private int mItemCount;
+    private final Executor mExecutor;
+    private final int mSnapshotChunkSize;
+
+    private SpanSizeProvider mSpanSizeProvider;
+    private LazySpanInfo mFallback;
+    private SpanInfo mSpanInfo;
+
+    // Span 大小快照，[0, mSnapshotSize) 已读取；发布后释放
+    private int[] mSnapshot;
+    private int mSnapshotSize;
+    // 快照已提交给后台构建，修补前需要复制
+    private boolean mSnapshotShared;
+
+    // 构建代次：局部通知后递增，旧代次的构建结果被丢弃
+    private int mGeneration;
+    private boolean mBuildPending = true;
+    private final AtomicReference<Result> mResult = new AtomicReference<>();
+
+    public AsyncSpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount, Executor executor) {
+        this(spanSizeProvider, spanCount, itemCount, executor,
+                LazySpanInfo.DEFAULT_CHECKPOINT_INTERVAL, LazySpanInfo.DEFAULT_CACHED_BLOCK_COUNT,
+                DEFAULT_SNAPSHOT_CHUNK_SIZE);
+    }
+
+    public AsyncSpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount, Executor executor,
+                         int checkpointInterval, int cachedBlockCount) {
+        this(spanSizeProvider, spanCount, itemCount, executor, checkpointInterval, cachedBlockCount,
+                DEFAULT_SNAPSHOT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param spanSizeProvider   Span 大小（只在调用线程读取）
+     * @param spanCount          Span 数量
+     * @param itemCount          Item 数量
+     * @param executor           后台构建使用的 Executor
+     * @param checkpointInterval 构建完成前按需计算的检查点间隔
+     * @param cachedBlockCount   构建完成前按需计算的缓存块数量
+     * @param snapshotChunkSize  每次 {@link #advanceSnapshot()} 最多读取的 Span 大小数量
+     */
+    public AsyncSpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount, Executor executor,
+                         int checkpointInterval, int cachedBlockCount, int snapshotChunkSize) {
+        mSpanSizeProvider = spanSizeProvider;
+        mSpanCount = spanCount;
+        mItemCount = itemCount;
+        mExecutor = executor;
+        mSnapshotChunkSize = Math.max(1, snapshotChunkSize);
+        // 限制扫描窗口：全量刷新后直接查询深处时只扫描可见位置附近，之前的检查点按估算补齐
+        mFallback = new LazySpanInfo(spanSizeProvider, spanCount, itemCount, checkpointInterval, cachedBlockCount,
+                LazySpanInfo.DEFAULT_WINDOW_BLOCK_COUNT);
+        mSnapshot = new int[Math.min(itemCount, mSnapshotChunkSize)];
+    }
+
+    /**
+     * 后台构建结果
+     */
+    private static final class Result {
+        final int generation;
+        final SpanInfo spanInfo;
+
+        Result(int generation, SpanInfo spanInfo) {
+            this.generation = generation;
+            this.spanInfo = spanInfo;
+        }
+    }
+
+    /**
+     * Description: 调用线程每帧调用一次：继续拷贝一批快照，快照完整且有待提交的构建时提交后台构建
+     *
+     * @return 快照是否尚未拷贝完成，需要下一帧继续调用
+     */
+    public boolean advanceSnapshot() {
+        if (adopt() == mSpanInfo || !mBuildPending) {
+            // 已发布，或已提交等待发布
+            return false;
+        }
+        if (mSnapshotSize < mItemCount) {
+            final int end = (int) Math.min(mItemCount, (long) mSnapshotSize + mSnapshotChunkSize);
+            ensureSnapshotCapacity(end);
+            readSpanSizes(mSnapshotSize, end);
+            mSnapshotSize = end;
+            if (end < mItemCount) {
+                return true;
+            }
+        }
+        submitBuild();
+        return false;
+    }
+
+    private void submitBuild() {
+        mBuildPending = false;
+        mSnapshotShared = true;
+        final int generation = mGeneration;
+        final int spanCount = mSpanCount;
+        final int itemCount = mItemCount;
+        final int[] spanSizes = mSnapshot;
+        try {
+            mExecutor.execute(() -> publish(
+                    new Result(generation, new SpanInfo(position -> spanSizes[position], spanCount, itemCount))));
+        } catch (RejectedExecutionException e) {
+            // 无法后台构建时一直使用按需计算
+        }
+    }
+
+    private void readSpanSizes(int from, int to) {
+        final int[] snapshot = mSnapshot;
+        for (int i = from; i < to; i++) {
+            snapshot[i] = mSpanSizeProvider.getSpanSize(i);
+        }
+    }
+
+    private void ensureSnapshotCapacity(int capacity) {
+        if (mSnapshotShared) {
+            mSnapshot = Arrays.copyOf(mSnapshot, Math.max(capacity, mSnapshot.length));
+            mSnapshotShared = false;
+        } else if (capacity > mSnapshot.length) {
+            mSnapshot = Arrays.copyOf(mSnapshot, Math.max(capacity, mSnapshot.length + (mSnapshot.length >> 1)));
+        }
+    }
+
+    /**
+     * Description: 后台线程发布构建结果，较旧代次的结果不会覆盖较新的结果
+     */
+    private void publish(Result result) {
+        while (true) {
+            final Result previous = mResult.get();
+            if (previous != null && previous.generation > result.generation) {
+                return;
+            }
+            if (mResult.compareAndSet(previous, result)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 已发布的完整 Span 信息，尚未发布时返回按需计算的 Span 信息
+     */
+    private SpanIndex adopt() {
+        if (mSpanInfo != null) {
+            return mSpanInfo;
+        }
+        final Result result = mResult.get();
+        if (result != null && result.generation == mGeneration) {
+            mSpanInfo = result.spanInfo;
+            mFallback = null;
+            mSnapshot = null;
+            mResult.set(null);
+            return mSpanInfo;
+        }
+        return mFallback;
+    }
+
+    /**
+     * @return 当前用于查询的 Span 信息
+     */
+    private SpanIndex current() {
+        return adopt();
+    }
+
+    /**
+     * @return 完整的 Span 信息是否已发布
+     */
+    public boolean isPublished() {
+        adopt();
+        return mSpanInfo != null;
+    }
+
+    /**
+     * @return 发布前是否需要修补快照（已发布时直接增量更新完整的 Span 信息）
+     */
+    private boolean beginUpdate(SpanSizeProvider spanSizeProvider) {
+        mSpanSizeProvider = spanSizeProvider;
+        if (mSpanInfo != null) {
+            return false;
+        }
+        // 正在构建的结果作废，下次 advanceSnapshot 时合并提交
+        mGeneration++;
+        mBuildPending = true;
+        return true;
+    }
+
+    @Override
+    public void onItemRangeChanged(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        adopt().onItemRangeChanged(spanSizeProvider, positionStart, itemCount);
+        if (beginUpdate(spanSizeProvider)) {
+            final int end = Math.min(positionStart + itemCount, mSnapshotSize);
+            if (positionStart < end) {
+                ensureSnapshotCapacity(mSnapshotSize);
+                readSpanSizes(positionStart, end);
+            }
+        }
+    }
+
+    @Override
+    public void onItemRangeInserted(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        adopt().onItemRangeInserted(spanSizeProvider, positionStart, itemCount);
+        mItemCount += itemCount;
+        if (beginUpdate(spanSizeProvider) && positionStart < mSnapshotSize) {
+            // 已读取部分中插入：后移并只读取插入的区间
+            ensureSnapshotCapacity(mSnapshotSize + itemCount);
+            System.arraycopy(mSnapshot, positionStart, mSnapshot, positionStart + itemCount,
+                    mSnapshotSize - positionStart);
+            mSnapshotSize += itemCount;
+            readSpanSizes(positionStart, positionStart + itemCount);
+        }
+    }
+
+    @Override
+    public void onItemRangeRemoved(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        adopt().onItemRangeRemoved(spanSizeProvider, positionStart, itemCount);
+        mItemCount -= itemCount;
+        if (beginUpdate(spanSizeProvider) && positionStart < mSnapshotSize) {
+            final int end = Math.min(positionStart + itemCount, mSnapshotSize);
+            ensureSnapshotCapacity(mSnapshotSize);
+            System.arraycopy(mSnapshot, end, mSnapshot, positionStart, mSnapshotSize - end);
+            mSnapshotSize -= end - positionStart;
+        }
+    }
+
+    @Override
+    public void onItemRangeMoved(SpanSizeProvider spanSizeProvider, int fromPosition, int toPosition, int itemCount) {
+        adopt().onItemRangeMoved(spanSizeProvider, fromPosition, toPosition, itemCount);
+        if (!beginUpdate(spanSizeProvider)) {
+            return;
+        }
+        final int start = Math.min(fromPosition, toPosition);
+        if (Math.max(fromPosition, toPosition) + itemCount > mSnapshotSize) {
+            // 移动涉及尚未读取的部分，从变化处开始重新读取
+            mSnapshotSize = Math.min(mSnapshotSize, start);
+            return;
+        }
+        ensureSnapshotCapacity(mSnapshotSize);
+        final int[] moved = Arrays.copyOfRange(mSnapshot, fromPosition, fromPosition + itemCount);
+        if (fromPosition < toPosition) {
+            System.arraycopy(mSnapshot, fromPosition + itemCount, mSnapshot, fromPosition, toPosition - fromPosition);
+        } else {
+            System.arraycopy(mSnapshot, toPosition, mSnapshot, toPosition + itemCount, fromPosition - toPosition);
+        }
+        System.arraycopy(moved, 0, mSnapshot, toPosition, itemCount);
+    }
+
+    @Override
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    @Override
+    public boolean isFirstSpan(int position) {
+        return current().isFirstSpan(position);
+    }
+
+    @Override
+    public boolean isLastSpan(int position) {
+        return current().isLastSpan(position);
+    }
+
+    @Override
+    public int getRowByPosition(int position) {
+        return current().getRowByPosition(position);
+    }
+
+    @Override
+    public int getCurrentRowRelativeIndex(int position) {
+        return current().getCurrentRowRelativeIndex(position);
+    }
+
+    @Override
+    public int getCurrentRowRelativeOffsetIndex(int position) {
+        return current().getCurrentRowRelativeOffsetIndex(position);
+    }
+
+    @Override
+    public int getCurrentRowRelativeItemCount(int position) {
+        return current().getCurrentRowRelativeItemCount(position);
+    }
+
+    @Override
+    public int getCurrentRowSumSpanCount(int position) {
+        return current().getCurrentRowSumSpanCount(position);
+    }
+
+    @Override
+    public boolean isInRow(int position, int row) {
+        return current().isInRow(position, row);
+    }
+
+    @Override
+    public boolean isInSameRow(int position, int targetPosition) {
+        return current().isInSameRow(position, targetPosition);
+    }
+}
@@ -0,0 +1,14 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 分割线线段收集，一帧结束后统一绘制
+ */
+public interface DividerSink {
+    /**
+     * @param startX 起点 X
+     * @param startY 起点 Y
+     * @param stopX  终点 X
+     * @param stopY  终点 Y
+     */
+    void add(float startX, float startY, float stopX, float stopY);
+}
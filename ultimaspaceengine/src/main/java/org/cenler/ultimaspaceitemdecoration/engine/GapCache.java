@@ -0,0 +1,173 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 按 position 缓存 {@link GapMatrix} 解析出的间距
+ * <p>
+ * 1、position 的间距取决于自身及下一个（行）Item 的 ViewType，回滚时直接命中，不再查询相邻 Item
+ * 2、与 {@link OffsetCache} 相同，连续 blockSize 个 position 打包存放，块保存在固定数量的 LRU 槽位里，内存不随列表长度增长
+ * 3、Adapter 局部通知按范围失效；由于依赖下一个 Item，失效范围向前扩展一个 position（网格布局由调用方扩展到上一行行首，
+ * 见 {@link SpanIndex#getInvalidationStart(int)}）
+ */
+public final class GapCache {
+
+    public static final int UNRESOLVED = Integer.MIN_VALUE;
+
+    private final int mBlockSize;
+    private final Block[] mBlocks;
+    private long mAccessTick;
+    private Block mLastBlock;
+
+    private long mHitCount;
+    private long mMissCount;
+
+    public GapCache() {
+        this(OffsetCache.DEFAULT_BLOCK_SIZE, OffsetCache.DEFAULT_CACHED_BLOCK_COUNT);
+    }
+
+    public GapCache(int blockSize, int cachedBlockCount) {
+        mBlockSize = Math.max(1, blockSize);
+        mBlocks = new Block[Math.max(1, cachedBlockCount)];
+        for (int i = 0; i < mBlocks.length; i++) {
+            mBlocks[i] = new Block(mBlockSize);
+        }
+    }
+
+    /**
+     * 单个缓存块：连续 blockSize 个 position 的间距，未解析为 {@link #UNRESOLVED}
+     */
+    private static final class Block {
+        int index = -1;
+        long lastAccess;
+        final int[] gaps;
+
+        Block(int blockSize) {
+            gaps = new int[blockSize];
+            Arrays.fill(gaps, UNRESOLVED);
+        }
+
+        void clear() {
+            index = -1;
+            lastAccess = 0;
+            Arrays.fill(gaps, UNRESOLVED);
+        }
+    }
+
+    /**
+     * @param position 当前 Item
+     * @return 已解析的间距（可能为 {@link GapMatrix#NO_GAP}），未解析时为 {@link #UNRESOLVED}
+     */
+    public int get(int position) {
+        final Block block = position < 0 ? null : findBlock(position / mBlockSize);
+        final int gap = block == null ? UNRESOLVED : block.gaps[position % mBlockSize];
+        if (gap == UNRESOLVED) {
+            mMissCount++;
+            return UNRESOLVED;
+        }
+        block.lastAccess = ++mAccessTick;
+        mHitCount++;
+        return gap;
+    }
+
+    /**
+     * @param position 当前 Item
+     * @param gap      解析出的间距
+     */
+    public void put(int position, int gap) {
+        if (position < 0) {
+            return;
+        }
+        final int index = position / mBlockSize;
+        Block block = findBlock(index);
+        if (block == null) {
+            block = mBlocks[0];
+            for (Block b : mBlocks) {
+                if (b.lastAccess < block.lastAccess) {
+                    block = b;
+                }
+            }
+            block.clear();
+            block.index = index;
+        }
+        block.gaps[position % mBlockSize] = gap;
+        block.lastAccess = ++mAccessTick;
+        mLastBlock = block;
+    }
+
+    private Block findBlock(int index) {
+        final Block last = mLastBlock;
+        if (last != null && last.index == index) {
+            return last;
+        }
+        for (Block block : mBlocks) {
+            if (block.index == index) {
+                mLastBlock = block;
+                return block;
+            }
+        }
+        return null;
+    }
+
+    public void invalidateAll() {
+        for (Block block : mBlocks) {
+            block.clear();
+        }
+        mLastBlock = null;
+    }
+
+    /**
+     * @param positionStart 起始 position
+     * @param itemCount     失效数量
+     */
+    public void invalidate(int positionStart, int itemCount) {
+        final int start = Math.max(0, positionStart - 1);
+        final int end = positionStart + itemCount;
+        for (Block block : mBlocks) {
+            if (block.index < 0) {
+                continue;
+            }
+            final int from = block.index * mBlockSize;
+            final int fromIndex = Math.max(start, from) - from;
+            final int toIndex = Math.min(end, from + mBlockSize) - from;
+            if (fromIndex < toIndex) {
+                Arrays.fill(block.gaps, fromIndex, toIndex, UNRESOLVED);
+            }
+        }
+    }
+
+    /**
+     * Description: position 之后（含）全部失效，用于插入、删除、移动
+     *
+     * @param position 起始 position
+     */
+    public void invalidateFrom(int position) {
+        final int start = Math.max(0, position - 1);
+        for (Block block : mBlocks) {
+            if (block.index < 0) {
+                continue;
+            }
+            final int from = block.index * mBlockSize;
+            if (from >= start) {
+                block.clear();
+            } else if (from + mBlockSize > start) {
+                Arrays.fill(block.gaps, start - from, mBlockSize, UNRESOLVED);
+            }
+        }
+        mLastBlock = null;
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return mMissCount;
+    }
+}
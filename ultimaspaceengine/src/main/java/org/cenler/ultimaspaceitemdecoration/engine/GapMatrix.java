@@ -0,0 +1,95 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 相邻 ViewType 间距矩阵（单位 px）
+ * <p>
+ * 1、N 个 ViewType 映射为 0..N-1 的下标，间距按 [前一个][后一个] 存放在一维 int[N * N] 中
+ * 2、未配置的组合返回 {@link #NO_GAP}，由调用方使用默认的 verticalSpace / horizontalSpace
+ * 3、不可变对象，通过 {@link Builder} 创建
+ */
+public final class GapMatrix {
+
+    public static final int NO_GAP = -1;
+
+    // 已排序的 ViewType，下标即矩阵行列
+    private final int[] mViewTypes;
+    private final int[] mGaps;
+
+    private GapMatrix(int[] viewTypes, int[] gaps) {
+        mViewTypes = viewTypes;
+        mGaps = gaps;
+    }
+
+    /**
+     * @param viewType     当前 Item 的 ViewType
+     * @param nextViewType 下一个（行）Item 的 ViewType
+     * @return 两者之间的间距，未配置时为 {@link #NO_GAP}
+     */
+    public int getGap(int viewType, int nextViewType) {
+        final int from = Arrays.binarySearch(mViewTypes, viewType);
+        if (from < 0) {
+            return NO_GAP;
+        }
+        final int to = Arrays.binarySearch(mViewTypes, nextViewType);
+        if (to < 0) {
+            return NO_GAP;
+        }
+        return mGaps[from * mViewTypes.length + to];
+    }
+
+    /**
+     * 建造器
+     */
+    public static final class Builder {
+        private int[] fromTypes = new int[8];
+        private int[] toTypes = new int[8];
+        private int[] gaps = new int[8];
+        private int size;
+
+        /**
+         * @param viewType     前一个 Item 的 ViewType
+         * @param nextViewType 后一个 Item 的 ViewType
+         * @param gap          两者之间的间距（px）
+         * @return Builder
+         */
+        public Builder setGap(int viewType, int nextViewType, int gap) {
+            if (size == gaps.length) {
+                fromTypes = Arrays.copyOf(fromTypes, size * 2);
+                toTypes = Arrays.copyOf(toTypes, size * 2);
+                gaps = Arrays.copyOf(gaps, size * 2);
+            }
+            fromTypes[size] = viewType;
+            toTypes[size] = nextViewType;
+            gaps[size] = Math.max(0, gap);
+            size++;
+            return this;
+        }
+
+        public GapMatrix build() {
+            // 收集并排序去重所有出现过的 ViewType
+            final int[] all = new int[size * 2];
+            System.arraycopy(fromTypes, 0, all, 0, size);
+            System.arraycopy(toTypes, 0, all, size, size);
+            Arrays.sort(all);
+            int count = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) {
+                    all[count++] = all[i];
+                }
+            }
+            final int[] viewTypes = Arrays.copyOf(all, count);
+
+            final int[] matrix = new int[count * count];
+            Arrays.fill(matrix, NO_GAP);
+            // 同一组合重复设置时以最后一次为准
+            for (int i = 0; i < size; i++) {
+                final int from = Arrays.binarySearch(viewTypes, fromTypes[i]);
+                final int to = Arrays.binarySearch(viewTypes, toTypes[i]);
+                matrix[from * count + to] = gaps[i];
+            }
+            return new GapMatrix(viewTypes, matrix);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 网格布局去重分割线收集
+ * <p>
+ * 一帧内每个 child 只登记自身负责的行分割线与列间隔线，{@link #flush} 时按坐标合并相连的线段后统一输出，
+ * 每条行分割线、列间隔线在连续区域内只绘制一次
+ */
+public final class GridLines {
+
+    private final Lines mRowLines = new Lines();
+    private final Lines mColumnLines = new Lines();
+
+    /**
+     * @param position 行分割线坐标（纵向布局为 y，横向布局为 x）
+     * @param start    覆盖范围起点
+     * @param end      覆盖范围终点
+     */
+    public void addRowLine(int position, int start, int end) {
+        mRowLines.add(position, start, end);
+    }
+
+    /**
+     * @param position 列间隔线坐标（纵向布局为 x，横向布局为 y）
+     * @param start    覆盖范围起点
+     * @param end      覆盖范围终点
+     */
+    public void addColumnLine(int position, int start, int end) {
+        mColumnLines.add(position, start, end);
+    }
+
+    /**
+     * Description: 合并并输出所有线段，然后清空
+     *
+     * @param sink        分割线收集
+     * @param orientation 布局方向
+     */
+    public void flush(DividerSink sink, int orientation) {
+        mRowLines.flush(sink, orientation == SpacingEngine.VERTICAL);
+        mColumnLines.flush(sink, orientation != SpacingEngine.VERTICAL);
+    }
+
+    /**
+     * 同一方向的线段
+     */
+    private static final class Lines {
+        private int[] mPositions = new int[64];
+        private int[] mStarts = new int[64];
+        private int[] mEnds = new int[64];
+        private int mCount;
+
+        void add(int position, int start, int end) {
+            if (mCount == mPositions.length) {
+                mPositions = Arrays.copyOf(mPositions, mCount * 2);
+                mStarts = Arrays.copyOf(mStarts, mCount * 2);
+                mEnds = Arrays.copyOf(mEnds, mCount * 2);
+            }
+            mPositions[mCount] = position;
+            mStarts[mCount] = start;
+            mEnds[mCount] = end;
+            mCount++;
+        }
+
+        /**
+         * @param horizontal 是否为水平线段
+         */
+        void flush(DividerSink sink, boolean horizontal) {
+            final int count = mCount;
+            if (count == 0) {
+                return;
+            }
+            sort();
+
+            int position = mPositions[0];
+            int start = mStarts[0];
+            int end = mEnds[0];
+            for (int i = 1; i <= count; i++) {
+                // 相邻 Item 的范围首尾重叠或相差 1px（间距为奇数）时合并
+                if (i < count && mPositions[i] == position && mStarts[i] <= end + 1) {
+                    end = Math.max(end, mEnds[i]);
+                    continue;
+                }
+                if (horizontal) {
+                    sink.add(start, position, end, position);
+                } else {
+                    sink.add(position, start, position, end);
+                }
+                if (i < count) {
+                    position = mPositions[i];
+                    start = mStarts[i];
+                    end = mEnds[i];
+                }
+            }
+            mCount = 0;
+        }
+
+        /**
+         * 插入排序（按坐标、起点）：child 基本按顺序登记，同一坐标的线段大多已相邻
+         */
+        private void sort() {
+            final int[] positions = mPositions;
+            final int[] starts = mStarts;
+            final int[] ends = mEnds;
+            for (int i = 1; i < mCount; i++) {
+                final int position = positions[i];
+                final int start = starts[i];
+                final int end = ends[i];
+                int j = i - 1;
+                while (j >= 0 && (positions[j] > position || positions[j] == position && starts[j] > start)) {
+                    positions[j + 1] = positions[j];
+                    starts[j + 1] = starts[j];
+                    ends[j + 1] = ends[j];
+                    j--;
+                }
+                positions[j + 1] = position;
+                starts[j + 1] = start;
+                ends[j + 1] = end;
+            }
+        }
+    }
+}
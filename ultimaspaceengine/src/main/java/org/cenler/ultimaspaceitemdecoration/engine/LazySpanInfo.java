@@ -0,0 +1,374 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 按需计算的网格布局 Span 信息
+ * <p>
+ * 1、只计算到被查询过的最大 position，不遍历整个 Adapter
+ * 2、每 {@code checkpointInterval} 个 position 保存一个扫描检查点（行号、当前行已占 Span、当前行起始 position）
+ * 3、完整解析的 Item 按块缓存在固定数量的 LRU 槽位中，内存与 Adapter 大小无关
+ * 4、可限制扫描窗口（分页、占位符列表）：目标块距离最近的检查点超过窗口时，中间的检查点按每个 Item 占用 1 个 Span 估算，
+ * 只实际扫描目标块之前窗口内的 Item；对占位符是精确的，已加载的不同 Span 大小的 Item 只影响窗口内的排布
+ */
+public final class LazySpanInfo implements SpanIndex {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+    public static final int DEFAULT_CACHED_BLOCK_COUNT = 8;
+    public static final int DEFAULT_WINDOW_BLOCK_COUNT = 4;
+
+    private static final int FLAG_FIRST_SPAN = 1;
+    private static final int FLAG_LAST_SPAN = 1 << 1;
+
+    private final int mSpanCount;
+    private final int mInterval;
+    // 扫描窗口（块数），0 表示不限制
+    private final int mWindowBlockCount;
+    private int mItemCount;
+    private SpanSizeProvider mSpanSizeProvider;
+
+    // 检查点：第 n 个检查点为处理 position = n * interval 之前的扫描状态
+    private int[] mCheckpointRow;
+    private int[] mCheckpointTotal;
+    private int[] mCheckpointRowStart;
+    private int mCheckpointCount;
+
+    // 块缓存
+    private final Block[] mBlocks;
+    private long mAccessTick;
+    private Block mLastBlock;
+
+    public LazySpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount) {
+        this(spanSizeProvider, spanCount, itemCount, DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_CACHED_BLOCK_COUNT);
+    }
+
+    public LazySpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount,
+                 int checkpointInterval, int cachedBlockCount) {
+        this(spanSizeProvider, spanCount, itemCount, checkpointInterval, cachedBlockCount, 0);
+    }
+
+    /**
+     * @param spanSizeProvider   Span 大小
+     * @param spanCount          Span 数量
+     * @param itemCount          Item 数量
+     * @param checkpointInterval 每隔多少个 Item 保存一个检查点，同时也是缓存块大小
+     * @param cachedBlockCount   缓存块数量
+     * @param windowBlockCount   扫描窗口（块数），超出窗口的检查点按估算补齐；0 表示总是从头扫描
+     */
+    public LazySpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount,
+                        int checkpointInterval, int cachedBlockCount, int windowBlockCount) {
+        mSpanSizeProvider = spanSizeProvider;
+        mSpanCount = spanCount;
+        mItemCount = itemCount;
+        mInterval = Math.max(1, checkpointInterval);
+        mWindowBlockCount = Math.max(0, windowBlockCount);
+
+        mCheckpointRow = new int[16];
+        mCheckpointTotal = new int[16];
+        mCheckpointRowStart = new int[16];
+        mCheckpointCount = 1;
+
+        mBlocks = new Block[Math.max(1, cachedBlockCount)];
+        for (int i = 0; i < mBlocks.length; i++) {
+            mBlocks[i] = new Block(mInterval);
+        }
+    }
+
+    /**
+     * 单个缓存块：连续 interval 个 position 的完整 Span 信息
+     */
+    private static final class Block {
+        int index = -1;
+        long lastAccess;
+        final int[] row;
+        final int[] offsetIndex;
+        final int[] rowStart;
+        final int[] rowSize;
+        final int[] rowSumSpanCount;
+        final byte[] flags;
+
+        Block(int interval) {
+            row = new int[interval];
+            offsetIndex = new int[interval];
+            rowStart = new int[interval];
+            rowSize = new int[interval];
+            rowSumSpanCount = new int[interval];
+            flags = new byte[interval];
+        }
+    }
+
+    private Block blockOf(int position) {
+        final int index = position / mInterval;
+        final Block last = mLastBlock;
+        if (last != null && last.index == index) {
+            return last;
+        }
+
+        Block target = null;
+        Block eldest = mBlocks[0];
+        for (Block block : mBlocks) {
+            if (block.index == index) {
+                target = block;
+                break;
+            }
+            if (block.lastAccess < eldest.lastAccess) {
+                eldest = block;
+            }
+        }
+        if (target == null) {
+            target = eldest;
+            resolve(target, index);
+        }
+        target.lastAccess = ++mAccessTick;
+        mLastBlock = target;
+        return target;
+    }
+
+    /**
+     * Description: 向前扫描，补齐到目标块为止的检查点（只记录状态，不保存 Item 信息）
+     */
+    private void ensureCheckpoint(int blockIndex) {
+        if (blockIndex < mCheckpointCount) {
+            return;
+        }
+        if (mWindowBlockCount > 0 && blockIndex - mWindowBlockCount >= mCheckpointCount) {
+            estimateCheckpoints(blockIndex - mWindowBlockCount);
+        }
+        final int spanCount = mSpanCount;
+        int cp = mCheckpointCount - 1;
+        int row = mCheckpointRow[cp];
+        int total = mCheckpointTotal[cp];
+        int rowStart = mCheckpointRowStart[cp];
+
+        for (int i = cp * mInterval; cp < blockIndex; i++) {
+            if (i > cp * mInterval && i % mInterval == 0) {
+                putCheckpoint(++cp, row, total, rowStart);
+                if (cp == blockIndex) {
+                    break;
+                }
+            }
+            final int innerSpanSize = mSpanSizeProvider.getSpanSize(i);
+            total += innerSpanSize;
+            if (total == spanCount) {
+                if (total == innerSpanSize) {
+                    rowStart = i;
+                }
+                total = 0;
+                row++;
+            } else if (total > spanCount) {
+                row++;
+                rowStart = i;
+                total = innerSpanSize;
+            } else if (total == innerSpanSize) {
+                rowStart = i;
+            }
+        }
+    }
+
+    /**
+     * Description: 不扫描 Item，按每个 Item 占用 1 个 Span 估算补齐到 toIndex（含）为止的检查点
+     */
+    private void estimateCheckpoints(int toIndex) {
+        final int cp = mCheckpointCount - 1;
+        final int baseRow = mCheckpointRow[cp];
+        // 以最近的检查点所在行的行首为起点
+        final long baseSpan = (long) cp * mInterval - mCheckpointTotal[cp];
+        for (int index = cp + 1; index <= toIndex; index++) {
+            final long spans = (long) index * mInterval - baseSpan;
+            final int total = (int) (spans % mSpanCount);
+            putCheckpoint(index, (int) (baseRow + spans / mSpanCount), total, index * mInterval - total);
+        }
+    }
+
+    private void putCheckpoint(int index, int row, int total, int rowStart) {
+        if (index >= mCheckpointRow.length) {
+            final int capacity = Math.max(index + 1, mCheckpointRow.length * 2);
+            mCheckpointRow = Arrays.copyOf(mCheckpointRow, capacity);
+            mCheckpointTotal = Arrays.copyOf(mCheckpointTotal, capacity);
+            mCheckpointRowStart = Arrays.copyOf(mCheckpointRowStart, capacity);
+        }
+        mCheckpointRow[index] = row;
+        mCheckpointTotal[index] = total;
+        mCheckpointRowStart[index] = rowStart;
+        mCheckpointCount = Math.max(mCheckpointCount, index + 1);
+    }
+
+    /**
+     * Description: 从检查点开始解析整个块；块末尾未结束的行继续向后扫描（最多 spanCount 个 Item）以确定行大小
+     */
+    private void resolve(Block block, int blockIndex) {
+        ensureCheckpoint(blockIndex);
+
+        final int spanCount = mSpanCount;
+        final int from = blockIndex * mInterval;
+        final int end = Math.min(from + mInterval, mItemCount);
+        int row = mCheckpointRow[blockIndex];
+        int total = mCheckpointTotal[blockIndex];
+        int rowStart = mCheckpointRowStart[blockIndex];
+        // 当前行中第一个尚未回填行信息的块内下标
+        int pending = 0;
+
+        Arrays.fill(block.flags, (byte) 0);
+        block.index = blockIndex;
+
+        int i = from;
+        for (; i < mItemCount; i++) {
+            if (i >= end && total == 0) {
+                break;
+            }
+            if (i == end && blockIndex + 1 >= mCheckpointCount) {
+                putCheckpoint(blockIndex + 1, row, total, rowStart);
+            }
+
+            final int innerSpanSize = mSpanSizeProvider.getSpanSize(i);
+            final int k = i - from;
+            total += innerSpanSize;
+
+            if (total > spanCount) {
+                // 上一行在 i 之前结束
+                fillRow(block, pending, Math.min(k, mInterval), rowStart, i - rowStart, total - innerSpanSize);
+                pending = k;
+                if (i >= end) {
+                    break;
+                }
+                row++;
+                rowStart = i;
+                block.flags[k] |= FLAG_FIRST_SPAN;
+                block.offsetIndex[k] = (total - innerSpanSize - 1) % spanCount;
+                block.row[k] = row;
+                total = innerSpanSize;
+                continue;
+            }
+
+            if (total == innerSpanSize) {
+                rowStart = i;
+            }
+            if (i < end) {
+                if (total == innerSpanSize) {
+                    block.flags[k] |= FLAG_FIRST_SPAN;
+                }
+                block.offsetIndex[k] = (total - 1) % spanCount;
+                block.row[k] = row;
+            }
+            if (total == spanCount) {
+                if (i < end) {
+                    block.flags[k] |= FLAG_LAST_SPAN;
+                }
+                fillRow(block, pending, Math.min(k + 1, mInterval), rowStart, i - rowStart + 1, total);
+                pending = k + 1;
+                total = 0;
+                row++;
+            }
+        }
+        if (i == end && end == from + mInterval && blockIndex + 1 >= mCheckpointCount) {
+            putCheckpoint(blockIndex + 1, row, total, rowStart);
+        }
+        // Adapter 末尾未填满的行
+        if (pending < end - from) {
+            fillRow(block, pending, end - from, rowStart, i - rowStart, total);
+        }
+    }
+
+    private static void fillRow(Block block, int fromIndex, int toIndex, int rowStart, int rowSize, int rowSum) {
+        for (int k = fromIndex; k < toIndex; k++) {
+            block.rowStart[k] = rowStart;
+            block.rowSize[k] = rowSize;
+            block.rowSumSpanCount[k] = rowSum;
+        }
+    }
+
+    /**
+     * Description: 从 position 开始的数据已失效，丢弃之后的检查点和受影响的缓存块
+     */
+    private void invalidateFrom(SpanSizeProvider spanSizeProvider, int position, int newItemCount) {
+        mSpanSizeProvider = spanSizeProvider;
+        mItemCount = newItemCount;
+        position = Math.max(0, position);
+        mCheckpointCount = Math.min(mCheckpointCount, position / mInterval + 1);
+        for (Block block : mBlocks) {
+            // 块解析时可能越过块尾最多 spanCount 个 Item
+            if (block.index >= 0 && (block.index + 1) * mInterval + mSpanCount >= position) {
+                block.index = -1;
+                block.lastAccess = 0;
+            }
+        }
+        mLastBlock = null;
+    }
+
+    @Override
+    public void onItemRangeChanged(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        invalidateFrom(spanSizeProvider, positionStart, mItemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        invalidateFrom(spanSizeProvider, positionStart, mItemCount + itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        invalidateFrom(spanSizeProvider, positionStart, mItemCount - itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(SpanSizeProvider spanSizeProvider, int fromPosition, int toPosition, int itemCount) {
+        invalidateFrom(spanSizeProvider, Math.min(fromPosition, toPosition), mItemCount);
+    }
+
+    @Override
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    @Override
+    public boolean isFirstSpan(int position) {
+        return (blockOf(position).flags[position % mInterval] & FLAG_FIRST_SPAN) != 0;
+    }
+
+    @Override
+    public boolean isLastSpan(int position) {
+        return (blockOf(position).flags[position % mInterval] & FLAG_LAST_SPAN) != 0;
+    }
+
+    @Override
+    public int getRowByPosition(int position) {
+        return blockOf(position).row[position % mInterval];
+    }
+
+    @Override
+    public int getCurrentRowRelativeIndex(int position) {
+        return position - blockOf(position).rowStart[position % mInterval];
+    }
+
+    @Override
+    public int getCurrentRowRelativeOffsetIndex(int position) {
+        return blockOf(position).offsetIndex[position % mInterval];
+    }
+
+    @Override
+    public int getCurrentRowRelativeItemCount(int position) {
+        return blockOf(position).rowSize[position % mInterval];
+    }
+
+    @Override
+    public int getCurrentRowSumSpanCount(int position) {
+        return blockOf(position).rowSumSpanCount[position % mInterval];
+    }
+
+    @Override
+    public boolean isInRow(int position, int row) {
+        return getRowByPosition(position) == row;
+    }
+
+    @Override
+    public boolean isInSameRow(int position, int targetPosition) {
+        final Block block = blockOf(position);
+        final int rowStart = block.rowStart[position % mInterval];
+        return targetPosition >= rowStart && targetPosition < rowStart + block.rowSize[position % mInterval];
+    }
+}
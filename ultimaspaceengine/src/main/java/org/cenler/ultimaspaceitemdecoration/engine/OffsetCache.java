@@ -0,0 +1,208 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 按 position 缓存计算好的间距（left/top/right/bottom）
+ * <p>
+ * 1、连续 blockSize 个 position 打包存放在一个 int[] 中，块保存在固定数量的 LRU 槽位里；列表较小时所有块常驻，相当于一张完整的表
+ * 2、缓存以 {@link #ensureVersion} 传入的配置、Span 数量、方向、Item 数量为版本，任一变化时整体失效
+ * 3、Adapter 局部通知按范围失效
+ */
+public final class OffsetCache {
+
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    public static final int DEFAULT_CACHED_BLOCK_COUNT = 16;
+
+    private final int mBlockSize;
+    private final Block[] mBlocks;
+    private long mAccessTick;
+    private Block mLastBlock;
+
+    // 版本
+    private SpacingConfig mConfig;
+    private int mSpanCount;
+    private int mOrientation;
+    private boolean mReverseLayout;
+    private int mItemCount = -1;
+
+    private long mHitCount;
+    private long mMissCount;
+
+    public OffsetCache() {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_CACHED_BLOCK_COUNT);
+    }
+
+    public OffsetCache(int blockSize, int cachedBlockCount) {
+        mBlockSize = Math.max(1, blockSize);
+        mBlocks = new Block[Math.max(1, cachedBlockCount)];
+        for (int i = 0; i < mBlocks.length; i++) {
+            mBlocks[i] = new Block(mBlockSize);
+        }
+    }
+
+    /**
+     * 单个缓存块：连续 blockSize 个 position 的间距
+     */
+    private static final class Block {
+        int index = -1;
+        long lastAccess;
+        final int[] offsets;
+        final boolean[] valid;
+
+        Block(int blockSize) {
+            offsets = new int[blockSize * 4];
+            valid = new boolean[blockSize];
+        }
+
+        void clear() {
+            index = -1;
+            lastAccess = 0;
+            Arrays.fill(valid, false);
+        }
+    }
+
+    /**
+     * Description: 校验缓存版本，与上次不一致时清空
+     *
+     * @param config        间距配置
+     * @param spanCount     Span 数量
+     * @param orientation   布局方向
+     * @param reverseLayout 是否反转布局
+     * @param itemCount     Item 数量
+     */
+    public void ensureVersion(SpacingConfig config, int spanCount, int orientation, boolean reverseLayout, int itemCount) {
+        if (mConfig == config && mSpanCount == spanCount && mOrientation == orientation
+                && mReverseLayout == reverseLayout && mItemCount == itemCount) {
+            return;
+        }
+        invalidateAll();
+        mConfig = config;
+        mSpanCount = spanCount;
+        mOrientation = orientation;
+        mReverseLayout = reverseLayout;
+        mItemCount = itemCount;
+    }
+
+    /**
+     * @param position 当前 Item
+     * @param out      命中时输出 left/top/right/bottom
+     * @return 是否命中
+     */
+    public boolean get(int position, int[] out) {
+        final Block block = findBlock(position / mBlockSize);
+        final int k = position % mBlockSize;
+        if (block == null || !block.valid[k]) {
+            mMissCount++;
+            return false;
+        }
+        System.arraycopy(block.offsets, k * 4, out, 0, 4);
+        block.lastAccess = ++mAccessTick;
+        mHitCount++;
+        return true;
+    }
+
+    /**
+     * @param position 当前 Item
+     * @param offsets  计算好的 left/top/right/bottom
+     */
+    public void put(int position, int[] offsets) {
+        final int index = position / mBlockSize;
+        Block block = findBlock(index);
+        if (block == null) {
+            block = mBlocks[0];
+            for (Block b : mBlocks) {
+                if (b.lastAccess < block.lastAccess) {
+                    block = b;
+                }
+            }
+            block.clear();
+            block.index = index;
+        }
+        final int k = position % mBlockSize;
+        System.arraycopy(offsets, 0, block.offsets, k * 4, 4);
+        block.valid[k] = true;
+        block.lastAccess = ++mAccessTick;
+        mLastBlock = block;
+    }
+
+    private Block findBlock(int index) {
+        final Block last = mLastBlock;
+        if (last != null && last.index == index) {
+            return last;
+        }
+        for (Block block : mBlocks) {
+            if (block.index == index) {
+                mLastBlock = block;
+                return block;
+            }
+        }
+        return null;
+    }
+
+    public void invalidateAll() {
+        for (Block block : mBlocks) {
+            block.clear();
+        }
+        mLastBlock = null;
+    }
+
+    /**
+     * @param positionStart 起始 position
+     * @param itemCount     失效数量
+     */
+    public void invalidate(int positionStart, int itemCount) {
+        final int start = Math.max(0, positionStart);
+        final int end = positionStart + itemCount;
+        for (Block block : mBlocks) {
+            if (block.index < 0) {
+                continue;
+            }
+            final int from = block.index * mBlockSize;
+            final int fromIndex = Math.max(start, from) - from;
+            final int toIndex = Math.min(end, from + mBlockSize) - from;
+            if (fromIndex < toIndex) {
+                Arrays.fill(block.valid, fromIndex, toIndex, false);
+            }
+        }
+    }
+
+    /**
+     * Description: position 之后（含）全部失效，用于插入、删除、移动及网格重新排布
+     *
+     * @param position       起始 position
+     * @param itemCountDelta Item 数量变化
+     */
+    public void invalidateFrom(int position, int itemCountDelta) {
+        final int start = Math.max(0, position);
+        for (Block block : mBlocks) {
+            if (block.index < 0) {
+                continue;
+            }
+            final int from = block.index * mBlockSize;
+            if (from >= start) {
+                block.clear();
+            } else if (from + mBlockSize > start) {
+                Arrays.fill(block.valid, start - from, mBlockSize, false);
+            }
+        }
+        mLastBlock = null;
+        if (mItemCount >= 0) {
+            mItemCount += itemCountDelta;
+        }
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return mMissCount;
+    }
+}
@@ -0,0 +1,12 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 网格布局分组边界（如每个分组以占满整行的标题开始）
+ */
+public interface SectionProvider {
+    /**
+     * @param position Item Position
+     * @return 是否开始一个新的分组，第一个 Item 总是开始分组
+     */
+    boolean isSectionStart(int position);
+}
@@ -0,0 +1,276 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 分组网格布局 Span 信息
+ * <p>
+ * 1、{@link SectionProvider} 标记分组边界，每个分组独立计算一份 {@link SpanInfo}（分组内 position 从 0 开始）
+ * 2、分组偏移表保存每个分组的起始 position 及起始行号，行号在整个列表内连续
+ * 3、首尾行按分组判断：{@link #isFirstRow}、{@link #isLastRow} 对每个分组的首尾行成立，首尾隐藏、外边距随之按分组生效
+ * 4、Adapter 局部通知只重新计算受影响的分组（边界变化时包括合并、拆分出的分组），之后的分组只平移偏移表
+ */
+public final class SectionedSpanInfo implements SpanIndex {
+
+    private static final int INITIAL_SECTION_CAPACITY = 8;
+
+    private final int mSpanCount;
+    private final SectionProvider mSectionProvider;
+    private int mItemCount;
+
+    // 分组偏移表
+    private int[] mSectionStart = new int[INITIAL_SECTION_CAPACITY];
+    private int[] mSectionRowOffset = new int[INITIAL_SECTION_CAPACITY];
+    private SpanInfo[] mSections = new SpanInfo[INITIAL_SECTION_CAPACITY];
+    private int mSectionCount;
+
+    // 上次查询的分组，滑动时连续查询基本落在同一分组
+    private int mLastSection;
+
+    /**
+     * @param spanSizeProvider Span 大小
+     * @param sectionProvider  分组边界
+     * @param spanCount        Span 数量
+     * @param itemCount        Item 数量
+     */
+    public SectionedSpanInfo(SpanSizeProvider spanSizeProvider, SectionProvider sectionProvider, int spanCount,
+                             int itemCount) {
+        mSpanCount = spanCount;
+        mSectionProvider = sectionProvider;
+        mItemCount = itemCount;
+        mSectionCount = build(spanSizeProvider, 0, itemCount, 0);
+        updateRowOffsets(0);
+    }
+
+    /**
+     * Description: 扫描 [from, to) 的分组边界并计算每个分组的 Span 信息，from 总是开始一个分组
+     *
+     * @return 写入后的分组数量
+     */
+    private int build(SpanSizeProvider spanSizeProvider, int from, int to, int count) {
+        int sectionStart = from;
+        for (int i = from + 1; i <= to; i++) {
+            if (i < to && !mSectionProvider.isSectionStart(i)) {
+                continue;
+            }
+            if (sectionStart < i) {
+                ensureSectionCapacity(count + 1);
+                final int offset = sectionStart;
+                mSectionStart[count] = offset;
+                mSections[count] = new SpanInfo(p -> spanSizeProvider.getSpanSize(offset + p), mSpanCount,
+                        i - sectionStart);
+                count++;
+            }
+            sectionStart = i;
+        }
+        return count;
+    }
+
+    private void ensureSectionCapacity(int count) {
+        if (count <= mSectionStart.length) {
+            return;
+        }
+        final int capacity = Math.max(count, mSectionStart.length * 2);
+        mSectionStart = Arrays.copyOf(mSectionStart, capacity);
+        mSectionRowOffset = Arrays.copyOf(mSectionRowOffset, capacity);
+        mSections = Arrays.copyOf(mSections, capacity);
+    }
+
+    private void updateRowOffsets(int fromSection) {
+        int row = fromSection == 0 ? 0 : mSectionRowOffset[fromSection - 1] + mSections[fromSection - 1].getRowCount();
+        for (int s = fromSection; s < mSectionCount; s++) {
+            mSectionRowOffset[s] = row;
+            row += mSections[s].getRowCount();
+        }
+    }
+
+    /**
+     * @param position 当前 Item
+     * @return 所在分组下标
+     */
+    private int sectionOf(int position) {
+        final int last = mLastSection;
+        if (last < mSectionCount && mSectionStart[last] <= position
+                && (last + 1 == mSectionCount || position < mSectionStart[last + 1])) {
+            return last;
+        }
+        int index = Arrays.binarySearch(mSectionStart, 0, mSectionCount, position);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        mLastSection = index;
+        return index;
+    }
+
+    @Override
+    public void onItemRangeChanged(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        update(spanSizeProvider, positionStart, positionStart + itemCount, 0);
+    }
+
+    @Override
+    public void onItemRangeInserted(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        update(spanSizeProvider, positionStart, positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        update(spanSizeProvider, positionStart, positionStart + itemCount, -itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(SpanSizeProvider spanSizeProvider, int fromPosition, int toPosition, int itemCount) {
+        final int start = Math.min(fromPosition, toPosition);
+        final int end = Math.max(fromPosition, toPosition) + itemCount;
+        update(spanSizeProvider, start, end, 0);
+    }
+
+    /**
+     * Description: 旧数据 [start, oldEnd) 被替换为新数据 [start, oldEnd + delta)
+     * <p>
+     * 从 start 所在分组（start 恰好位于分组开头时为上一个分组，插入的 Item 可能并入其中）开始重新扫描边界，
+     * 直到 oldEnd 之后第一个未变化的分组；之后的分组边界不变，只平移起始 position 与行号
+     */
+    private void update(SpanSizeProvider spanSizeProvider, int start, int oldEnd, int delta) {
+        final int newItemCount = mItemCount + delta;
+        if (mSectionCount == 0) {
+            mItemCount = newItemCount;
+            mSectionCount = build(spanSizeProvider, 0, newItemCount, 0);
+            updateRowOffsets(0);
+            return;
+        }
+        start = Math.max(0, Math.min(start, mItemCount));
+        oldEnd = Math.min(Math.max(oldEnd, start), mItemCount);
+
+        int first = sectionOf(Math.min(start, mItemCount - 1));
+        if (first > 0 && mSectionStart[first] == start) {
+            first--;
+        }
+        int resume = first + 1;
+        while (resume < mSectionCount && mSectionStart[resume] < Math.max(oldEnd, start + 1)) {
+            resume++;
+        }
+
+        final int regionStart = mSectionStart[first];
+        final int regionEnd = resume < mSectionCount ? mSectionStart[resume] + delta : newItemCount;
+
+        // 保留之后未变化的分组
+        final int tailCount = mSectionCount - resume;
+        final int[] tailStarts = Arrays.copyOfRange(mSectionStart, resume, mSectionCount);
+        final SpanInfo[] tailSections = Arrays.copyOfRange(mSections, resume, mSectionCount);
+
+        mItemCount = newItemCount;
+        int count = build(spanSizeProvider, regionStart, regionEnd, first);
+        ensureSectionCapacity(count + tailCount);
+        for (int i = 0; i < tailCount; i++) {
+            mSectionStart[count + i] = tailStarts[i] + delta;
+            mSections[count + i] = tailSections[i];
+        }
+        count += tailCount;
+        if (mSectionCount > count) {
+            Arrays.fill(mSections, count, mSectionCount, null);
+        }
+        mSectionCount = count;
+        mLastSection = 0;
+        updateRowOffsets(first);
+    }
+
+    @Override
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    public int getSectionCount() {
+        return mSectionCount;
+    }
+
+    public int getRowCount() {
+        return mSectionCount == 0 ? 0
+                : mSectionRowOffset[mSectionCount - 1] + mSections[mSectionCount - 1].getRowCount();
+    }
+
+    @Override
+    public boolean isFirstSpan(int position) {
+        final int s = sectionOf(position);
+        return mSections[s].isFirstSpan(position - mSectionStart[s]);
+    }
+
+    @Override
+    public boolean isLastSpan(int position) {
+        final int s = sectionOf(position);
+        return mSections[s].isLastSpan(position - mSectionStart[s]);
+    }
+
+    @Override
+    public int getRowByPosition(int position) {
+        final int s = sectionOf(position);
+        return mSectionRowOffset[s] + mSections[s].getRowByPosition(position - mSectionStart[s]);
+    }
+
+    @Override
+    public int getCurrentRowRelativeIndex(int position) {
+        final int s = sectionOf(position);
+        return mSections[s].getCurrentRowRelativeIndex(position - mSectionStart[s]);
+    }
+
+    @Override
+    public int getCurrentRowRelativeOffsetIndex(int position) {
+        final int s = sectionOf(position);
+        return mSections[s].getCurrentRowRelativeOffsetIndex(position - mSectionStart[s]);
+    }
+
+    @Override
+    public int getCurrentRowRelativeItemCount(int position) {
+        final int s = sectionOf(position);
+        return mSections[s].getCurrentRowRelativeItemCount(position - mSectionStart[s]);
+    }
+
+    @Override
+    public int getCurrentRowSumSpanCount(int position) {
+        final int s = sectionOf(position);
+        return mSections[s].getCurrentRowSumSpanCount(position - mSectionStart[s]);
+    }
+
+    @Override
+    public boolean isInRow(int position, int row) {
+        return getRowByPosition(position) == row;
+    }
+
+    @Override
+    public boolean isInSameRow(int position, int targetPosition) {
+        if (targetPosition < 0 || targetPosition >= mItemCount) {
+            return false;
+        }
+        final int s = sectionOf(targetPosition);
+        final int start = mSectionStart[s];
+        final int end = start + mSections[s].getItemCount();
+        return position >= start && position < end
+                && mSections[s].isInSameRow(position - start, targetPosition - start);
+    }
+
+    /**
+     * @return 是否处于所在分组的首行（第一个分组从 firstPosition 开始）
+     */
+    @Override
+    public boolean isFirstRow(int position, int firstPosition) {
+        final int s = sectionOf(position);
+        final int start = mSectionStart[s];
+        final int first = Math.max(start, firstPosition) - start;
+        return first < mSections[s].getItemCount() && mSections[s].isInSameRow(position - start, first);
+    }
+
+    /**
+     * @return 是否处于所在分组的尾行（最后一个分组到 lastPosition 结束）
+     */
+    @Override
+    public boolean isLastRow(int position, int lastPosition) {
+        final int s = sectionOf(position);
+        final int start = mSectionStart[s];
+        final int last = Math.min(start + mSections[s].getItemCount() - 1, lastPosition) - start;
+        return last >= 0 && mSections[s].isInSameRow(position - start, last);
+    }
+}
@@ -0,0 +1,192 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 间距及分割线配置（单位均为 px）
+ * <p>
+ * 不可变对象，通过 {@link Builder} 创建；间距小于分割线尺寸时自动修正为分割线尺寸
+ */
+public final class SpacingConfig {
+
+    private final boolean isHiddenFirst;
+    private final boolean isHiddenLast;
+    private final int skipStart;
+    private final int skipEnd;
+    private final int verticalSpace;
+    private final boolean verticalOuter;
+    private final int horizontalSpace;
+    private final boolean horizontalOuter;
+    private final int paddingStart;
+    private final int paddingEnd;
+    private final int paddingTop;
+    private final int paddingBottom;
+    private final int dividerSize;
+    private final boolean dividerPaddingEnable;
+
+    private SpacingConfig(Builder builder) {
+        isHiddenFirst = builder.isHiddenFirst;
+        isHiddenLast = builder.isHiddenLast;
+        skipStart = builder.skipStart;
+        skipEnd = builder.skipEnd;
+        // 修正分割线范围
+        verticalSpace = Math.max(builder.verticalSpace, builder.dividerSize);
+        verticalOuter = builder.verticalOuter;
+        horizontalSpace = Math.max(builder.horizontalSpace, builder.dividerSize);
+        horizontalOuter = builder.horizontalOuter;
+        paddingStart = builder.paddingStart;
+        paddingEnd = builder.paddingEnd;
+        paddingTop = builder.paddingTop;
+        paddingBottom = builder.paddingBottom;
+        dividerSize = builder.dividerSize;
+        dividerPaddingEnable = builder.dividerPaddingEnable;
+    }
+
+    public boolean isHiddenFirst() {
+        return isHiddenFirst;
+    }
+
+    public boolean isHiddenLast() {
+        return isHiddenLast;
+    }
+
+    public int getSkipStart() {
+        return skipStart;
+    }
+
+    public int getSkipEnd() {
+        return skipEnd;
+    }
+
+    public int getVerticalSpace() {
+        return verticalSpace;
+    }
+
+    public boolean isVerticalOuter() {
+        return verticalOuter;
+    }
+
+    public int getHorizontalSpace() {
+        return horizontalSpace;
+    }
+
+    public boolean isHorizontalOuter() {
+        return horizontalOuter;
+    }
+
+    public int getPaddingStart() {
+        return paddingStart;
+    }
+
+    public int getPaddingEnd() {
+        return paddingEnd;
+    }
+
+    public int getPaddingTop() {
+        return paddingTop;
+    }
+
+    public int getPaddingBottom() {
+        return paddingBottom;
+    }
+
+    public int getDividerSize() {
+        return dividerSize;
+    }
+
+    public boolean isDividerPaddingEnable() {
+        return dividerPaddingEnable;
+    }
+
+    /**
+     * 建造器
+     */
+    public static final class Builder {
+        private boolean isHiddenFirst;// 是否隐藏第一个
+        private boolean isHiddenLast;// 是否隐藏最后一个
+        private int skipStart;// 跳过开始Item数量
+        private int skipEnd;// 跳过结尾Item数量
+        private int verticalSpace;// 垂直方向间距
+        private boolean verticalOuter;// 外边距
+        private int horizontalSpace;// 水平方向间距
+        private boolean horizontalOuter;// 外边距
+        private int paddingStart;// 外边距：左侧
+        private int paddingEnd;// 外边距：右侧
+        private int paddingTop;// 外边距：顶部
+        private int paddingBottom;// 外边距：底部
+        private int dividerSize;// 分割线尺寸
+        private boolean dividerPaddingEnable;// 分割线padding
+
+        public Builder setHiddenFirst(boolean hiddenFirst) {
+            isHiddenFirst = hiddenFirst;
+            return this;
+        }
+
+        public Builder setHiddenLast(boolean hiddenLast) {
+            isHiddenLast = hiddenLast;
+            return this;
+        }
+
+        public Builder setSkipStart(int skipStart) {
+            this.skipStart = skipStart;
+            return this;
+        }
+
+        public Builder setSkipEnd(int skipEnd) {
+            this.skipEnd = skipEnd;
+            return this;
+        }
+
+        public Builder setVerticalSpace(int verticalSpace) {
+            this.verticalSpace = verticalSpace;
+            return this;
+        }
+
+        public Builder setVerticalOuter(boolean verticalOuter) {
+            this.verticalOuter = verticalOuter;
+            return this;
+        }
+
+        public Builder setHorizontalSpace(int horizontalSpace) {
+            this.horizontalSpace = horizontalSpace;
+            return this;
+        }
+
+        public Builder setHorizontalOuter(boolean horizontalOuter) {
+            this.horizontalOuter = horizontalOuter;
+            return this;
+        }
+
+        public Builder setPaddingStart(int paddingStart) {
+            this.paddingStart = paddingStart;
+            return this;
+        }
+
+        public Builder setPaddingEnd(int paddingEnd) {
+            this.paddingEnd = paddingEnd;
+            return this;
+        }
+
+        public Builder setPaddingTop(int paddingTop) {
+            this.paddingTop = paddingTop;
+            return this;
+        }
+
+        public Builder setPaddingBottom(int paddingBottom) {
+            this.paddingBottom = paddingBottom;
+            return this;
+        }
+
+        public Builder setDividerSize(int dividerSize) {
+            this.dividerSize = dividerSize;
+            return this;
+        }
+
+        public Builder setDividerPaddingEnable(boolean dividerPaddingEnable) {
+            this.dividerPaddingEnable = dividerPaddingEnable;
+            return this;
+        }
+
+        public SpacingConfig build() {
+            return new SpacingConfig(this);
+        }
+    }
+}
@@ -0,0 +1,670 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+
+/**
+ * Description: 间距计算引擎，不依赖 Android
+ * <p>
+ * 1、输入为 position、Span 信息、Item 数量等基本类型，输出写入 int[4]（{@link #LEFT}、{@link #TOP}、{@link #RIGHT}、{@link #BOTTOM}）
+ * 2、分割线几何只依赖 child 的边界坐标，线段写入 {@link DividerSink}
+ * 3、计算过程不分配内存，可直接在 JVM 上测试与基准测试
+ */
+public final class SpacingEngine {
+
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+
+    public static final int LEFT = 0;
+    public static final int TOP = 1;
+    public static final int RIGHT = 2;
+    public static final int BOTTOM = 3;
+
+    private final SpacingConfig mConfig;
+
+    // 网格布局 Span 偏移表，按布局方向分别缓存
+    private SpanOffsetTable mVerticalSpanOffsets;
+    private SpanOffsetTable mHorizontalSpanOffsets;
+
+    public SpacingEngine(SpacingConfig config) {
+        mConfig = config;
+    }
+
+    public SpacingConfig getConfig() {
+        return mConfig;
+    }
+
+    private static void set(int[] out, int left, int top, int right, int bottom) {
+        out[LEFT] = left;
+        out[TOP] = top;
+        out[RIGHT] = right;
+        out[BOTTOM] = bottom;
+    }
+
+    /**
+     * Description: 线性布局间距及偏移
+     *
+     * @param out           输出 left/top/right/bottom
+     * @param position      当前 Item
+     * @param itemCount     Item 数量
+     * @param orientation   布局方向
+     * @param reverseLayout 是否反转布局
+     */
+    public void linearOffsets(int[] out, int position, int itemCount, int orientation, boolean reverseLayout) {
+        linearOffsets(out, position, itemCount, orientation, reverseLayout, GapMatrix.NO_GAP);
+    }
+
+    /**
+     * Description: 线性布局间距及偏移
+     *
+     * @param out           输出 left/top/right/bottom
+     * @param position      当前 Item
+     * @param itemCount     Item 数量
+     * @param orientation   布局方向
+     * @param reverseLayout 是否反转布局
+     * @param gap           与下一个 Item 之间的间距，{@link GapMatrix#NO_GAP} 时使用配置的间距
+     */
+    public void linearOffsets(int[] out, int position, int itemCount, int orientation, boolean reverseLayout,
+                              int gap) {
+        int left = 0;
+        int top = 0;
+        int right = 0;
+        int bottom = 0;
+
+        final boolean isFirstDivider = mConfig.getSkipStart() == position;
+        final boolean isLastDivider = mConfig.getSkipEnd() + position == (itemCount - 1);
+
+        if (orientation == VERTICAL) {
+            final int verticalSpace = resolveGap(gap, mConfig.getVerticalSpace());
+
+            left = mConfig.getPaddingStart();
+            right = mConfig.getPaddingEnd();
+            if (isFirstDivider && isLastDivider) {
+                if (!mConfig.isHiddenFirst()) {
+                    top = mConfig.getPaddingTop();
+                }
+                if (!mConfig.isHiddenLast()) {
+                    bottom = mConfig.getPaddingBottom();
+                }
+            } else if (isFirstDivider) {
+                if (!mConfig.isHiddenFirst()) {
+                    top = mConfig.getPaddingTop();
+                }
+                bottom = verticalSpace;
+            } else if (isLastDivider) {
+                if (!mConfig.isHiddenLast()) {
+                    bottom = mConfig.getPaddingBottom();
+                }
+            } else {
+                bottom = verticalSpace;
+            }
+
+            if (reverseLayout) {
+                set(out, left, bottom, right, top);
+            } else {
+                set(out, left, top, right, bottom);
+            }
+        } else if (orientation == HORIZONTAL) {
+            final int horizontalSpace = resolveGap(gap, mConfig.getHorizontalSpace());
+
+            top = mConfig.getPaddingTop();
+            bottom = mConfig.getPaddingBottom();
+            if (isFirstDivider && isLastDivider) {
+                if (!mConfig.isHiddenFirst()) {
+                    left = mConfig.getPaddingStart();
+                }
+                if (!mConfig.isHiddenLast()) {
+                    right = mConfig.getPaddingEnd();
+                }
+            } else if (isFirstDivider) {
+                if (!mConfig.isHiddenFirst()) {
+                    left = mConfig.getPaddingStart();
+                }
+                right = horizontalSpace;
+            } else if (isLastDivider) {
+                if (!mConfig.isHiddenLast()) {
+                    right = mConfig.getPaddingEnd();
+                }
+            } else {
+                right = horizontalSpace;
+            }
+
+            if (reverseLayout) {
+                set(out, right, top, left, bottom);
+            } else {
+                set(out, left, top, right, bottom);
+            }
+        }
+    }
+
+    /**
+     * Description: 网格布局间距及偏移
+     *
+     * @param out           输出 left/top/right/bottom
+     * @param spanIndex     Span 索引
+     * @param position      当前 Item
+     * @param spanSize      当前 Item 占用的 Span 数量
+     * @param spanCount     Span 数量
+     * @param itemCount     Item 数量
+     * @param orientation   布局方向
+     * @param reverseLayout 是否反转布局
+     */
+    public void gridOffsets(int[] out, SpanIndex spanIndex, int position, int spanSize, int spanCount, int itemCount,
+                            int orientation, boolean reverseLayout) {
+        gridOffsets(out, spanIndex, position, spanSize, spanCount, itemCount, orientation, reverseLayout,
+                GapMatrix.NO_GAP);
+    }
+
+    /**
+     * Description: 网格布局间距及偏移
+     *
+     * @param out           输出 left/top/right/bottom
+     * @param spanIndex     Span 索引
+     * @param position      当前 Item
+     * @param spanSize      当前 Item 占用的 Span 数量
+     * @param spanCount     Span 数量
+     * @param itemCount     Item 数量
+     * @param orientation   布局方向
+     * @param reverseLayout 是否反转布局
+     * @param gap           与下一行之间的间距，{@link GapMatrix#NO_GAP} 时使用配置的间距
+     */
+    public void gridOffsets(int[] out, SpanIndex spanIndex, int position, int spanSize, int spanCount, int itemCount,
+                            int orientation, boolean reverseLayout, int gap) {
+        int left = 0;
+        int top = 0;
+        int right = 0;
+        int bottom = 0;
+
+        final boolean isSingleSpan = spanSize == spanCount;
+
+        boolean isFirstRow = spanIndex.isFirstRow(position, mConfig.getSkipStart());
+        boolean isLastRow = spanIndex.isLastRow(position, itemCount - mConfig.getSkipEnd() - 1);
+        boolean isFirstSpan = spanIndex.isFirstSpan(position);
+
+        // 当前 Item 占用的 [startSpan, endSpan]，首尾偏移直接查表
+        final SpanOffsetTable spanOffsets = obtainSpanOffsetTable(spanCount, orientation);
+        final int endSpan = isFirstSpan
+                ? min(spanSize, spanCount) - 1
+                : min(spanIndex.getCurrentRowRelativeOffsetIndex(position), spanCount - 1);
+        final int startSpan = max(0, endSpan - spanSize + 1);
+        final int offsetStart = spanOffsets.getStart(startSpan);
+        final int offsetEnd = spanOffsets.getEnd(endSpan);
+
+        if (orientation == VERTICAL) {
+            if (isFirstRow && isLastRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    top = getVerticalOuterSpace(true);
+                }
+                if (!mConfig.isHiddenLast()) {
+                    bottom = getVerticalOuterSpace(false);
+                }
+            } else if (isFirstRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    top = getVerticalOuterSpace(true);
+                }
+                bottom = resolveGap(gap, mConfig.getVerticalSpace());
+            } else if (isLastRow) {
+                if (!mConfig.isHiddenLast()) {
+                    bottom = getVerticalOuterSpace(false);
+                }
+            } else {
+                bottom = resolveGap(gap, mConfig.getVerticalSpace());
+            }
+
+            if (isSingleSpan) {
+                left = getHorizontalOuterSpace(true);
+                right = getHorizontalOuterSpace(false);
+            } else {
+                left = offsetStart;
+                right = offsetEnd;
+            }
+
+            if (reverseLayout) {
+                set(out, left, bottom, right, top);
+            } else {
+                set(out, left, top, right, bottom);
+            }
+        } else if (orientation == HORIZONTAL) {
+            if (isFirstRow && isLastRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    left = getHorizontalOuterSpace(true);
+                }
+                if (!mConfig.isHiddenLast()) {
+                    right = getHorizontalOuterSpace(false);
+                }
+            } else if (isFirstRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    left = getHorizontalOuterSpace(true);
+                }
+                right = resolveGap(gap, mConfig.getHorizontalSpace());
+            } else if (isLastRow) {
+                if (!mConfig.isHiddenLast()) {
+                    right = getHorizontalOuterSpace(false);
+                }
+            } else {
+                right = resolveGap(gap, mConfig.getHorizontalSpace());
+            }
+
+            if (isSingleSpan) {
+                top = getVerticalOuterSpace(true);
+                bottom = getVerticalOuterSpace(false);
+            } else {
+                top = offsetStart;
+                bottom = offsetEnd;
+            }
+
+            if (reverseLayout) {
+                set(out, right, top, left, bottom);
+            } else {
+                set(out, left, top, right, bottom);
+            }
+        }
+    }
+
+    /**
+     * @param gap          相邻 ViewType 间距
+     * @param defaultSpace 配置的间距
+     * @return 未配置相邻间距时为默认间距；与配置一致，不小于分割线尺寸
+     */
+    private int resolveGap(int gap, int defaultSpace) {
+        return gap == GapMatrix.NO_GAP ? defaultSpace : max(gap, mConfig.getDividerSize());
+    }
+
+    /**
+     * Description: 当前布局方向的 Span 偏移表，Span 数量变化时重新计算
+     *
+     * @param spanCount   Span 数量
+     * @param orientation 布局方向
+     * @return Span 偏移表（纵向布局为 left/right，横向布局为 top/bottom）
+     */
+    private SpanOffsetTable obtainSpanOffsetTable(int spanCount, int orientation) {
+        if (orientation == HORIZONTAL) {
+            SpanOffsetTable table = mHorizontalSpanOffsets;
+            if (table == null || table.getSpanCount() != spanCount) {
+                table = new SpanOffsetTable(spanCount, mConfig.getVerticalSpace(),
+                        getVerticalOuterSpace(true), getVerticalOuterSpace(false));
+                mHorizontalSpanOffsets = table;
+            }
+            return table;
+        } else {
+            SpanOffsetTable table = mVerticalSpanOffsets;
+            if (table == null || table.getSpanCount() != spanCount) {
+                table = new SpanOffsetTable(spanCount, mConfig.getHorizontalSpace(),
+                        getHorizontalOuterSpace(true), getHorizontalOuterSpace(false));
+                mVerticalSpanOffsets = table;
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Description: 获取横向的外边距
+     *
+     * @param isLeft 是否显示左边距，否则右边距
+     * @return 获取横向的外边距
+     */
+    private int getHorizontalOuterSpace(boolean isLeft) {
+        if (mConfig.isHorizontalOuter()) {
+            return max(mConfig.getHorizontalSpace(), mConfig.getDividerSize());
+        }
+        if (isLeft) {
+            return mConfig.getPaddingStart();
+        } else {
+            return mConfig.getPaddingEnd();
+        }
+    }
+
+    /**
+     * 绘制网格布局分割线
+     *
+     * @param isTop 是否边距，否则底边距
+     * @return 获取垂直方向外边距
+     */
+    private int getVerticalOuterSpace(boolean isTop) {
+        if (mConfig.isVerticalOuter()) {
+            return max(mConfig.getVerticalSpace(), mConfig.getDividerSize());
+        }
+        if (isTop) {
+            return mConfig.getPaddingTop();
+        } else {
+            return mConfig.getPaddingBottom();
+        }
+    }
+
+    /**
+     * Description: 流式布局间距及偏移
+     *
+     * @param out         输出 left/top/right/bottom
+     * @param position    当前 Item
+     * @param spanIndex   当前 Item 所在 Span
+     * @param isFullSpan  是否占满整行
+     * @param spanCount   Span 数量
+     * @param itemCount   Item 数量
+     * @param orientation 布局方向
+     */
+    public void staggeredOffsets(int[] out, int position, int spanIndex, boolean isFullSpan, int spanCount, int itemCount,
+                                 int orientation) {
+        int left = 0;
+        int top = 0;
+        int right = 0;
+        int bottom = 0;
+
+        final boolean isFirstRow = position - mConfig.getSkipStart() < spanCount;
+        final boolean isLastRow = position + mConfig.getSkipEnd() == itemCount - 1;
+        final boolean isFirstSpan = (spanIndex % spanCount) == 0;
+        final boolean isLastSpan = (spanIndex % spanCount) == spanCount - 1;
+        final boolean isSingleSpan = isFullSpan;
+
+//        Log.d(TAG, String.format(Locale.getDefault(),
+//                "P(%d-%d): FR-%b LR-%b firstSpan-%b lastSpan-%b",
+//                position, spanIndex, isFirstRow, isLastRow, isFirstSpan, isLastSpan));
+
+        if (orientation == VERTICAL) {
+            // 均值偏移量
+            final int eachSpace = round((spanCount - 1) * mConfig.getHorizontalSpace() * 1.0f / spanCount);
+            final int offsetLeft = round(spanIndex % spanCount * (mConfig.getHorizontalSpace() - eachSpace));
+            final int offsetRight = round(eachSpace - offsetLeft);
+
+            if (!isSingleSpan) {
+                left = offsetLeft;
+                right = offsetRight;
+            }
+            if (isFirstRow && isLastRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    top = mConfig.getPaddingTop();
+                }
+                if (!mConfig.isHiddenLast()) {
+                    bottom = mConfig.getPaddingBottom();
+                }
+            } else if (isFirstRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    top = mConfig.getPaddingTop();
+                }
+                bottom = mConfig.getVerticalSpace();
+            } else if (isLastRow) {
+                if (!mConfig.isHiddenLast()) {
+                    bottom = mConfig.getPaddingBottom();
+                }
+            } else {
+                bottom = mConfig.getVerticalSpace();
+            }
+        } else if (orientation == HORIZONTAL) {
+            // 均值偏移量
+            final int eachSpace = round((spanCount - 1) * mConfig.getVerticalSpace() * 1.0f / spanCount);
+            final int offsetTop = round(spanIndex % spanCount * (mConfig.getVerticalSpace() - eachSpace));
+            final int offsetBottom = round(eachSpace - offsetTop);
+
+            if (!isSingleSpan) {
+                top = offsetTop;
+                bottom = offsetBottom;
+            }
+            if (isFirstRow && isLastRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    left = mConfig.getPaddingStart();
+                }
+                if (!mConfig.isHiddenLast()) {
+                    right = mConfig.getPaddingEnd();
+                }
+            } else if (isFirstRow) {
+                if (!mConfig.isHiddenFirst()) {
+                    left = mConfig.getPaddingStart();
+                }
+                right = mConfig.getHorizontalSpace();
+            } else if (isLastRow) {
+                if (!mConfig.isHiddenLast()) {
+                    right = mConfig.getPaddingEnd();
+                }
+            } else {
+                right = mConfig.getHorizontalSpace();
+            }
+        }
+
+        set(out, left, top, right, bottom);
+    }
+
+    /**
+     * Description: 线性布局分割线
+     *
+     * @param sink         分割线收集
+     * @param orientation  布局方向
+     * @param position     当前 Item
+     * @param itemCount    Item 数量
+     * @param childRight   child right
+     * @param childBottom  child bottom
+     * @param translationX child translationX
+     * @param translationY child translationY
+     * @param topMargin    child topMargin
+     * @param marginStart  child marginStart
+     * @param parentWidth  RecycleView 宽度
+     * @param parentHeight RecycleView 高度
+     */
+    public void linearDivider(DividerSink sink, int orientation, int position, int itemCount,
+                              int childRight, int childBottom, float translationX, float translationY,
+                              int topMargin, int marginStart, int parentWidth, int parentHeight) {
+
+        if (position == mConfig.getSkipStart() && mConfig.isHiddenFirst()) {
+            return;
+        }
+        if (position + mConfig.getSkipEnd() == itemCount - 1 && mConfig.isHiddenLast()) {
+            return;
+        }
+
+        int left = 0;
+        int top = 0;
+        int right = 0;
+        int bottom = 0;
+        if (orientation == VERTICAL) {
+            int halfSize = max(mConfig.getDividerSize(), mConfig.getVerticalSpace()) / 2;
+
+            left = round(translationX);
+            top = childBottom + halfSize + topMargin;
+            right = parentWidth + round(translationY);
+            bottom = top;
+
+            if (mConfig.isDividerPaddingEnable()) {
+                left += mConfig.getPaddingStart();
+                right -= mConfig.getPaddingEnd();
+            }
+        } else if (orientation == HORIZONTAL) {
+            int halfSize = max(mConfig.getDividerSize(), mConfig.getHorizontalSpace()) / 2;
+
+            left = childRight + marginStart + round(translationX) + halfSize;
+            top = round(translationY);
+            right = left;
+            bottom = parentHeight + round(translationY);
+
+            if (mConfig.isDividerPaddingEnable()) {
+                top += mConfig.getPaddingTop();
+                bottom -= mConfig.getPaddingBottom();
+            }
+        }
+
+        sink.add(left, top, right, bottom);
+    }
+
+    /**
+     * Description: 网格布局分割线，相对于 child 本身环绕
+     *
+     * @param sink        分割线收集
+     * @param spanIndex   Span 索引，为空时不处理首尾行隐藏
+     * @param position    当前 Item
+     * @param itemCount   Item 数量
+     * @param orientation 布局方向
+     * @param childLeft   child left
+     * @param childTop    child top
+     * @param childRight  child right
+     * @param childBottom child bottom
+     */
+    public void gridDividers(DividerSink sink, SpanIndex spanIndex, int position, int itemCount, int orientation,
+                             int childLeft, int childTop, int childRight, int childBottom) {
+
+        final int dividerHalf = round(mConfig.getDividerSize() * 1.0f / 2);
+        final int vHalfSize = max(mConfig.getDividerSize(), mConfig.getVerticalSpace()) / 2;
+        final int hHalfHSize = max(mConfig.getDividerSize(), mConfig.getHorizontalSpace()) / 2;
+
+        // 不区分方向，相对于 View 本身环绕
+        final int hLeft = childLeft - hHalfHSize - dividerHalf;
+        final int hRight = childRight + hHalfHSize;
+        final int hTop = childTop - vHalfSize;
+        final int hBottom = childBottom + vHalfSize;
+
+        final int vTop = childTop - vHalfSize - dividerHalf;
+        final int vBottom = childBottom + vHalfSize;
+        final int vLeft = childLeft - hHalfHSize;
+        final int vRight = childRight + hHalfHSize;
+
+        final boolean isHiddenFirstOrLast = mConfig.isHiddenFirst() || mConfig.isHiddenLast();
+        if (isHiddenFirstOrLast && spanIndex != null) {
+            boolean isFirstRow = spanIndex.isFirstRow(position, mConfig.getSkipStart());
+            boolean isLastRow = spanIndex.isLastRow(position, itemCount - mConfig.getSkipEnd() - 1);
+
+            if (orientation == HORIZONTAL) {
+                sink.add(hLeft, hTop, hRight, hTop);
+                sink.add(hLeft, hBottom, hRight, hBottom);
+                if (!isFirstRow) {
+                    sink.add(vLeft, vTop, vLeft, vBottom);
+                }
+                if (!isLastRow) {
+                    sink.add(vRight, vTop, vRight, vBottom);
+                }
+            } else if (orientation == VERTICAL) {
+                sink.add(vLeft, vTop, vLeft, vBottom);
+                sink.add(vRight, vTop, vRight, vBottom);
+                if (!isFirstRow) {
+                    sink.add(hLeft, hTop, hRight, hTop);
+                }
+                if (!isLastRow) {
+                    sink.add(hLeft, hBottom, hRight, hBottom);
+                }
+            }
+        } else {
+            sink.add(vLeft, vTop, vLeft, vBottom);
+            sink.add(vRight, vTop, vRight, vBottom);
+
+            sink.add(hLeft, hTop, hRight, hTop);
+            sink.add(hLeft, hBottom, hRight, hBottom);
+        }
+    }
+
+    /**
+     * Description: 网格布局去重分割线：每个 child 只登记自身负责的线段，一帧结束后调用 {@link GridLines#flush} 合并输出
+     * <p>
+     * 1、行分割线：每个 Item 登记其后一条，首行额外登记其前一条；首尾行隐藏规则与 {@link #gridDividers} 一致
+     * 2、列间隔线：每个 Item 登记其前一条，行内最后一个 Item 额外登记其后一条
+     *
+     * @param lines       去重分割线收集
+     * @param spanIndex   Span 索引
+     * @param position    当前 Item
+     * @param itemCount   Item 数量
+     * @param orientation 布局方向
+     * @param childLeft   child left
+     * @param childTop    child top
+     * @param childRight  child right
+     * @param childBottom child bottom
+     */
+    public void gridLines(GridLines lines, SpanIndex spanIndex, int position, int itemCount, int orientation,
+                          int childLeft, int childTop, int childRight, int childBottom) {
+
+        final int dividerHalf = round(mConfig.getDividerSize() * 1.0f / 2);
+        final int verticalSpace = max(mConfig.getDividerSize(), mConfig.getVerticalSpace());
+        final int horizontalSpace = max(mConfig.getDividerSize(), mConfig.getHorizontalSpace());
+
+        // 行方向（纵向布局为 y，横向布局为 x）与列方向
+        final boolean isVertical = orientation == VERTICAL;
+        final int mainStart = isVertical ? childTop : childLeft;
+        final int mainEnd = isVertical ? childBottom : childRight;
+        final int mainSpace = isVertical ? verticalSpace : horizontalSpace;
+        final int mainHalf = mainSpace / 2;
+        final int crossStart = isVertical ? childLeft : childTop;
+        final int crossEnd = isVertical ? childRight : childBottom;
+        final int crossHalf = (isVertical ? horizontalSpace : verticalSpace) / 2;
+
+        final boolean isHiddenFirstOrLast = mConfig.isHiddenFirst() || mConfig.isHiddenLast();
+        final boolean isFirstRow = spanIndex.isFirstRow(position, mConfig.getSkipStart());
+        final boolean isLastRow = spanIndex.isLastRow(position, itemCount - mConfig.getSkipEnd() - 1);
+
+        // 行分割线：行间距全部计入上一行，与下一行的前一条分割线坐标一致
+        final int rowLineStart = crossStart - crossHalf - dividerHalf;
+        final int rowLineEnd = crossEnd + crossHalf;
+        if (isFirstRow && !isHiddenFirstOrLast) {
+            lines.addRowLine(mainStart - mainHalf, rowLineStart, rowLineEnd);
+        }
+        if (!isLastRow) {
+            lines.addRowLine(mainEnd + mainSpace - mainHalf, rowLineStart, rowLineEnd);
+        } else if (!isHiddenFirstOrLast) {
+            lines.addRowLine(mainEnd + mainHalf, rowLineStart, rowLineEnd);
+        }
+
+        // 列间隔线
+        final int columnLineStart = mainStart - mainHalf - dividerHalf;
+        final int columnLineEnd = mainEnd + mainHalf;
+        lines.addColumnLine(crossStart - crossHalf, columnLineStart, columnLineEnd);
+        if (position + 1 >= itemCount || !spanIndex.isInSameRow(position, position + 1)) {
+            lines.addColumnLine(crossEnd + crossHalf, columnLineStart, columnLineEnd);
+        }
+    }
+
+    /**
+     * Description: 流式布局分割线：每个 Item 输出自身与下一个 Item 之间的分割线，列间隔线登记到 gutters 中合并输出
+     *
+     * @param sink        分割线收集
+     * @param gutters     列间隔线收集，一帧结束后调用 {@link StaggeredGutters#flush}
+     * @param orientation 布局方向
+     * @param position    当前 Item
+     * @param itemCount   Item 数量
+     * @param spanIndex   当前 Item 所在 Span
+     * @param isFullSpan  是否占满整行
+     * @param spanCount   Span 数量
+     * @param childLeft   child left
+     * @param childTop    child top
+     * @param childRight  child right
+     * @param childBottom child bottom
+     */
+    public void staggeredDividers(DividerSink sink, StaggeredGutters gutters, int orientation, int position,
+                                  int itemCount, int spanIndex, boolean isFullSpan, int spanCount,
+                                  int childLeft, int childTop, int childRight, int childBottom) {
+
+        final int verticalSpace = mConfig.getVerticalSpace();
+        final int horizontalSpace = mConfig.getHorizontalSpace();
+        final int vHalfSize = verticalSpace / 2;
+        final int hHalfSize = horizontalSpace / 2;
+
+        final boolean isLastItem = position + mConfig.getSkipEnd() == itemCount - 1;
+        final boolean hasPrevSpan = !isFullSpan && spanIndex % spanCount > 0;
+        final boolean hasNextSpan = !isFullSpan && spanIndex % spanCount < spanCount - 1;
+
+        if (orientation == VERTICAL) {
+            // 最后一个 Item 下方为外边距，不绘制
+            if (!isLastItem) {
+                final int y = childBottom + vHalfSize;
+                final int left = hasPrevSpan ? childLeft - (horizontalSpace - hHalfSize) : childLeft;
+                final int right = hasNextSpan ? childRight + hHalfSize : childRight;
+                sink.add(left, y, right, y);
+            }
+            if (hasPrevSpan) {
+                gutters.add(spanIndex % spanCount - 1, childLeft - (horizontalSpace - hHalfSize),
+                        childTop - vHalfSize, childBottom + vHalfSize);
+            }
+            if (hasNextSpan) {
+                gutters.add(spanIndex % spanCount, childRight + hHalfSize,
+                        childTop - vHalfSize, childBottom + vHalfSize);
+            }
+        } else if (orientation == HORIZONTAL) {
+            if (!isLastItem) {
+                final int x = childRight + hHalfSize;
+                final int top = hasPrevSpan ? childTop - (verticalSpace - vHalfSize) : childTop;
+                final int bottom = hasNextSpan ? childBottom + vHalfSize : childBottom;
+                sink.add(x, top, x, bottom);
+            }
+            if (hasPrevSpan) {
+                gutters.add(spanIndex % spanCount - 1, childTop - (verticalSpace - vHalfSize),
+                        childLeft - hHalfSize, childRight + hHalfSize);
+            }
+            if (hasNextSpan) {
+                gutters.add(spanIndex % spanCount, childBottom + vHalfSize,
+                        childLeft - hHalfSize, childRight + hHalfSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 网格布局 Span 索引
+ * <p>
+ * 1、{@link SpanInfo}：一次性完整计算，查询 O(1)
+ * 2、{@link LazySpanInfo}：按需计算，内存有上限，适用于超大或无限列表
+ * 3、{@link SectionedSpanInfo}：按分组独立计算，首尾行按分组处理
+ */
+public interface SpanIndex {
+
+    int getSpanCount();
+
+    int getItemCount();
+
+    boolean isFirstSpan(int position);
+
+    boolean isLastSpan(int position);
+
+    int getRowByPosition(int position);
+
+    int getCurrentRowRelativeIndex(int position);
+
+    int getCurrentRowRelativeOffsetIndex(int position);
+
+    int getCurrentRowRelativeItemCount(int position);
+
+    int getCurrentRowSumSpanCount(int position);
+
+    boolean isInRow(int position, int row);
+
+    /**
+     * @param position       当前 Item
+     * @param targetPosition 目标 Item
+     * @return 两者是否处于同一行（无需知道目标所在行号）
+     */
+    boolean isInSameRow(int position, int targetPosition);
+
+    /**
+     * @param position      当前 Item
+     * @param firstPosition 第一个参与计算的 Item（跳过开头之后）
+     * @return 是否处于首行，分组时为所在分组的首行
+     */
+    default boolean isFirstRow(int position, int firstPosition) {
+        return isInSameRow(position, firstPosition);
+    }
+
+    /**
+     * @param position     当前 Item
+     * @param lastPosition 最后一个参与计算的 Item（跳过结尾之前）
+     * @return 是否处于尾行，分组时为所在分组的尾行
+     */
+    default boolean isLastRow(int position, int lastPosition) {
+        return isInSameRow(position, lastPosition);
+    }
+
+    /**
+     * Description: 变更之后计算缓存失效的起点；position 之前的 Item 排布不变，只有 position - 1 所在行及其上一行的
+     * 首尾行判断、行间距（依赖下一行第一个 Item）可能变化
+     *
+     * @param position 变更的第一个 Item（插入、删除、移动或 Span 大小变化），已按变更后的数据更新
+     * @return position - 1 所在行的上一行行首
+     */
+    default int getInvalidationStart(int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        final int rowStart = position - 1 - getCurrentRowRelativeIndex(position - 1);
+        return rowStart <= 0 ? 0 : rowStart - 1 - getCurrentRowRelativeIndex(rowStart - 1);
+    }
+
+    void onItemRangeChanged(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount);
+
+    void onItemRangeInserted(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount);
+
+    void onItemRangeRemoved(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount);
+
+    void onItemRangeMoved(SpanSizeProvider spanSizeProvider, int fromPosition, int toPosition, int itemCount);
+}
@@ -0,0 +1,330 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Description: 网格布局 Span 信息
+ * <p>
+ * 1、按列存储：position 维度保存所在行、行内偏移下标，行维度保存起始 position、Item 数量、Span 总和
+ * 2、首/尾 Span 使用位图标记
+ * 3、所有查询均为 O(1)，不产生装箱
+ * 4、支持按 Adapter 局部通知增量更新：只从受影响 position 所在行开始重新计算，行边界与旧数据重新对齐后直接复用旧数据
+ */
+public final class SpanInfo implements SpanIndex {
+
+    private static final int INITIAL_ROW_CAPACITY = 16;
+
+    private final int mSpanCount;
+    private int mItemCount;
+
+    // position 维度
+    private int[] mPositionRow;
+    private int[] mPositionOffsetIndex;
+    private BitSet mFirstSpanPositions;
+    private BitSet mLastSpanPositions;
+
+    // 行维度
+    private int[] mRowStart;
+    private int[] mRowSize;
+    private int[] mRowSumSpanCount;
+    private int mRowCount;
+
+    public SpanInfo(SpanSizeProvider spanSizeProvider, int spanCount, int itemCount) {
+        mSpanCount = spanCount;
+        mItemCount = itemCount;
+        mPositionRow = new int[itemCount];
+        mPositionOffsetIndex = new int[itemCount];
+        mFirstSpanPositions = new BitSet(itemCount);
+        mLastSpanPositions = new BitSet(itemCount);
+
+        final int rowCapacity = Math.max(INITIAL_ROW_CAPACITY, itemCount / Math.max(1, spanCount) + 1);
+        mRowStart = new int[rowCapacity];
+        mRowSize = new int[rowCapacity];
+        mRowSumSpanCount = new int[rowCapacity];
+
+        scan(spanSizeProvider, 0, 0, 0, null, 0, 0);
+        trimRows();
+    }
+
+    /**
+     * 浅拷贝，用于增量更新时保留旧数据
+     */
+    private SpanInfo(SpanInfo source) {
+        mSpanCount = source.mSpanCount;
+        mItemCount = source.mItemCount;
+        mPositionRow = source.mPositionRow;
+        mPositionOffsetIndex = source.mPositionOffsetIndex;
+        mFirstSpanPositions = source.mFirstSpanPositions;
+        mLastSpanPositions = source.mLastSpanPositions;
+        mRowStart = source.mRowStart;
+        mRowSize = source.mRowSize;
+        mRowSumSpanCount = source.mRowSumSpanCount;
+        mRowCount = source.mRowCount;
+    }
+
+    /**
+     * @param spanSizeProvider 更新后的 Span 大小
+     * @param positionStart  起始 position
+     * @param itemCount      变更数量
+     */
+    @Override
+    public void onItemRangeChanged(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        update(spanSizeProvider, positionStart, positionStart + itemCount, 0);
+    }
+
+    /**
+     * @param spanSizeProvider 更新后的 Span 大小
+     * @param positionStart  起始 position
+     * @param itemCount      插入数量
+     */
+    @Override
+    public void onItemRangeInserted(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        update(spanSizeProvider, positionStart, positionStart, itemCount);
+    }
+
+    /**
+     * @param spanSizeProvider 更新后的 Span 大小
+     * @param positionStart  起始 position
+     * @param itemCount      移除数量
+     */
+    @Override
+    public void onItemRangeRemoved(SpanSizeProvider spanSizeProvider, int positionStart, int itemCount) {
+        update(spanSizeProvider, positionStart, positionStart + itemCount, -itemCount);
+    }
+
+    /**
+     * Description: 移动等价于 [min(from, to), max(from, to) + itemCount) 范围内的变更
+     *
+     * @param spanSizeProvider 更新后的 Span 大小
+     * @param fromPosition   原 position
+     * @param toPosition     目标 position
+     * @param itemCount      移动数量
+     */
+    @Override
+    public void onItemRangeMoved(SpanSizeProvider spanSizeProvider, int fromPosition, int toPosition, int itemCount) {
+        final int start = Math.min(fromPosition, toPosition);
+        final int end = Math.max(fromPosition, toPosition) + itemCount;
+        update(spanSizeProvider, start, end, 0);
+    }
+
+    /**
+     * Description: 旧数据 [start, oldEnd) 被替换为新数据 [start, oldEnd + delta)，start 之前的数据保持不变
+     */
+    private void update(SpanSizeProvider spanSizeProvider, int start, int oldEnd, int delta) {
+        final SpanInfo old = new SpanInfo(this);
+        final int newItemCount = old.mItemCount + delta;
+        start = Math.max(0, Math.min(start, Math.min(old.mItemCount, newItemCount)));
+        oldEnd = Math.min(Math.max(oldEnd, start), old.mItemCount);
+
+        // 恢复 start 之前的扫描状态
+        int row = 0;
+        int resetWrapTotalSpanSize = 0;
+        if (start > 0) {
+            final int prev = start - 1;
+            if (old.mLastSpanPositions.get(prev)) {
+                row = old.mPositionRow[prev] + 1;
+            } else {
+                row = old.mPositionRow[prev];
+                resetWrapTotalSpanSize = old.mFirstSpanPositions.get(prev)
+                        ? spanSizeProvider.getSpanSize(prev)
+                        : old.mPositionOffsetIndex[prev] + 1;
+            }
+        }
+
+        mItemCount = newItemCount;
+        mPositionRow = Arrays.copyOf(old.mPositionRow, newItemCount);
+        mPositionOffsetIndex = Arrays.copyOf(old.mPositionOffsetIndex, newItemCount);
+        mFirstSpanPositions = old.mFirstSpanPositions.get(0, start);
+        mLastSpanPositions = old.mLastSpanPositions.get(0, start);
+
+        final int rowCapacity = Math.max(INITIAL_ROW_CAPACITY, Math.max(old.mRowStart.length, row + 1));
+        mRowStart = Arrays.copyOf(old.mRowStart, rowCapacity);
+        mRowSize = Arrays.copyOf(old.mRowSize, rowCapacity);
+        mRowSumSpanCount = Arrays.copyOf(old.mRowSumSpanCount, rowCapacity);
+        // 当前行只保留 start 之前的部分，之后的行重新计算
+        Arrays.fill(mRowSize, row, rowCapacity, 0);
+        Arrays.fill(mRowSumSpanCount, row, rowCapacity, 0);
+        if (resetWrapTotalSpanSize > 0) {
+            mRowSize[row] = start - mRowStart[row];
+            mRowSumSpanCount[row] = resetWrapTotalSpanSize;
+        }
+
+        scan(spanSizeProvider, start, row, resetWrapTotalSpanSize, old, delta, oldEnd + delta);
+        trimRows();
+    }
+
+    /**
+     * Description: 从 from 开始逐个计算 Span 信息；若提供旧数据，在 alignFrom 之后行边界对齐时复用旧数据并提前结束
+     *
+     * @param spanSizeProvider         Span 大小
+     * @param from                   起始 position
+     * @param row                    起始行
+     * @param resetWrapTotalSpanSize 当前行已占用的 Span 数
+     * @param old                    旧数据，为空时完整扫描
+     * @param delta                  新旧 position 差值
+     * @param alignFrom              允许对齐的最小 position（新数据）
+     */
+    private void scan(SpanSizeProvider spanSizeProvider, int from, int row, int resetWrapTotalSpanSize,
+                      SpanInfo old, int delta, int alignFrom) {
+        final int spanCount = mSpanCount;
+        for (int i = from; i < mItemCount; i++) {
+
+            final int innerSpanSize = spanSizeProvider.getSpanSize(i);
+            resetWrapTotalSpanSize += innerSpanSize;
+
+            if (resetWrapTotalSpanSize == spanCount) {
+                // 刚好填满当前行
+                ensureRowCapacity(row);
+                addToRow(i, row);
+                mLastSpanPositions.set(i);
+                mRowSumSpanCount[row] = resetWrapTotalSpanSize;
+                mPositionOffsetIndex[i] = (resetWrapTotalSpanSize - 1) % spanCount;
+
+                resetWrapTotalSpanSize = 0;
+                row++;
+            } else if (resetWrapTotalSpanSize > spanCount) {
+                // 超出当前行，换行
+                ensureRowCapacity(row + 1);
+                mRowSumSpanCount[row] = resetWrapTotalSpanSize - innerSpanSize;
+                addToRow(i, ++row);
+                mPositionOffsetIndex[i] = (resetWrapTotalSpanSize - innerSpanSize - 1) % spanCount;
+
+                resetWrapTotalSpanSize = innerSpanSize;
+                mRowSumSpanCount[row] = resetWrapTotalSpanSize;
+            } else {
+                ensureRowCapacity(row);
+                addToRow(i, row);
+                mRowSumSpanCount[row] = resetWrapTotalSpanSize;
+                mPositionOffsetIndex[i] = (resetWrapTotalSpanSize - 1) % spanCount;
+            }
+
+            if (old != null && i >= alignFrom && isAligned(old, i, i - delta)) {
+                copyTail(old, i, i - delta);
+                return;
+            }
+        }
+        mRowCount = resetWrapTotalSpanSize > 0 ? row + 1 : row;
+    }
+
+    /**
+     * Description: 新旧数据在该 Item 处同时开始新行且换行状态一致，之后的 Span 信息必然相同
+     */
+    private boolean isAligned(SpanInfo old, int position, int oldPosition) {
+        return oldPosition >= 0 && oldPosition < old.mItemCount
+                && mFirstSpanPositions.get(position) && old.mFirstSpanPositions.get(oldPosition)
+                && mLastSpanPositions.get(position) == old.mLastSpanPositions.get(oldPosition);
+    }
+
+    private void copyTail(SpanInfo old, int position, int oldPosition) {
+        final int delta = position - oldPosition;
+        final int oldRow = old.mPositionRow[oldPosition];
+        final int rowShift = mPositionRow[position] - oldRow;
+
+        for (int i = position + 1; i < mItemCount; i++) {
+            final int j = i - delta;
+            mPositionRow[i] = old.mPositionRow[j] + rowShift;
+            mPositionOffsetIndex[i] = old.mPositionOffsetIndex[j];
+            if (old.mFirstSpanPositions.get(j)) {
+                mFirstSpanPositions.set(i);
+            }
+            if (old.mLastSpanPositions.get(j)) {
+                mLastSpanPositions.set(i);
+            }
+        }
+
+        mRowCount = old.mRowCount + rowShift;
+        ensureRowCapacity(mRowCount - 1);
+        for (int r = oldRow; r < old.mRowCount; r++) {
+            mRowStart[r + rowShift] = old.mRowStart[r] + delta;
+            mRowSize[r + rowShift] = old.mRowSize[r];
+            mRowSumSpanCount[r + rowShift] = old.mRowSumSpanCount[r];
+        }
+    }
+
+    private void addToRow(int position, int row) {
+        if (mRowSize[row] == 0) {
+            mRowStart[row] = position;
+            mFirstSpanPositions.set(position);
+        }
+        mRowSize[row]++;
+        mPositionRow[position] = row;
+    }
+
+    private void ensureRowCapacity(int row) {
+        if (row < mRowStart.length) {
+            return;
+        }
+        final int capacity = Math.max(row + 1, mRowStart.length * 2);
+        mRowStart = Arrays.copyOf(mRowStart, capacity);
+        mRowSize = Arrays.copyOf(mRowSize, capacity);
+        mRowSumSpanCount = Arrays.copyOf(mRowSumSpanCount, capacity);
+    }
+
+    private void trimRows() {
+        if (mRowStart.length > mRowCount + INITIAL_ROW_CAPACITY) {
+            mRowStart = Arrays.copyOf(mRowStart, mRowCount);
+            mRowSize = Arrays.copyOf(mRowSize, mRowCount);
+            mRowSumSpanCount = Arrays.copyOf(mRowSumSpanCount, mRowCount);
+        }
+    }
+
+    @Override
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    public int getRowCount() {
+        return mRowCount;
+    }
+
+    @Override
+    public boolean isFirstSpan(int position) {
+        return mFirstSpanPositions.get(position);
+    }
+
+    @Override
+    public boolean isLastSpan(int position) {
+        return mLastSpanPositions.get(position);
+    }
+
+    @Override
+    public int getRowByPosition(int position) {
+        return mPositionRow[position];
+    }
+
+    @Override
+    public int getCurrentRowRelativeIndex(int position) {
+        return position - mRowStart[mPositionRow[position]];
+    }
+
+    @Override
+    public int getCurrentRowRelativeOffsetIndex(int position) {
+        return mPositionOffsetIndex[position];
+    }
+
+    @Override
+    public int getCurrentRowRelativeItemCount(int position) {
+        return mRowSize[mPositionRow[position]];
+    }
+
+    @Override
+    public int getCurrentRowSumSpanCount(int position) {
+        return mRowSumSpanCount[mPositionRow[position]];
+    }
+
+    @Override
+    public boolean isInRow(int position, int row) {
+        return mPositionRow[position] == row;
+    }
+
+    @Override
+    public boolean isInSameRow(int position, int targetPosition) {
+        return mPositionRow[position] == mPositionRow[targetPosition];
+    }
+}
@@ -0,0 +1,65 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: 网格布局每个 Span 的首尾偏移表
+ * <p>
+ * 1、只依赖 Span 数量、间距与首尾外边距，每份配置、每个方向计算一次，之后每个 Item 的偏移只是数组读取
+ * 2、第 i 个 Span 的首偏移为 outerStart + i * space - round(i * total / spanCount)，相邻 Span 首尾偏移之和恰好等于 space
+ * 3、总间距不能被 Span 数量整除时，余数按累计取整逐个分摊，每个 Span 占用的间距相差不超过 1px 且结果确定
+ */
+public final class SpanOffsetTable {
+
+    public static final int START = 0;
+    public static final int END = 1;
+
+    private final int mSpanCount;
+    private final int[][] mOffsets;
+
+    /**
+     * @param spanCount  Span 数量
+     * @param space      相邻 Span 之间的间距
+     * @param outerStart 第一个 Span 的首偏移
+     * @param outerEnd   最后一个 Span 的尾偏移
+     */
+    public SpanOffsetTable(int spanCount, int space, int outerStart, int outerEnd) {
+        mSpanCount = spanCount;
+        mOffsets = new int[spanCount][2];
+
+        final long total = (long) outerStart + outerEnd + (long) (spanCount - 1) * space;
+        long consumed = 0;
+        for (int i = 0; i < spanCount; i++) {
+            final long next = roundDiv((i + 1) * total, spanCount);
+            final int start = (int) (outerStart + (long) i * space - consumed);
+            mOffsets[i][START] = start;
+            mOffsets[i][END] = (int) (next - consumed - start);
+            consumed = next;
+        }
+    }
+
+    /**
+     * Description: 四舍五入的整数除法，与 {@link Math#round(float)} 一致（.5 向正无穷取整）
+     */
+    private static long roundDiv(long dividend, long divisor) {
+        return Math.floorDiv(2 * dividend + divisor, 2 * divisor);
+    }
+
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    /**
+     * @param span 起始 Span
+     * @return 首偏移（纵向布局为 left，横向布局为 top）
+     */
+    public int getStart(int span) {
+        return mOffsets[span][START];
+    }
+
+    /**
+     * @param span 结束 Span
+     * @return 尾偏移（纵向布局为 right，横向布局为 bottom）
+     */
+    public int getEnd(int span) {
+        return mOffsets[span][END];
+    }
+}
@@ -0,0 +1,12 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+/**
+ * Description: Item 占用的 Span 数量（对应 GridLayoutManager.SpanSizeLookup）
+ */
+public interface SpanSizeProvider {
+    /**
+     * @param position Item Position
+     * @return 占用的 Span 数量
+     */
+    int getSpanSize(int position);
+}
@@ -0,0 +1,113 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.Arrays;
+
+/**
+ * Description: 流式布局列间隔线收集
+ * <p>
+ * 一帧内每个 child 只登记自身在相邻间隔线上覆盖的范围，{@link #flush} 时按间隔线合并相连的范围后统一输出，
+ * 每条间隔线在连续区域内只绘制一次；占满整行的 Item 不登记，间隔线在其处断开
+ */
+public final class StaggeredGutters {
+
+    private int[] mPositions = new int[4];
+    private int[] mCounts = new int[4];
+    private int[][] mStarts = new int[4][];
+    private int[][] mEnds = new int[4][];
+    private int mGutterCount;
+
+    /**
+     * @param gutter   间隔线下标，第 n 条位于第 n 与 n + 1 个 Span 之间
+     * @param position 间隔线坐标（纵向布局为 x，横向布局为 y）
+     * @param start    覆盖范围起点
+     * @param end      覆盖范围终点
+     */
+    public void add(int gutter, int position, int start, int end) {
+        ensureGutter(gutter);
+        final int count = mCounts[gutter];
+        if (count == 0) {
+            mPositions[gutter] = position;
+        }
+        if (count == mStarts[gutter].length) {
+            mStarts[gutter] = Arrays.copyOf(mStarts[gutter], count * 2);
+            mEnds[gutter] = Arrays.copyOf(mEnds[gutter], count * 2);
+        }
+        mStarts[gutter][count] = start;
+        mEnds[gutter][count] = end;
+        mCounts[gutter] = count + 1;
+    }
+
+    private void ensureGutter(int gutter) {
+        if (gutter >= mPositions.length) {
+            final int capacity = Math.max(gutter + 1, mPositions.length * 2);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mCounts = Arrays.copyOf(mCounts, capacity);
+            mStarts = Arrays.copyOf(mStarts, capacity);
+            mEnds = Arrays.copyOf(mEnds, capacity);
+        }
+        while (mGutterCount <= gutter) {
+            if (mStarts[mGutterCount] == null) {
+                mStarts[mGutterCount] = new int[16];
+                mEnds[mGutterCount] = new int[16];
+            }
+            mGutterCount++;
+        }
+    }
+
+    /**
+     * Description: 合并并输出所有间隔线，然后清空
+     *
+     * @param sink        分割线收集
+     * @param orientation 布局方向
+     */
+    public void flush(DividerSink sink, int orientation) {
+        for (int g = 0; g < mGutterCount; g++) {
+            final int count = mCounts[g];
+            if (count == 0) {
+                continue;
+            }
+            final int[] starts = mStarts[g];
+            final int[] ends = mEnds[g];
+            sort(starts, ends, count);
+
+            final int position = mPositions[g];
+            int start = starts[0];
+            int end = ends[0];
+            for (int i = 1; i <= count; i++) {
+                // 间距为奇数时相邻 Item 的半间距之间相差 1px
+                if (i < count && starts[i] <= end + 1) {
+                    end = Math.max(end, ends[i]);
+                    continue;
+                }
+                if (orientation == SpacingEngine.VERTICAL) {
+                    sink.add(position, start, position, end);
+                } else {
+                    sink.add(start, position, end, position);
+                }
+                if (i < count) {
+                    start = starts[i];
+                    end = ends[i];
+                }
+            }
+            mCounts[g] = 0;
+        }
+    }
+
+    /**
+     * 插入排序：每条间隔线上可见 Item 很少，且 child 基本按顺序登记
+     */
+    private static void sort(int[] starts, int[] ends, int count) {
+        for (int i = 1; i < count; i++) {
+            final int start = starts[i];
+            final int end = ends[i];
+            int j = i - 1;
+            while (j >= 0 && starts[j] > start) {
+                starts[j + 1] = starts[j];
+                ends[j + 1] = ends[j];
+                j--;
+            }
+            starts[j + 1] = start;
+            ends[j + 1] = end;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import java.util.BitSet;
+
+/**
+ * Description: 一段连续 position 的分割线隐藏掩码
+ * <p>
+ * 1、窗口内每个 position 对应一位（相对窗口起点），查询只需一次位测试
+ * 2、由调用方按窗口批量填充（过滤器、跳过开始/结尾等规则），窗口外或 Item 数量变化后需要重新填充
+ */
+public final class VisibilityMask {
+
+    private final BitSet mHidden = new BitSet();
+    private int mStart;
+    private int mCount;
+    private int mItemCount = -1;
+
+    /**
+     * Description: 清空并设置新窗口
+     *
+     * @param positionStart 窗口起点
+     * @param count         窗口大小
+     * @param itemCount     Item 数量
+     * @return 窗口对应的位集合，第 i 位对应 positionStart + i，置位表示隐藏
+     */
+    public BitSet reset(int positionStart, int count, int itemCount) {
+        mHidden.clear();
+        mStart = positionStart;
+        mCount = count;
+        mItemCount = itemCount;
+        return mHidden;
+    }
+
+    /**
+     * Description: 隐藏 [from, to) 范围内的 position，超出窗口的部分忽略
+     */
+    public void hideRange(int from, int to) {
+        final int start = Math.max(from, mStart) - mStart;
+        final int end = Math.min(to, mStart + mCount) - mStart;
+        if (start < end) {
+            mHidden.set(start, end);
+        }
+    }
+
+    /**
+     * Description: 按跳过开始、跳过结尾规则隐藏窗口内的 position
+     *
+     * @param skipStart 跳过开始Item数量
+     * @param skipEnd   跳过结尾Item数量
+     */
+    public void hideSkipped(int skipStart, int skipEnd) {
+        hideRange(0, skipStart);
+        hideRange(mItemCount - skipEnd, mItemCount);
+    }
+
+    /**
+     * @param position  当前 Item
+     * @param itemCount 当前 Item 数量
+     * @return 窗口是否覆盖该 position 且 Item 数量未变化
+     */
+    public boolean covers(int position, int itemCount) {
+        return itemCount == mItemCount && position >= mStart && position < mStart + mCount;
+    }
+
+    /**
+     * @param position 窗口内的 position
+     * @return 是否隐藏
+     */
+    public boolean isHidden(int position) {
+        return mHidden.get(position - mStart);
+    }
+
+    public void invalidate() {
+        mItemCount = -1;
+    }
+}
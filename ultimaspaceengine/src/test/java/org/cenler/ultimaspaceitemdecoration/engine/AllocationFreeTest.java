@@ -0,0 +1,170 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 稳态滑动过程中 Span 查询、间距计算与分割线几何不分配内存
+ */
+public class AllocationFreeTest {
+
+    private static final int ITEM_COUNT = 200_000;
+    private static final int SPAN_COUNT = 4;
+    private static final int VISIBLE_COUNT = 60;
+    private static final int FRAMES = 2_000;
+
+    private com.sun.management.ThreadMXBean mThreadMXBean;
+    private long mSink;
+
+    private final SpanSizeProvider mSpanSizeProvider = position -> position % 13 == 0 ? SPAN_COUNT : 1;
+
+    private final SpacingEngine mEngine = new SpacingEngine(new SpacingConfig.Builder()
+            .setHiddenFirst(true)
+            .setHiddenLast(true)
+            .setSkipStart(1)
+            .setSkipEnd(1)
+            .setVerticalSpace(24)
+            .setHorizontalSpace(16)
+            .setHorizontalOuter(true)
+            .setPaddingTop(8)
+            .setPaddingBottom(8)
+            .setDividerSize(3)
+            .setDividerPaddingEnable(true)
+            .build());
+
+    private final int[] mOffsets = new int[4];
+
+    private final DividerSink mDividerSink = new DividerSink() {
+        @Override
+        public void add(float startX, float startY, float stopX, float stopY) {
+            mSink += (long) (startX + startY + stopX + stopY);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadMXBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(mThreadMXBean.isThreadAllocatedMemorySupported());
+        mThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void spanInfo_steadyStateScroll_allocatesNothing() {
+        final SpanIndex spanIndex = new SpanInfo(mSpanSizeProvider, SPAN_COUNT, ITEM_COUNT);
+        assertFramesAllocateNothing(frame -> queryWindow(spanIndex, frame));
+    }
+
+    @Test
+    public void lazySpanInfo_steadyStateScroll_allocatesNothing() {
+        final SpanIndex spanIndex = new LazySpanInfo(mSpanSizeProvider, SPAN_COUNT, ITEM_COUNT);
+        assertFramesAllocateNothing(frame -> queryWindow(spanIndex, frame));
+    }
+
+    @Test
+    public void linearOffsetsAndDivider_steadyStateScroll_allocatesNothing() {
+        assertFramesAllocateNothing(frame -> {
+            final int first = frame % 512;
+            for (int position = first; position < first + VISIBLE_COUNT; position++) {
+                mEngine.linearOffsets(mOffsets, position, ITEM_COUNT, SpacingEngine.VERTICAL, false);
+                mEngine.linearDivider(mDividerSink, SpacingEngine.VERTICAL, position, ITEM_COUNT,
+                        1080, position * 120, 0f, 0f, 0, 0, 1080, 1920);
+                mSink += mOffsets[SpacingEngine.TOP] + mOffsets[SpacingEngine.BOTTOM];
+            }
+        });
+    }
+
+    @Test
+    public void gridOffsetsAndDividers_steadyStateScroll_allocatesNothing() {
+        final SpanIndex spanIndex = new LazySpanInfo(mSpanSizeProvider, SPAN_COUNT, ITEM_COUNT);
+        assertFramesAllocateNothing(frame -> {
+            final int first = frame % 512;
+            for (int position = first; position < first + VISIBLE_COUNT; position++) {
+                mEngine.gridOffsets(mOffsets, spanIndex, position, mSpanSizeProvider.getSpanSize(position),
+                        SPAN_COUNT, ITEM_COUNT, SpacingEngine.VERTICAL, false);
+                mEngine.gridDividers(mDividerSink, spanIndex, position, ITEM_COUNT, SpacingEngine.VERTICAL,
+                        0, position * 120, 270, position * 120 + 100);
+                mSink += mOffsets[SpacingEngine.LEFT] + mOffsets[SpacingEngine.RIGHT];
+            }
+        });
+    }
+
+    @Test
+    public void mergedGridLines_steadyStateScroll_allocatesNothing() {
+        final SpanIndex spanIndex = new LazySpanInfo(mSpanSizeProvider, SPAN_COUNT, ITEM_COUNT);
+        final GridLines gridLines = new GridLines();
+        assertFramesAllocateNothing(frame -> {
+            final int first = frame % 512;
+            for (int position = first; position < first + VISIBLE_COUNT; position++) {
+                mEngine.gridLines(gridLines, spanIndex, position, ITEM_COUNT, SpacingEngine.VERTICAL,
+                        0, position * 120, 270, position * 120 + 100);
+            }
+            gridLines.flush(mDividerSink, SpacingEngine.VERTICAL);
+        });
+    }
+
+    @Test
+    public void staggeredOffsetsAndDividers_steadyStateScroll_allocatesNothing() {
+        final StaggeredGutters gutters = new StaggeredGutters();
+        assertFramesAllocateNothing(frame -> {
+            final int first = frame % 512;
+            for (int position = first; position < first + VISIBLE_COUNT; position++) {
+                final int spanIndex = position % SPAN_COUNT;
+                final boolean isFullSpan = position % 13 == 0;
+                mEngine.staggeredOffsets(mOffsets, position, spanIndex, isFullSpan,
+                        SPAN_COUNT, ITEM_COUNT, SpacingEngine.VERTICAL);
+                mEngine.staggeredDividers(mDividerSink, gutters, SpacingEngine.VERTICAL, position, ITEM_COUNT,
+                        spanIndex, isFullSpan, SPAN_COUNT, spanIndex * 270, position * 40, spanIndex * 270 + 250,
+                        position * 40 + 30 + position % 7);
+                mSink += mOffsets[SpacingEngine.LEFT] + mOffsets[SpacingEngine.RIGHT];
+            }
+            gutters.flush(mDividerSink, SpacingEngine.VERTICAL);
+        });
+    }
+
+    private interface Frame {
+        void run(int frame);
+    }
+
+    private void assertFramesAllocateNothing(Frame frame) {
+        // 预热：首次访问窗口内所有块
+        for (int i = 0; i < FRAMES; i++) {
+            frame.run(i);
+        }
+
+        final long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            frame.run(i);
+        }
+        assertEquals(0, allocatedBytes() - before);
+    }
+
+    /**
+     * 模拟一帧：对可见窗口内每个 Item 执行 getItemOffsets 所需的全部查询
+     */
+    private void queryWindow(SpanIndex spanIndex, int frame) {
+        final int first = frame % 512;
+        final int last = ITEM_COUNT - 1;
+        long sink = 0;
+        for (int position = first; position < first + VISIBLE_COUNT; position++) {
+            sink += spanIndex.getCurrentRowRelativeIndex(position);
+            sink += spanIndex.getCurrentRowRelativeItemCount(position);
+            sink += spanIndex.getCurrentRowRelativeOffsetIndex(position);
+            sink += spanIndex.isFirstSpan(position) ? 1 : 0;
+            sink += spanIndex.isLastSpan(position) ? 1 : 0;
+            sink += spanIndex.isInSameRow(position, 0) ? 1 : 0;
+            sink += spanIndex.isInSameRow(position, last) ? 1 : 0;
+        }
+        mSink += sink;
+    }
+
+    private long allocatedBytes() {
+        return mThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,211 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class AsyncSpanInfoTest {
+
+    private static final int SPAN_COUNT = 4;
+
+    private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+    private final List<Integer> mSpanSizes = new ArrayList<>();
+    private int mReadCount;
+    private final SpanSizeProvider mSpanSizeProvider = position -> {
+        mReadCount++;
+        return mSpanSizes.get(position);
+    };
+
+    private void fill(int itemCount, Random random) {
+        for (int i = 0; i < itemCount; i++) {
+            mSpanSizes.add(1 + random.nextInt(SPAN_COUNT));
+        }
+    }
+
+    private void runTasks() {
+        while (!mTasks.isEmpty()) {
+            mTasks.poll().run();
+        }
+    }
+
+    /**
+     * 模拟逐帧推进：每帧拷贝一批快照，后台任务在帧之间执行
+     */
+    private void runFrames(AsyncSpanInfo spanInfo) {
+        while (spanInfo.advanceSnapshot()) {
+            runTasks();
+        }
+        runTasks();
+    }
+
+    private void assertSameAsSpanInfo(SpanIndex actual) {
+        final SpanInfo expected = new SpanInfo(mSpanSizeProvider, SPAN_COUNT, mSpanSizes.size());
+        assertEquals(expected.getItemCount(), actual.getItemCount());
+        final int last = mSpanSizes.size() - 1;
+        for (int position = 0; position <= last; position++) {
+            assertEquals(expected.isFirstSpan(position), actual.isFirstSpan(position));
+            assertEquals(expected.isLastSpan(position), actual.isLastSpan(position));
+            assertEquals(expected.getRowByPosition(position), actual.getRowByPosition(position));
+            assertEquals(expected.getCurrentRowRelativeIndex(position), actual.getCurrentRowRelativeIndex(position));
+            assertEquals(expected.getCurrentRowRelativeOffsetIndex(position), actual.getCurrentRowRelativeOffsetIndex(position));
+            assertEquals(expected.getCurrentRowRelativeItemCount(position), actual.getCurrentRowRelativeItemCount(position));
+            assertEquals(expected.getCurrentRowSumSpanCount(position), actual.getCurrentRowSumSpanCount(position));
+            assertEquals(expected.isInSameRow(position, last), actual.isInSameRow(position, last));
+        }
+    }
+
+    @Test
+    public void fallsBackUntilPublished() {
+        fill(1000, new Random(1));
+        final AsyncSpanInfo spanInfo = new AsyncSpanInfo(mSpanSizeProvider, SPAN_COUNT, 1000, mTasks::add);
+
+        assertFalse(spanInfo.isPublished());
+        assertSameAsSpanInfo(spanInfo);
+
+        runFrames(spanInfo);
+        assertTrue(spanInfo.isPublished());
+        assertSameAsSpanInfo(spanInfo);
+    }
+
+    @Test
+    public void deepQueryBeforePublished_readsOnlyScanWindow() {
+        fill(500_000, new Random(6));
+        final AsyncSpanInfo spanInfo = new AsyncSpanInfo(mSpanSizeProvider, SPAN_COUNT, 500_000, mTasks::add);
+
+        // 全量刷新后停在深处：首次查询不从头扫描
+        spanInfo.getRowByPosition(400_000);
+        spanInfo.getCurrentRowRelativeIndex(400_000);
+        assertFalse(spanInfo.isPublished());
+        assertTrue("read " + mReadCount, mReadCount
+                <= (LazySpanInfo.DEFAULT_WINDOW_BLOCK_COUNT + 2) * LazySpanInfo.DEFAULT_CHECKPOINT_INTERVAL);
+
+        // 附近的查询仍在窗口内
+        final int before = mReadCount;
+        for (int position = 400_000; position < 400_040; position++) {
+            spanInfo.getCurrentRowRelativeItemCount(position);
+        }
+        assertTrue(mReadCount - before <= LazySpanInfo.DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    @Test
+    public void notificationDuringBuild_discardsStaleResultAndRebuilds() {
+        fill(1000, new Random(2));
+        final AsyncSpanInfo spanInfo = new AsyncSpanInfo(mSpanSizeProvider, SPAN_COUNT, 1000, mTasks::add);
+        assertFalse(spanInfo.advanceSnapshot());
+        assertEquals(1, mTasks.size());
+
+        mSpanSizes.add(10, SPAN_COUNT);
+        spanInfo.onItemRangeInserted(mSpanSizeProvider, 10, 1);
+        // 旧快照的构建结果不会被采用
+        runTasks();
+        assertFalse(spanInfo.isPublished());
+        assertSameAsSpanInfo(spanInfo);
+
+        // 下一帧根据修补后的快照重新提交构建
+        assertFalse(spanInfo.advanceSnapshot());
+        runTasks();
+        assertTrue(spanInfo.isPublished());
+        assertSameAsSpanInfo(spanInfo);
+    }
+
+    @Test
+    public void rejectedExecution_keepsFallback() {
+        fill(100, new Random(3));
+        final AsyncSpanInfo spanInfo = new AsyncSpanInfo(mSpanSizeProvider, SPAN_COUNT, 100, command -> {
+            throw new java.util.concurrent.RejectedExecutionException();
+        });
+
+        spanInfo.advanceSnapshot();
+        assertFalse(spanInfo.isPublished());
+        assertSameAsSpanInfo(spanInfo);
+    }
+
+    @Test
+    public void snapshot_readsOneChunkPerFrame_andPatchesOnlyChangedRange() {
+        fill(10_000, new Random(5));
+        final AsyncSpanInfo spanInfo = new AsyncSpanInfo(mSpanSizeProvider, SPAN_COUNT, 10_000, mTasks::add,
+                LazySpanInfo.DEFAULT_CHECKPOINT_INTERVAL, LazySpanInfo.DEFAULT_CACHED_BLOCK_COUNT, 1000);
+        assertEquals(0, mReadCount);
+
+        assertTrue(spanInfo.advanceSnapshot());
+        assertEquals(1000, mReadCount);
+        assertTrue(mTasks.isEmpty());
+        for (int frame = 1; frame < 9; frame++) {
+            assertTrue(spanInfo.advanceSnapshot());
+        }
+        assertFalse(spanInfo.advanceSnapshot());
+        assertEquals(10_000, mReadCount);
+        assertEquals(1, mTasks.size());
+
+        // 构建期间的一连串通知只修补快照，下一帧合并提交一次
+        mReadCount = 0;
+        for (int i = 0; i < 20; i++) {
+            mSpanSizes.add(100 + i, 1);
+            spanInfo.onItemRangeInserted(mSpanSizeProvider, 100 + i, 1);
+            mSpanSizes.set(5000 + i, SPAN_COUNT);
+            spanInfo.onItemRangeChanged(mSpanSizeProvider, 5000 + i, 1);
+        }
+        mSpanSizes.remove(9000);
+        spanInfo.onItemRangeRemoved(mSpanSizeProvider, 9000, 1);
+        mSpanSizes.add(20, mSpanSizes.remove(7000));
+        spanInfo.onItemRangeMoved(mSpanSizeProvider, 7000, 20, 1);
+        assertEquals(40, mReadCount);
+        runTasks();
+        assertFalse(spanInfo.isPublished());
+
+        assertFalse(spanInfo.advanceSnapshot());
+        assertEquals(1, mTasks.size());
+        runTasks();
+        assertTrue(spanInfo.isPublished());
+        assertEquals(40, mReadCount);
+        assertSameAsSpanInfo(spanInfo);
+    }
+
+    @Test
+    public void randomEdits_matchFreshSpanInfo() {
+        final Random random = new Random(4);
+        fill(300, random);
+        final AsyncSpanInfo spanInfo = new AsyncSpanInfo(mSpanSizeProvider, SPAN_COUNT, 300, mTasks::add,
+                LazySpanInfo.DEFAULT_CHECKPOINT_INTERVAL, LazySpanInfo.DEFAULT_CACHED_BLOCK_COUNT, 16);
+
+        for (int step = 0; step < 200; step++) {
+            // 快照只拷贝了一部分时的通知只修补已读取的部分
+            if (step < 100 && step % 5 == 0) {
+                spanInfo.advanceSnapshot();
+            }
+            // 构建完成后的通知直接增量更新已发布的完整 Span 信息
+            if (step == 100) {
+                runFrames(spanInfo);
+            }
+            final int itemCount = mSpanSizes.size();
+            final int start = random.nextInt(itemCount + 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    mSpanSizes.add(start, 1 + random.nextInt(SPAN_COUNT));
+                    spanInfo.onItemRangeInserted(mSpanSizeProvider, start, 1);
+                    break;
+                case 1:
+                    if (start < itemCount) {
+                        mSpanSizes.remove(start);
+                        spanInfo.onItemRangeRemoved(mSpanSizeProvider, start, 1);
+                    }
+                    break;
+                default:
+                    if (start < itemCount) {
+                        mSpanSizes.set(start, 1 + random.nextInt(SPAN_COUNT));
+                        spanInfo.onItemRangeChanged(mSpanSizeProvider, start, 1);
+                    }
+                    break;
+            }
+            assertSameAsSpanInfo(spanInfo);
+        }
+        assertTrue(spanInfo.isPublished());
+    }
+}
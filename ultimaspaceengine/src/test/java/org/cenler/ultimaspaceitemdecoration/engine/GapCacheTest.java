@@ -0,0 +1,120 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GapCacheTest {
+
+    private static final int SPAN_COUNT = 3;
+    private static final int HEADER = 1;
+    private static final int CARD = 2;
+
+    private final GapMatrix mMatrix = new GapMatrix.Builder()
+            .setGap(HEADER, CARD, 8)
+            .setGap(CARD, HEADER, 20)
+            .build();
+    private final SpacingEngine mEngine = new SpacingEngine(new SpacingConfig.Builder()
+            .setHorizontalSpace(10)
+            .setVerticalSpace(10)
+            .build());
+
+    // 每个 Item 的 Span 大小与 ViewType
+    private final List<Integer> mSpanSizes = new ArrayList<>();
+    private final List<Integer> mViewTypes = new ArrayList<>();
+    private final SpanSizeProvider mSpanSizeProvider = position -> mSpanSizes.get(position);
+
+    @Test
+    public void blocks_evictLeastRecentlyUsed() {
+        final GapCache cache = new GapCache(8, 2);
+        cache.put(1, 12);
+        cache.put(9, GapMatrix.NO_GAP);
+        assertEquals(12, cache.get(1));
+        // 第三个块淘汰最久未访问的第 1 块（position 8 ~ 15）
+        cache.put(17, 24);
+        assertEquals(12, cache.get(1));
+        assertEquals(GapCache.UNRESOLVED, cache.get(9));
+        assertEquals(24, cache.get(17));
+
+        cache.invalidateFrom(2);
+        assertEquals(GapCache.UNRESOLVED, cache.get(1));
+        assertEquals(GapCache.UNRESOLVED, cache.get(17));
+    }
+
+    @Test
+    public void midRowInsert_invalidatesFromPreviousRowStart() {
+        // 每节：HEADER 独占一行，之后两行 CARD（2 + 1、1 + 1 + 1）
+        for (int section = 0; section < 20; section++) {
+            add(mSpanSizes.size(), SPAN_COUNT, HEADER);
+            add(mSpanSizes.size(), 2, CARD);
+            add(mSpanSizes.size(), 1, CARD);
+            add(mSpanSizes.size(), 1, CARD);
+            add(mSpanSizes.size(), 1, CARD);
+            add(mSpanSizes.size(), 1, CARD);
+        }
+        final SpanInfo spanInfo = new SpanInfo(mSpanSizeProvider, SPAN_COUNT, mSpanSizes.size());
+        final OffsetCache offsetCache = new OffsetCache(8, 32);
+        final GapCache gapCache = new GapCache(8, 32);
+        fill(spanInfo, offsetCache, gapCache);
+
+        // 插入到第 3 节第二个 CARD 行的中间（1 + [HEADER] + 1 + 1），该行与之后的排布全部变化
+        final int position = 2 * 6 + 4;
+        add(position, SPAN_COUNT, HEADER);
+        spanInfo.onItemRangeInserted(mSpanSizeProvider, position, 1);
+        final int start = spanInfo.getInvalidationStart(position);
+        // position - 1 所在行为第 3 节第二个 CARD 行，上一行为第一个 CARD 行
+        assertEquals(2 * 6 + 1, start);
+        offsetCache.invalidateFrom(start, 1);
+        gapCache.invalidateFrom(start);
+
+        final int[] expected = new int[4];
+        final int[] cached = new int[4];
+        for (int p = 0; p < mSpanSizes.size(); p++) {
+            final int gap = gapCache.get(p);
+            if (gap != GapCache.UNRESOLVED) {
+                assertEquals(resolveGap(spanInfo, p), gap);
+            }
+            if (offsetCache.get(p, cached)) {
+                computeOffsets(expected, spanInfo, p);
+                assertArrayEquals("position " + p, expected, cached);
+            }
+        }
+        // 之前的行仍然命中（GapCache 自身再向前扩展一个 position）
+        assertTrue(offsetCache.get(start - 1, cached));
+        assertEquals(GapCache.UNRESOLVED, gapCache.get(start - 1));
+        assertEquals(resolveGap(spanInfo, start - 2), gapCache.get(start - 2));
+    }
+
+    private void add(int position, int spanSize, int viewType) {
+        mSpanSizes.add(position, spanSize);
+        mViewTypes.add(position, viewType);
+    }
+
+    private void fill(SpanIndex spanIndex, OffsetCache offsetCache, GapCache gapCache) {
+        final int[] offsets = new int[4];
+        offsetCache.ensureVersion(mEngine.getConfig(), SPAN_COUNT, SpacingEngine.VERTICAL, false, mSpanSizes.size());
+        for (int p = 0; p < mSpanSizes.size(); p++) {
+            gapCache.put(p, resolveGap(spanIndex, p));
+            computeOffsets(offsets, spanIndex, p);
+            offsetCache.put(p, offsets);
+        }
+    }
+
+    private int resolveGap(SpanIndex spanIndex, int position) {
+        final int nextRowStart = position - spanIndex.getCurrentRowRelativeIndex(position)
+                + spanIndex.getCurrentRowRelativeItemCount(position);
+        return nextRowStart >= mSpanSizes.size()
+                ? GapMatrix.NO_GAP
+                : mMatrix.getGap(mViewTypes.get(position), mViewTypes.get(nextRowStart));
+    }
+
+    private void computeOffsets(int[] out, SpanIndex spanIndex, int position) {
+        mEngine.gridOffsets(out, spanIndex, position, mSpanSizes.get(position), SPAN_COUNT, mSpanSizes.size(),
+                SpacingEngine.VERTICAL, false, resolveGap(spanIndex, position));
+    }
+}
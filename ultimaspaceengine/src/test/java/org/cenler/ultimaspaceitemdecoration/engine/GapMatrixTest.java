@@ -0,0 +1,54 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class GapMatrixTest {
+
+    private static final int HEADER = 1;
+    private static final int CARD = 2;
+    private static final int AD = 7;
+
+    private final GapMatrix mMatrix = new GapMatrix.Builder()
+            .setGap(HEADER, CARD, 8)
+            .setGap(CARD, CARD, 12)
+            .setGap(CARD, AD, 24)
+            .build();
+
+    @Test
+    public void configuredPairs_resolveGap() {
+        assertEquals(8, mMatrix.getGap(HEADER, CARD));
+        assertEquals(12, mMatrix.getGap(CARD, CARD));
+        assertEquals(24, mMatrix.getGap(CARD, AD));
+        assertEquals(GapMatrix.NO_GAP, mMatrix.getGap(AD, CARD));
+        assertEquals(GapMatrix.NO_GAP, mMatrix.getGap(3, CARD));
+    }
+
+    @Test
+    public void linearOffsets_useGapInsteadOfConfiguredSpace() {
+        final SpacingEngine engine = new SpacingEngine(new SpacingConfig.Builder().setVerticalSpace(10).build());
+        final int[] out = new int[4];
+
+        engine.linearOffsets(out, 0, 3, SpacingEngine.VERTICAL, false, mMatrix.getGap(CARD, AD));
+        assertEquals(24, out[SpacingEngine.BOTTOM]);
+        engine.linearOffsets(out, 1, 3, SpacingEngine.VERTICAL, false, mMatrix.getGap(AD, CARD));
+        assertEquals(10, out[SpacingEngine.BOTTOM]);
+    }
+
+    @Test
+    public void cache_invalidatesPreviousPositionWithRange() {
+        final GapCache cache = new GapCache();
+        cache.put(4, 12);
+        cache.put(5, GapMatrix.NO_GAP);
+        cache.put(6, 8);
+
+        assertEquals(GapMatrix.NO_GAP, cache.get(5));
+        cache.invalidate(5, 1);
+        assertEquals(GapCache.UNRESOLVED, cache.get(4));
+        assertEquals(GapCache.UNRESOLVED, cache.get(5));
+        assertEquals(8, cache.get(6));
+        cache.invalidateFrom(7);
+        assertEquals(GapCache.UNRESOLVED, cache.get(6));
+    }
+}
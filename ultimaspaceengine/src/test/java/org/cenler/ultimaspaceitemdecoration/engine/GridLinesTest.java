@@ -0,0 +1,81 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GridLinesTest {
+
+    private static final int SPAN_COUNT = 2;
+    private static final int ITEM_COUNT = 6;
+
+    private final GridLines mGridLines = new GridLines();
+    private final SpanIndex mSpanIndex = new SpanInfo(position -> 1, SPAN_COUNT, ITEM_COUNT);
+    private final List<float[]> mSegments = new ArrayList<>();
+    private final DividerSink mSink = (startX, startY, stopX, stopY) ->
+            mSegments.add(new float[]{startX, startY, stopX, stopY});
+
+    private static SpacingEngine engine(boolean hiddenFirst) {
+        return new SpacingEngine(new SpacingConfig.Builder()
+                .setHiddenFirst(hiddenFirst)
+                .setVerticalSpace(10)
+                .setHorizontalSpace(20)
+                .setDividerSize(2)
+                .build());
+    }
+
+    /**
+     * 纵向两列三行：列 [0, 100]、[120, 220]，行 [0, 50]、[60, 110]、[120, 170]
+     */
+    private List<float[]> drawAll(SpacingEngine engine) {
+        for (int position = 0; position < ITEM_COUNT; position++) {
+            final int left = position % SPAN_COUNT * 120;
+            final int top = position / SPAN_COUNT * 60;
+            engine.gridLines(mGridLines, mSpanIndex, position, ITEM_COUNT, SpacingEngine.VERTICAL,
+                    left, top, left + 100, top + 50);
+        }
+        mGridLines.flush(mSink, SpacingEngine.VERTICAL);
+        return mSegments;
+    }
+
+    @Test
+    public void eachRowSeparatorAndGutter_drawnOnce() {
+        final List<float[]> segments = drawAll(engine(false));
+
+        assertEquals(7, segments.size());
+        assertSegment(new float[]{-11, -5, 230, -5}, segments.get(0));
+        assertSegment(new float[]{-11, 55, 230, 55}, segments.get(1));
+        assertSegment(new float[]{-11, 115, 230, 115}, segments.get(2));
+        assertSegment(new float[]{-11, 175, 230, 175}, segments.get(3));
+        assertSegment(new float[]{-10, -6, -10, 175}, segments.get(4));
+        assertSegment(new float[]{110, -6, 110, 175}, segments.get(5));
+        assertSegment(new float[]{230, -6, 230, 175}, segments.get(6));
+    }
+
+    @Test
+    public void hiddenFirstOrLast_skipsOuterRowLines() {
+        final List<float[]> segments = drawAll(engine(true));
+
+        assertEquals(5, segments.size());
+        assertSegment(new float[]{-11, 55, 230, 55}, segments.get(0));
+        assertSegment(new float[]{-11, 115, 230, 115}, segments.get(1));
+    }
+
+    @Test
+    public void flush_clearsForNextFrame() {
+        drawAll(engine(false));
+        mSegments.clear();
+        mGridLines.flush(mSink, SpacingEngine.VERTICAL);
+
+        assertEquals(0, mSegments.size());
+    }
+
+    private static void assertSegment(float[] expected, float[] actual) {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], actual[i], 0f);
+        }
+    }
+}
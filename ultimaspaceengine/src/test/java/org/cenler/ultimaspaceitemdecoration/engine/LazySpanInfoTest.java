@@ -0,0 +1,98 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class LazySpanInfoTest {
+
+    // 检查点间隔、缓存块数量都很小，随机查询几乎每次都跨块、淘汰缓存
+    private static final int INTERVAL = 4;
+    private static final int CACHED_BLOCK_COUNT = 2;
+
+    @Test
+    public void randomQueriesAndUpdates_matchSpanInfo() {
+        final Random random = new Random(3);
+        for (int spanCount : new int[]{1, 2, 3, 5}) {
+            final List<Integer> spanSizes = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                spanSizes.add(randomSpanSize(random, spanCount));
+            }
+            final SpanSizeProvider provider = spanSizes::get;
+            final LazySpanInfo spanInfo = new LazySpanInfo(provider, spanCount, spanSizes.size(),
+                    INTERVAL, CACHED_BLOCK_COUNT);
+            for (int step = 0; step < 200; step++) {
+                final SpanInfo expected = new SpanInfo(provider, spanCount, spanSizes.size());
+                for (int query = 0; query < 60; query++) {
+                    assertSameAsSpanInfo(spanInfo, expected, random.nextInt(spanSizes.size()),
+                            random.nextInt(spanSizes.size()), "spanCount " + spanCount + " step " + step);
+                }
+
+                // 范围更新：已缓存的块、检查点从变更处起失效
+                final int size = spanSizes.size();
+                final int start = random.nextInt(size);
+                final int count = 1 + random.nextInt(Math.min(6, size - start));
+                switch (random.nextInt(4)) {
+                    case 0:
+                        for (int i = 0; i < count; i++) {
+                            spanSizes.add(start, randomSpanSize(random, spanCount));
+                        }
+                        spanInfo.onItemRangeInserted(provider, start, count);
+                        break;
+                    case 1:
+                        if (size - count < 2 * spanCount) {
+                            continue;
+                        }
+                        spanSizes.subList(start, start + count).clear();
+                        spanInfo.onItemRangeRemoved(provider, start, count);
+                        break;
+                    case 2:
+                        for (int i = start; i < start + count; i++) {
+                            spanSizes.set(i, randomSpanSize(random, spanCount));
+                        }
+                        spanInfo.onItemRangeChanged(provider, start, count);
+                        break;
+                    default:
+                        final int to = random.nextInt(size - count + 1);
+                        final List<Integer> moved = new ArrayList<>(spanSizes.subList(start, start + count));
+                        spanSizes.subList(start, start + count).clear();
+                        spanSizes.addAll(to, moved);
+                        spanInfo.onItemRangeMoved(provider, start, to, count);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 四分之一概率占满整行
+     */
+    private static int randomSpanSize(Random random, int spanCount) {
+        return random.nextInt(4) == 0 ? spanCount : 1 + random.nextInt(spanCount);
+    }
+
+    private static void assertSameAsSpanInfo(LazySpanInfo actual, SpanInfo expected, int position, int target,
+                                             String step) {
+        final String message = step + ", position " + position;
+        assertEquals(message, expected.getItemCount(), actual.getItemCount());
+        assertEquals(message, expected.isFirstSpan(position), actual.isFirstSpan(position));
+        assertEquals(message, expected.isLastSpan(position), actual.isLastSpan(position));
+        assertEquals(message, expected.getRowByPosition(position), actual.getRowByPosition(position));
+        assertEquals(message, expected.getCurrentRowRelativeIndex(position),
+                actual.getCurrentRowRelativeIndex(position));
+        assertEquals(message, expected.getCurrentRowRelativeOffsetIndex(position),
+                actual.getCurrentRowRelativeOffsetIndex(position));
+        assertEquals(message, expected.getCurrentRowRelativeItemCount(position),
+                actual.getCurrentRowRelativeItemCount(position));
+        assertEquals(message, expected.getCurrentRowSumSpanCount(position),
+                actual.getCurrentRowSumSpanCount(position));
+        assertEquals(message + ", target " + target, expected.isInSameRow(position, target),
+                actual.isInSameRow(position, target));
+        final int row = expected.getRowByPosition(target);
+        assertEquals(message + ", row " + row, expected.isInRow(position, row), actual.isInRow(position, row));
+    }
+}
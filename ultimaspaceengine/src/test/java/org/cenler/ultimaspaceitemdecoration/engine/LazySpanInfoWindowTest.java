@@ -0,0 +1,60 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LazySpanInfoWindowTest {
+
+    private static final int SPAN_COUNT = 3;
+    private static final int ITEM_COUNT = 5_000_000;
+    private static final int INTERVAL = 256;
+    private static final int WINDOW = 2;
+
+    private int mLookups;
+
+    // 占位符 Span 大小为 1，已加载的区域中每 7 个 Item 有一个占满整行
+    private int getSpanSize(int position, int loadedFrom, int loadedTo) {
+        mLookups++;
+        if (position >= loadedFrom && position < loadedTo && position % 7 == 0) {
+            return SPAN_COUNT;
+        }
+        return 1;
+    }
+
+    @Test
+    public void jumpToFarPosition_scansOnlyWindow() {
+        final LazySpanInfo spanInfo = new LazySpanInfo(position -> getSpanSize(position, 0, 0), SPAN_COUNT,
+                ITEM_COUNT, INTERVAL, 4, WINDOW);
+
+        final int position = 4_000_001;
+        final int last = ITEM_COUNT - 1;
+        assertEquals(position / SPAN_COUNT, spanInfo.getRowByPosition(position));
+        assertEquals(position % SPAN_COUNT == 0, spanInfo.isFirstSpan(position));
+        assertEquals(position % SPAN_COUNT, spanInfo.getCurrentRowRelativeIndex(position));
+        assertEquals(SPAN_COUNT, spanInfo.getCurrentRowRelativeItemCount(position));
+        assertFalse(spanInfo.isLastRow(position, last));
+        assertTrue(spanInfo.isLastRow(last, last));
+        assertTrue(mLookups < (WINDOW + 3) * INTERVAL * 2);
+    }
+
+    @Test
+    public void loadedPageInsideWindow_matchesFullScan() {
+        final int loadedFrom = 1_000_000;
+        final int loadedTo = loadedFrom + INTERVAL;
+        final SpanSizeProvider provider = position -> getSpanSize(position, loadedFrom, loadedTo);
+        final LazySpanInfo spanInfo = new LazySpanInfo(provider, SPAN_COUNT, ITEM_COUNT, INTERVAL, 4, WINDOW);
+        final LazySpanInfo expected = new LazySpanInfo(provider, SPAN_COUNT, ITEM_COUNT, INTERVAL, 4);
+
+        for (int position = loadedFrom - INTERVAL; position < loadedTo + INTERVAL; position++) {
+            assertEquals(expected.isFirstSpan(position), spanInfo.isFirstSpan(position));
+            assertEquals(expected.isLastSpan(position), spanInfo.isLastSpan(position));
+            assertEquals(expected.getRowByPosition(position), spanInfo.getRowByPosition(position));
+            assertEquals(expected.getCurrentRowRelativeIndex(position), spanInfo.getCurrentRowRelativeIndex(position));
+            assertEquals(expected.getCurrentRowRelativeItemCount(position),
+                    spanInfo.getCurrentRowRelativeItemCount(position));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class OffsetCacheTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private final SpacingConfig mConfig = new SpacingConfig.Builder().build();
+    private final int[] mOut = new int[4];
+    private OffsetCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new OffsetCache(8, 4);
+        mCache.ensureVersion(mConfig, 3, SpacingEngine.VERTICAL, false, ITEM_COUNT);
+        for (int position = 0; position < 32; position++) {
+            mCache.put(position, offsetsOf(position));
+        }
+    }
+
+    private static int[] offsetsOf(int position) {
+        return new int[]{position, position + 1, position + 2, position + 3};
+    }
+
+    @Test
+    public void get_countsHitsAndMisses() {
+        assertTrue(mCache.get(5, mOut));
+        assertArrayEquals(offsetsOf(5), mOut);
+        assertFalse(mCache.get(40, mOut));
+
+        assertEquals(1, mCache.getHitCount());
+        assertEquals(1, mCache.getMissCount());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedBlock() {
+        // 访问块 1~3，块 0 最久未使用
+        mCache.get(8, mOut);
+        mCache.get(16, mOut);
+        mCache.get(24, mOut);
+        mCache.put(40, offsetsOf(40));
+
+        assertFalse(mCache.get(0, mOut));
+        assertTrue(mCache.get(8, mOut));
+        assertTrue(mCache.get(40, mOut));
+    }
+
+    @Test
+    public void invalidate_dropsOnlyRange() {
+        mCache.invalidate(6, 4);
+
+        assertTrue(mCache.get(5, mOut));
+        assertFalse(mCache.get(6, mOut));
+        assertFalse(mCache.get(9, mOut));
+        assertTrue(mCache.get(10, mOut));
+    }
+
+    @Test
+    public void invalidateFrom_dropsTailAndTracksItemCount() {
+        mCache.invalidateFrom(12, 5);
+
+        assertTrue(mCache.get(11, mOut));
+        assertFalse(mCache.get(12, mOut));
+        assertFalse(mCache.get(31, mOut));
+
+        // 插入后的 Item 数量与通知一致，不整体失效
+        mCache.ensureVersion(mConfig, 3, SpacingEngine.VERTICAL, false, ITEM_COUNT + 5);
+        assertTrue(mCache.get(11, mOut));
+    }
+
+    @Test
+    public void ensureVersion_changeInvalidatesAll() {
+        mCache.ensureVersion(mConfig, 4, SpacingEngine.VERTICAL, false, ITEM_COUNT);
+        assertFalse(mCache.get(0, mOut));
+
+        setUp();
+        mCache.ensureVersion(new SpacingConfig.Builder().build(), 3, SpacingEngine.VERTICAL, false, ITEM_COUNT);
+        assertFalse(mCache.get(0, mOut));
+
+        setUp();
+        mCache.ensureVersion(mConfig, 3, SpacingEngine.HORIZONTAL, false, ITEM_COUNT);
+        assertFalse(mCache.get(0, mOut));
+
+        setUp();
+        mCache.ensureVersion(mConfig, 3, SpacingEngine.VERTICAL, false, ITEM_COUNT + 1);
+        assertFalse(mCache.get(0, mOut));
+    }
+}
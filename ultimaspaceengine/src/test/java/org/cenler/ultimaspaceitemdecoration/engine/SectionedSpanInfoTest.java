@@ -0,0 +1,126 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SectionedSpanInfoTest {
+
+    private static final int SPAN_COUNT = 3;
+
+    // 标题占满整行，分组边界与连续排布时的换行一致，行号相同
+    private final List<Boolean> mHeaders = new ArrayList<>();
+    private final List<Integer> mSpanSizes = new ArrayList<>();
+    private final SpanSizeProvider mSpanSizeProvider = mSpanSizes::get;
+    private final SectionProvider mSectionProvider = mHeaders::get;
+
+    private void add(int index, boolean header, Random random) {
+        mHeaders.add(index, header);
+        mSpanSizes.add(index, header ? SPAN_COUNT : 1 + random.nextInt(SPAN_COUNT - 1));
+    }
+
+    private void assertSameAsRebuilt(SectionedSpanInfo actual) {
+        final SectionedSpanInfo expected = new SectionedSpanInfo(mSpanSizeProvider, mSectionProvider, SPAN_COUNT,
+                mSpanSizes.size());
+        final SpanInfo continuous = new SpanInfo(mSpanSizeProvider, SPAN_COUNT, mSpanSizes.size());
+        assertEquals(expected.getItemCount(), actual.getItemCount());
+        assertEquals(expected.getSectionCount(), actual.getSectionCount());
+        assertEquals(continuous.getRowCount(), actual.getRowCount());
+        final int last = mSpanSizes.size() - 1;
+        for (int position = 0; position <= last; position++) {
+            assertEquals(continuous.getRowByPosition(position), actual.getRowByPosition(position));
+            assertEquals(continuous.isFirstSpan(position), actual.isFirstSpan(position));
+            assertEquals(expected.isLastSpan(position), actual.isLastSpan(position));
+            assertEquals(expected.getCurrentRowRelativeOffsetIndex(position),
+                    actual.getCurrentRowRelativeOffsetIndex(position));
+            assertEquals(expected.getCurrentRowRelativeItemCount(position),
+                    actual.getCurrentRowRelativeItemCount(position));
+            assertEquals(expected.isFirstRow(position, 0), actual.isFirstRow(position, 0));
+            assertEquals(expected.isLastRow(position, last), actual.isLastRow(position, last));
+        }
+    }
+
+    @Test
+    public void firstAndLastRow_applyPerSection() {
+        final Random random = new Random(1);
+        // 分组：[标题, 1, 1, 1, 1] [标题, 1, 1]
+        add(0, true, random);
+        for (int i = 1; i <= 4; i++) {
+            mHeaders.add(false);
+            mSpanSizes.add(1);
+        }
+        add(5, true, random);
+        mHeaders.add(false);
+        mSpanSizes.add(1);
+        mHeaders.add(false);
+        mSpanSizes.add(1);
+
+        final SectionedSpanInfo spanInfo = new SectionedSpanInfo(mSpanSizeProvider, mSectionProvider, SPAN_COUNT,
+                mSpanSizes.size());
+        assertEquals(2, spanInfo.getSectionCount());
+        assertTrue(spanInfo.isFirstRow(0, 0));
+        assertFalse(spanInfo.isFirstRow(1, 0));
+        assertTrue(spanInfo.isLastRow(4, 7));
+        assertFalse(spanInfo.isLastRow(1, 7));
+        assertTrue(spanInfo.isFirstRow(5, 0));
+        assertTrue(spanInfo.isLastRow(6, 7));
+        assertFalse(spanInfo.isInSameRow(4, 5));
+        // 跳过开头：第一个分组从 position 1 开始
+        assertTrue(spanInfo.isFirstRow(1, 1));
+        assertTrue(spanInfo.isFirstRow(5, 1));
+    }
+
+    @Test
+    public void randomUpdates_matchRebuilt() {
+        final Random random = new Random(21);
+        for (int i = 0; i < 200; i++) {
+            add(i, random.nextInt(8) == 0, random);
+        }
+        final SectionedSpanInfo spanInfo = new SectionedSpanInfo(mSpanSizeProvider, mSectionProvider, SPAN_COUNT,
+                mSpanSizes.size());
+        assertSameAsRebuilt(spanInfo);
+
+        for (int round = 0; round < 300; round++) {
+            final int size = mSpanSizes.size();
+            final int op = random.nextInt(4);
+            if (op == 0 || size < 10) {
+                final int start = random.nextInt(size + 1);
+                final int count = 1 + random.nextInt(6);
+                for (int i = 0; i < count; i++) {
+                    add(start + i, random.nextInt(6) == 0, random);
+                }
+                spanInfo.onItemRangeInserted(mSpanSizeProvider, start, count);
+            } else if (op == 1) {
+                final int start = random.nextInt(size);
+                final int count = Math.min(size - start, 1 + random.nextInt(6));
+                for (int i = 0; i < count; i++) {
+                    mHeaders.remove(start);
+                    mSpanSizes.remove(start);
+                }
+                spanInfo.onItemRangeRemoved(mSpanSizeProvider, start, count);
+            } else if (op == 2) {
+                final int start = random.nextInt(size);
+                final int count = Math.min(size - start, 1 + random.nextInt(4));
+                for (int i = 0; i < count; i++) {
+                    mHeaders.remove(start + i);
+                    mSpanSizes.remove(start + i);
+                    add(start + i, random.nextInt(6) == 0, random);
+                }
+                spanInfo.onItemRangeChanged(mSpanSizeProvider, start, count);
+            } else {
+                final int from = random.nextInt(size);
+                final int to = random.nextInt(size);
+                mHeaders.add(to, mHeaders.remove(from));
+                mSpanSizes.add(to, mSpanSizes.remove(from));
+                spanInfo.onItemRangeMoved(mSpanSizeProvider, from, to, 1);
+            }
+            assertSameAsRebuilt(spanInfo);
+        }
+    }
+}
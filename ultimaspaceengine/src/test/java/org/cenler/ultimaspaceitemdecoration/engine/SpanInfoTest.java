@@ -0,0 +1,260 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class SpanInfoTest {
+
+    @Test
+    public void knownSequence_matchesBaselineSemantics() {
+        // Span 数量 3：[1 1 1] [2] [2] [3] [1 2] [1]
+        final int[] spanSizes = {1, 1, 1, 2, 2, 3, 1, 2, 1};
+        final SpanInfo spanInfo = new SpanInfo(position -> spanSizes[position], 3, spanSizes.length);
+
+        // 每行：row, relativeIndex, offsetIndex, rowItemCount, rowSumSpanCount, firstSpan, lastSpan
+        final int[][] expected = {
+                {0, 0, 0, 3, 3, 1, 0},
+                {0, 1, 1, 3, 3, 0, 0},
+                // 恰好填满一行才是 lastSpan
+                {0, 2, 2, 3, 3, 0, 1},
+                // 放不下下一个 Item 而换行时不标记 lastSpan，行 Span 总和为实际占用
+                {1, 0, 1, 1, 2, 1, 0},
+                // 换行的 Item 行内偏移下标沿用上一行末尾的 (total - 1) % spanCount
+                {2, 0, 1, 1, 2, 1, 0},
+                // 换行后恰好占满的 Item 同样不标记 lastSpan，也不立即换行
+                {3, 0, 1, 1, 3, 1, 0},
+                {4, 0, 2, 2, 3, 1, 0},
+                {4, 1, 2, 2, 3, 0, 1},
+                {5, 0, 0, 1, 1, 1, 0},
+        };
+        for (int position = 0; position < spanSizes.length; position++) {
+            final int[] row = expected[position];
+            final String message = "position " + position;
+            assertEquals(message, row[0], spanInfo.getRowByPosition(position));
+            assertEquals(message, row[1], spanInfo.getCurrentRowRelativeIndex(position));
+            assertEquals(message, row[2], spanInfo.getCurrentRowRelativeOffsetIndex(position));
+            assertEquals(message, row[3], spanInfo.getCurrentRowRelativeItemCount(position));
+            assertEquals(message, row[4], spanInfo.getCurrentRowSumSpanCount(position));
+            assertEquals(message, row[5] == 1, spanInfo.isFirstSpan(position));
+            assertEquals(message, row[6] == 1, spanInfo.isLastSpan(position));
+            assertEquals(message, true, spanInfo.isInRow(position, row[0]));
+        }
+        assertEquals(true, spanInfo.isInSameRow(6, 7));
+        assertEquals(false, spanInfo.isInSameRow(3, 4));
+    }
+
+    @Test
+    public void randomSequences_matchBaselineSemantics() {
+        final Random random = new Random(1);
+        for (int spanCount = 1; spanCount <= 6; spanCount++) {
+            for (int round = 0; round < 20; round++) {
+                final int[] spanSizes = new int[random.nextInt(200)];
+                for (int i = 0; i < spanSizes.length; i++) {
+                    spanSizes[i] = 1 + random.nextInt(spanCount);
+                }
+                final SpanInfo spanInfo = new SpanInfo(position -> spanSizes[position], spanCount, spanSizes.length);
+                final BaselineSpanInfo baseline = new BaselineSpanInfo(spanSizes, spanCount);
+                for (int position = 0; position < spanSizes.length; position++) {
+                    final String message = "spanCount " + spanCount + " position " + position;
+                    assertEquals(message, baseline.isFirstSpan(position), spanInfo.isFirstSpan(position));
+                    assertEquals(message, baseline.isLastSpan(position), spanInfo.isLastSpan(position));
+                    assertEquals(message, baseline.getRowByPosition(position), spanInfo.getRowByPosition(position));
+                    assertEquals(message, baseline.getCurrentRowRelativeIndex(position),
+                            spanInfo.getCurrentRowRelativeIndex(position));
+                    assertEquals(message, baseline.getCurrentRowRelativeOffsetIndex(position),
+                            spanInfo.getCurrentRowRelativeOffsetIndex(position));
+                    assertEquals(message, baseline.getCurrentRowRelativeItemCount(position),
+                            spanInfo.getCurrentRowRelativeItemCount(position));
+                    assertEquals(message, baseline.getCurrentRowSumSpanCount(position),
+                            spanInfo.getCurrentRowSumSpanCount(position));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomUpdates_matchFullRebuild() {
+        final Random random = new Random(2);
+        for (int spanCount : new int[]{1, 2, 3, 4, 6}) {
+            final List<Integer> spanSizes = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                spanSizes.add(randomSpanSize(random, spanCount));
+            }
+            final SpanSizeProvider provider = spanSizes::get;
+            final SpanInfo spanInfo = new SpanInfo(provider, spanCount, spanSizes.size());
+            for (int step = 0; step < 300; step++) {
+                final int size = spanSizes.size();
+                // 一半概率落在开头或结尾
+                final int edge = random.nextInt(4);
+                final int itemCount = 1 + random.nextInt(5);
+                final String action;
+                switch (random.nextInt(4)) {
+                    case 0: {
+                        final int start = edge == 0 ? 0 : edge == 1 ? size : random.nextInt(size + 1);
+                        for (int i = 0; i < itemCount; i++) {
+                            spanSizes.add(start, randomSpanSize(random, spanCount));
+                        }
+                        spanInfo.onItemRangeInserted(provider, start, itemCount);
+                        action = "insert " + start + " x" + itemCount;
+                        break;
+                    }
+                    case 1: {
+                        if (size == 0) {
+                            continue;
+                        }
+                        final int count = Math.min(itemCount, size);
+                        final int start = edge == 0 ? 0 : edge == 1 ? size - count : random.nextInt(size - count + 1);
+                        spanSizes.subList(start, start + count).clear();
+                        spanInfo.onItemRangeRemoved(provider, start, count);
+                        action = "remove " + start + " x" + count;
+                        break;
+                    }
+                    case 2: {
+                        if (size == 0) {
+                            continue;
+                        }
+                        final int count = Math.min(itemCount, size);
+                        final int start = edge == 0 ? 0 : edge == 1 ? size - count : random.nextInt(size - count + 1);
+                        for (int i = start; i < start + count; i++) {
+                            spanSizes.set(i, randomSpanSize(random, spanCount));
+                        }
+                        spanInfo.onItemRangeChanged(provider, start, count);
+                        action = "change " + start + " x" + count;
+                        break;
+                    }
+                    default: {
+                        if (size < 2) {
+                            continue;
+                        }
+                        // 与 RecyclerView 一致：从 from 移除 count 个，再插入到移除后的 to
+                        final int count = Math.min(itemCount, size - 1);
+                        final int from = edge == 0 ? 0 : random.nextInt(size - count + 1);
+                        final int to = edge == 1 ? size - count : random.nextInt(size - count + 1);
+                        final List<Integer> moved = new ArrayList<>(spanSizes.subList(from, from + count));
+                        spanSizes.subList(from, from + count).clear();
+                        spanSizes.addAll(to, moved);
+                        spanInfo.onItemRangeMoved(provider, from, to, count);
+                        action = "move " + from + " -> " + to + " x" + count;
+                        break;
+                    }
+                }
+                assertSameAsRebuild(spanInfo, new SpanInfo(provider, spanCount, spanSizes.size()),
+                        "spanCount " + spanCount + " step " + step + " " + action);
+            }
+        }
+    }
+
+    /**
+     * @return 四分之一概率占满整行
+     */
+    private static int randomSpanSize(Random random, int spanCount) {
+        return random.nextInt(4) == 0 ? spanCount : 1 + random.nextInt(spanCount);
+    }
+
+    private static void assertSameAsRebuild(SpanInfo actual, SpanInfo expected, String action) {
+        assertEquals(action, expected.getItemCount(), actual.getItemCount());
+        assertEquals(action, expected.getRowCount(), actual.getRowCount());
+        final int last = expected.getItemCount() - 1;
+        for (int position = 0; position <= last; position++) {
+            final String message = action + ", position " + position;
+            assertEquals(message, expected.isFirstSpan(position), actual.isFirstSpan(position));
+            assertEquals(message, expected.isLastSpan(position), actual.isLastSpan(position));
+            assertEquals(message, expected.getRowByPosition(position), actual.getRowByPosition(position));
+            assertEquals(message, expected.getCurrentRowRelativeIndex(position),
+                    actual.getCurrentRowRelativeIndex(position));
+            assertEquals(message, expected.getCurrentRowRelativeOffsetIndex(position),
+                    actual.getCurrentRowRelativeOffsetIndex(position));
+            assertEquals(message, expected.getCurrentRowRelativeItemCount(position),
+                    actual.getCurrentRowRelativeItemCount(position));
+            assertEquals(message, expected.getCurrentRowSumSpanCount(position),
+                    actual.getCurrentRowSumSpanCount(position));
+            assertEquals(message, expected.isInSameRow(position, last), actual.isInSameRow(position, last));
+        }
+    }
+
+    /**
+     * 改为按列存储之前的实现（按 Map 保存），作为语义基准
+     */
+    private static final class BaselineSpanInfo {
+        private final List<Integer> firstSpanPositions = new ArrayList<>();
+        private final List<Integer> lastSpanPositions = new ArrayList<>();
+        private final Map<Integer, Integer> positionRowMapper = new LinkedHashMap<>();
+        private final Map<Integer, List<Integer>> rowPositionMapper = new LinkedHashMap<>();
+        private final Map<Integer, Integer> rowSumSpanCount = new LinkedHashMap<>();
+        private final Map<Integer, Integer> rowOffsetIndex = new LinkedHashMap<>();
+
+        BaselineSpanInfo(int[] spanSizes, int spanCount) {
+            int row = 0;
+            int resetWrapTotalSpanSize = 0;
+            for (int i = 0; i < spanSizes.length; i++) {
+                final int innerSpanSize = spanSizes[i];
+                resetWrapTotalSpanSize += innerSpanSize;
+
+                if (resetWrapTotalSpanSize == spanCount) {
+                    addToRow(row, i);
+                    lastSpanPositions.add(i);
+                    rowSumSpanCount.put(row, resetWrapTotalSpanSize);
+                    rowOffsetIndex.put(i, (resetWrapTotalSpanSize - 1) % spanCount);
+                    resetWrapTotalSpanSize = 0;
+                    row++;
+                } else if (resetWrapTotalSpanSize > spanCount) {
+                    rowSumSpanCount.put(row, resetWrapTotalSpanSize - innerSpanSize);
+                    addToRow(++row, i);
+                    rowOffsetIndex.put(i, (resetWrapTotalSpanSize - innerSpanSize - 1) % spanCount);
+                    resetWrapTotalSpanSize = innerSpanSize;
+                    rowSumSpanCount.put(row, resetWrapTotalSpanSize);
+                } else {
+                    addToRow(row, i);
+                    rowSumSpanCount.put(row, resetWrapTotalSpanSize);
+                    rowOffsetIndex.put(i, (resetWrapTotalSpanSize - 1) % spanCount);
+                }
+            }
+        }
+
+        private void addToRow(int row, int position) {
+            List<Integer> positionList = rowPositionMapper.get(row);
+            if (positionList == null) {
+                positionList = new ArrayList<>();
+                rowPositionMapper.put(row, positionList);
+                firstSpanPositions.add(position);
+            }
+            positionList.add(position);
+            positionRowMapper.put(position, row);
+        }
+
+        boolean isFirstSpan(int position) {
+            return firstSpanPositions.contains(position);
+        }
+
+        boolean isLastSpan(int position) {
+            return lastSpanPositions.contains(position);
+        }
+
+        int getRowByPosition(int position) {
+            return positionRowMapper.get(position);
+        }
+
+        int getCurrentRowRelativeIndex(int position) {
+            return rowPositionMapper.get(getRowByPosition(position)).indexOf(position);
+        }
+
+        int getCurrentRowRelativeOffsetIndex(int position) {
+            return rowOffsetIndex.get(position);
+        }
+
+        int getCurrentRowRelativeItemCount(int position) {
+            return rowPositionMapper.get(getRowByPosition(position)).size();
+        }
+
+        int getCurrentRowSumSpanCount(int position) {
+            return rowSumSpanCount.get(getRowByPosition(position));
+        }
+    }
+}
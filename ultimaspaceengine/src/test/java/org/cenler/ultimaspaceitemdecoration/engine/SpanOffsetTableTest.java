@@ -0,0 +1,56 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SpanOffsetTableTest {
+
+    @Test
+    public void remainder_spreadEvenly_adjacentSpansSumToSpace() {
+        // 总间距 5 * 10 + 2 * 7 = 64，不能被 6 整除
+        final SpanOffsetTable table = new SpanOffsetTable(6, 10, 7, 7);
+        assertEquals(7, table.getStart(0));
+        assertEquals(7, table.getEnd(5));
+        int total = 0;
+        for (int span = 0; span < 6; span++) {
+            final int each = table.getStart(span) + table.getEnd(span);
+            assertTrue(each == 10 || each == 11);
+            total += each;
+            if (span > 0) {
+                assertEquals(10, table.getEnd(span - 1) + table.getStart(span));
+            }
+        }
+        assertEquals(64, total);
+    }
+
+    @Test
+    public void gridOffsets_columnsShareEqualSpace() {
+        final SpacingEngine engine = new SpacingEngine(new SpacingConfig.Builder()
+                .setHorizontalSpace(10)
+                .setHorizontalOuter(true)
+                .build());
+        final int spanCount = 3;
+        final SpanIndex spanIndex = new SpanInfo(position -> position == 3 ? 2 : 1, spanCount, 6);
+        final int[] out = new int[4];
+
+        // 第一行 3 个 Span，每个 Span 占用 (4 * 10) / 3 的间距，余数按 Span 分摊
+        final int[] each = new int[spanCount];
+        for (int position = 0; position < spanCount; position++) {
+            engine.gridOffsets(out, spanIndex, position, 1, spanCount, 6, SpacingEngine.VERTICAL, false);
+            each[position] = out[SpacingEngine.LEFT] + out[SpacingEngine.RIGHT];
+        }
+        assertEquals(40, each[0] + each[1] + each[2]);
+        assertTrue(Math.abs(each[0] - each[2]) <= 1 && Math.abs(each[0] - each[1]) <= 1);
+
+        // 第二行：占 2 个 Span 的 Item 首偏移取第 0 个 Span，尾偏移取第 1 个 Span
+        engine.gridOffsets(out, spanIndex, 3, 2, spanCount, 6, SpacingEngine.VERTICAL, false);
+        final SpanOffsetTable table = new SpanOffsetTable(spanCount, 10, 10, 10);
+        assertEquals(table.getStart(0), out[SpacingEngine.LEFT]);
+        assertEquals(table.getEnd(1), out[SpacingEngine.RIGHT]);
+        engine.gridOffsets(out, spanIndex, 4, 1, spanCount, 6, SpacingEngine.VERTICAL, false);
+        assertEquals(table.getStart(2), out[SpacingEngine.LEFT]);
+        assertEquals(table.getEnd(2), out[SpacingEngine.RIGHT]);
+    }
+}
@@ -0,0 +1,85 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StaggeredGuttersTest {
+
+    private static final int SPAN_COUNT = 2;
+    private static final int ITEM_COUNT = 100;
+
+    private final SpacingEngine mEngine = new SpacingEngine(new SpacingConfig.Builder()
+            .setVerticalSpace(10)
+            .setHorizontalSpace(20)
+            .build());
+    private final StaggeredGutters mGutters = new StaggeredGutters();
+    private final List<float[]> mSegments = new ArrayList<>();
+    private final DividerSink mSink = (startX, startY, stopX, stopY) ->
+            mSegments.add(new float[]{startX, startY, stopX, stopY});
+
+    /**
+     * 纵向两列：左列 [0, 100]，右列 [120, 200]
+     */
+    private void item(int position, int spanIndex, boolean isFullSpan, int top, int bottom) {
+        final int left = isFullSpan || spanIndex == 0 ? 0 : 120;
+        final int right = isFullSpan || spanIndex == 1 ? 200 : 100;
+        mEngine.staggeredDividers(mSink, mGutters, SpacingEngine.VERTICAL, position, ITEM_COUNT,
+                spanIndex, isFullSpan, SPAN_COUNT, left, top, right, bottom);
+    }
+
+    private List<float[]> flushGutters() {
+        mSegments.clear();
+        mGutters.flush(mSink, SpacingEngine.VERTICAL);
+        return new ArrayList<>(mSegments);
+    }
+
+    @Test
+    public void columnItems_mergeIntoSingleGutter() {
+        item(0, 0, false, 0, 50);
+        item(1, 1, false, 0, 80);
+        item(2, 0, false, 60, 150);
+        item(3, 1, false, 90, 120);
+        item(4, 1, false, 130, 200);
+
+        // 每个 Item 一条行分割线
+        assertEquals(5, mSegments.size());
+        assertSegment(new float[]{0, 55, 110, 55}, mSegments.get(0));
+        assertSegment(new float[]{110, 85, 200, 85}, mSegments.get(1));
+
+        final List<float[]> gutters = flushGutters();
+        assertEquals(1, gutters.size());
+        assertSegment(new float[]{110, -5, 110, 205}, gutters.get(0));
+    }
+
+    @Test
+    public void fullSpanItem_breaksGutter() {
+        item(0, 0, false, 0, 50);
+        item(1, 1, false, 0, 50);
+        item(2, 0, true, 60, 100);
+        item(3, 0, false, 110, 150);
+        item(4, 1, false, 110, 170);
+
+        final List<float[]> gutters = flushGutters();
+        assertEquals(2, gutters.size());
+        assertSegment(new float[]{110, -5, 110, 55}, gutters.get(0));
+        assertSegment(new float[]{110, 105, 110, 175}, gutters.get(1));
+    }
+
+    @Test
+    public void flush_clearsForNextFrame() {
+        item(0, 0, false, 0, 50);
+        flushGutters();
+
+        assertEquals(0, flushGutters().size());
+    }
+
+    private static void assertSegment(float[] expected, float[] actual) {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], actual[i], 0f);
+        }
+    }
+}
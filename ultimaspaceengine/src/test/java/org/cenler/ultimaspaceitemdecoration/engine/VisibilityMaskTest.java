@@ -0,0 +1,50 @@
+package org.cenler.ultimaspaceitemdecoration.engine;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+public class VisibilityMaskTest {
+
+    private final VisibilityMask mMask = new VisibilityMask();
+
+    @Test
+    public void filledBitsAndSkipRules_foldIntoMask() {
+        final BitSet hidden = mMask.reset(0, 10, 10);
+        hidden.set(4);
+        mMask.hideSkipped(2, 1);
+
+        assertTrue(mMask.isHidden(0));
+        assertTrue(mMask.isHidden(1));
+        assertFalse(mMask.isHidden(2));
+        assertTrue(mMask.isHidden(4));
+        assertFalse(mMask.isHidden(8));
+        assertTrue(mMask.isHidden(9));
+    }
+
+    @Test
+    public void bitsAreRelativeToWindowStart() {
+        final BitSet hidden = mMask.reset(100, 50, 1000);
+        hidden.set(0);
+        mMask.hideSkipped(2, 1);
+
+        assertTrue(mMask.isHidden(100));
+        assertFalse(mMask.isHidden(101));
+        assertTrue(mMask.covers(149, 1000));
+        assertFalse(mMask.covers(150, 1000));
+        assertFalse(mMask.covers(99, 1000));
+    }
+
+    @Test
+    public void itemCountChangeOrInvalidate_requiresRefill() {
+        mMask.reset(0, 10, 10);
+
+        assertFalse(mMask.covers(5, 11));
+        assertTrue(mMask.covers(5, 10));
+        mMask.invalidate();
+        assertFalse(mMask.covers(5, 10));
+    }
+}
@@ -0,0 +1,110 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.view.View;
+
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * ConcatAdapter 子 Adapter 规则：前一个子 Adapter 增删 Item 后，之后按需计算的 Span 信息仍读取自身的 Item
+ */
+@RunWith(AndroidJUnit4.class)
+public class ConcatAdapterRuleTest {
+
+    private static final int SPAN_COUNT = 2;
+
+    private final Context mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void firstAdapterChangesSize_secondAdapterOffsetsMatchFreshDecoration() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // 第一个子 Adapter 始终为整行，第二个子 Adapter 从新行开始
+            final TestAdapter first = new TestAdapter(4, 0);
+            final TestAdapter second = new TestAdapter(3000, 3);
+            final ConcatAdapter concatAdapter = new ConcatAdapter(first, second);
+
+            final RecyclerView recyclerView = new RecyclerView(mContext);
+            final GridLayoutManager layoutManager = new GridLayoutManager(mContext, SPAN_COUNT);
+            layoutManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
+                @Override
+                public int getSpanSize(int position) {
+                    final int firstCount = first.getItemCount();
+                    return position < firstCount ? 1 : second.mSpanSizes.get(position - firstCount);
+                }
+            });
+            recyclerView.setLayoutManager(layoutManager);
+            recyclerView.setAdapter(concatAdapter);
+            final UltimaSpaceItemDecoration decoration = newDecoration(second);
+            recyclerView.addItemDecoration(decoration);
+            layout(recyclerView);
+
+            // 第一个子 Adapter 增加、删除整行
+            first.add(4, 1, 0);
+            first.add(5, 1, 0);
+            first.notifyItemRangeInserted(4, 2);
+            layout(recyclerView);
+            first.remove(0);
+            first.remove(0);
+            first.remove(0);
+            first.remove(0);
+            first.notifyItemRangeRemoved(0, 4);
+            layout(recyclerView);
+
+            // 滑动到远处，按需计算新的 Span 块
+            layoutManager.scrollToPositionWithOffset(2500, 0);
+            layout(recyclerView);
+
+            assertMatchesFreshDecoration(recyclerView, decoration, second);
+        });
+    }
+
+    private UltimaSpaceItemDecoration newDecoration(RecyclerView.Adapter<?> second) {
+        return new UltimaSpaceItemDecoration.DividerBuilder(mContext)
+                .setHorizontalSpace(8)
+                .setVerticalSpace(8)
+                .setPagedSpanIndex(8, 2, 1)
+                .setAdapterRule(second, new UltimaSpaceItemDecoration.DividerBuilder(mContext)
+                        .setHorizontalSpace(12)
+                        .setVerticalSpace(4)
+                        .setHorizontalOuter(true))
+                .build();
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 400, 800);
+    }
+
+    private void assertMatchesFreshDecoration(RecyclerView recyclerView, UltimaSpaceItemDecoration decoration,
+                                              RecyclerView.Adapter<?> second) {
+        final UltimaSpaceItemDecoration fresh = newDecoration(second);
+        final RecyclerView.State state = new RecyclerView.State();
+        final Rect actual = new Rect();
+        final Rect expected = new Rect();
+        int checked = 0;
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            final View child = recyclerView.getChildAt(i);
+            if (recyclerView.getChildViewHolder(child).getBindingAdapter() != second) {
+                continue;
+            }
+            decoration.getItemOffsets(actual, child, recyclerView, state);
+            fresh.getItemOffsets(expected, child, recyclerView, state);
+            assertArrayEquals(new int[]{expected.left, expected.top, expected.right, expected.bottom},
+                    new int[]{actual.left, actual.top, actual.right, actual.bottom});
+            checked++;
+        }
+        assertTrue(checked > 0);
+    }
+}
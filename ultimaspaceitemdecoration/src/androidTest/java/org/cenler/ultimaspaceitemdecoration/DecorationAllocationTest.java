@@ -0,0 +1,104 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Debug;
+import android.view.View;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * 稳态帧内真实的 getItemOffsets 与 onDraw（线性、网格、瀑布流布局）不分配内存
+ */
+@RunWith(AndroidJUnit4.class)
+public class DecorationAllocationTest {
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 800;
+    private static final int FRAMES = 200;
+
+    private final Context mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void linearLayout_steadyStateFrames_allocatesNothing() {
+        assertSteadyStateAllocatesNothing(new LinearLayoutManager(mContext));
+    }
+
+    @Test
+    public void gridLayout_steadyStateFrames_allocatesNothing() {
+        final TestAdapter adapter = new TestAdapter(500, 3);
+        final GridLayoutManager layoutManager = new GridLayoutManager(mContext, 3);
+        layoutManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
+            @Override
+            public int getSpanSize(int position) {
+                return adapter.mSpanSizes.get(position);
+            }
+        });
+        assertSteadyStateAllocatesNothing(layoutManager, adapter);
+    }
+
+    @Test
+    public void staggeredGridLayout_steadyStateFrames_allocatesNothing() {
+        assertSteadyStateAllocatesNothing(new StaggeredGridLayoutManager(3, StaggeredGridLayoutManager.VERTICAL));
+    }
+
+    private void assertSteadyStateAllocatesNothing(RecyclerView.LayoutManager layoutManager) {
+        assertSteadyStateAllocatesNothing(layoutManager, new TestAdapter(500, 0));
+    }
+
+    private void assertSteadyStateAllocatesNothing(RecyclerView.LayoutManager layoutManager, TestAdapter adapter) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            final UltimaSpaceItemDecoration decoration = new UltimaSpaceItemDecoration.DividerBuilder(mContext)
+                    .setHorizontalSpace(8)
+                    .setVerticalSpace(8)
+                    .setDividerSize(1)
+                    .setColorRes(android.R.color.black)
+                    .build();
+            final RecyclerView recyclerView = new RecyclerView(mContext);
+            recyclerView.setLayoutManager(layoutManager);
+            recyclerView.setAdapter(adapter);
+            recyclerView.addItemDecoration(decoration);
+            recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            recyclerView.layout(0, 0, WIDTH, HEIGHT);
+            assertTrue(recyclerView.getChildCount() > 0);
+
+            final Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+            final RecyclerView.State state = new RecyclerView.State();
+            final Rect outRect = new Rect();
+            final Runnable frame = () -> {
+                for (int i = 0; i < recyclerView.getChildCount(); i++) {
+                    decoration.getItemOffsets(outRect, recyclerView.getChildAt(i), recyclerView, state);
+                }
+                decoration.onDraw(canvas, recyclerView, state);
+            };
+            // 预热：状态、缓存与数组扩容只发生在首帧
+            for (int i = 0; i < FRAMES; i++) {
+                frame.run();
+            }
+
+            Debug.resetThreadAllocCount();
+            Debug.resetThreadAllocSize();
+            Debug.startAllocCounting();
+            for (int i = 0; i < FRAMES; i++) {
+                frame.run();
+            }
+            Debug.stopAllocCounting();
+            assertEquals(0, Debug.getThreadAllocSize());
+            assertEquals(0, Debug.getThreadAllocCount());
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * 平行线段在垂直于线段方向上的像素一致（渐变相位相同）
+ */
+@RunWith(AndroidJUnit4.class)
+public class DividerShaderTest {
+
+    private static final int SIZE = 64;
+    private static final int DIVIDER_SIZE = 6;
+    // 两条线段的间隔不是分割线尺寸的整数倍，按画布平铺时相位不同
+    private static final int FIRST = 13;
+    private static final int SECOND = 40;
+
+    private final Context mContext = InstrumentationRegistry.getInstrumentation().getContext();
+
+    @Test
+    public void shaderPath_parallelHorizontalSegments_samePixels() {
+        assertHorizontalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_layer);
+    }
+
+    @Test
+    public void shaderPath_parallelVerticalSegments_samePixels() {
+        assertVerticalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_layer);
+    }
+
+    @Test
+    public void shaderPath_gradientShape_parallelHorizontalSegments_samePixels() {
+        assertHorizontalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_gradient);
+    }
+
+    @Test
+    public void shaderPath_gradientShape_parallelVerticalSegments_samePixels() {
+        assertVerticalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_gradient);
+    }
+
+    @Test
+    public void ninePatchPath_parallelHorizontalSegments_samePixels() {
+        assertHorizontalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_nine);
+    }
+
+    @Test
+    public void ninePatchPath_parallelVerticalSegments_samePixels() {
+        assertVerticalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_nine);
+    }
+
+    @Test
+    public void drawablePath_roundedShape_parallelHorizontalSegments_samePixels() {
+        assertHorizontalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_rounded);
+    }
+
+    @Test
+    public void drawablePath_roundedShape_parallelVerticalSegments_samePixels() {
+        assertVerticalSegmentsMatch(org.cenler.ultimaspaceitemdecoration.test.R.drawable.test_divider_rounded);
+    }
+
+    private void assertHorizontalSegmentsMatch(int drawableRes) {
+        final Bitmap bitmap = render(drawableRes, batch -> {
+            batch.add(4, FIRST, SIZE - 4, FIRST);
+            batch.add(4, SECOND, SIZE - 4, SECOND);
+        });
+        final int half = DIVIDER_SIZE / 2;
+        for (int x = 8; x < SIZE - 8; x += 12) {
+            for (int i = 0; i < DIVIDER_SIZE; i++) {
+                assertEquals(bitmap.getPixel(x, FIRST - half + i), bitmap.getPixel(x, SECOND - half + i));
+            }
+        }
+        // 渐变垂直于线段方向，线段两侧颜色不同
+        assertNotEquals(bitmap.getPixel(SIZE / 2, FIRST - half), bitmap.getPixel(SIZE / 2, FIRST + half - 1));
+        assertEquals(Color.TRANSPARENT, bitmap.getPixel(SIZE / 2, FIRST + half + 1));
+    }
+
+    private void assertVerticalSegmentsMatch(int drawableRes) {
+        final Bitmap bitmap = render(drawableRes, batch -> {
+            batch.add(FIRST, 4, FIRST, SIZE - 4);
+            batch.add(SECOND, 4, SECOND, SIZE - 4);
+        });
+        final int half = DIVIDER_SIZE / 2;
+        for (int y = 8; y < SIZE - 8; y += 12) {
+            for (int i = 0; i < DIVIDER_SIZE; i++) {
+                assertEquals(bitmap.getPixel(FIRST - half + i, y), bitmap.getPixel(SECOND - half + i, y));
+            }
+        }
+        // 与逐条 setBounds 一致：渐变沿纵向线段拉伸
+        assertNotEquals(bitmap.getPixel(FIRST, 6), bitmap.getPixel(FIRST, SIZE - 6));
+    }
+
+    private interface Segments {
+        void add(DividerBatch batch);
+    }
+
+    private Bitmap render(int drawableRes, Segments segments) {
+        final Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.BLACK);
+        paint.setStrokeWidth(DIVIDER_SIZE);
+        paint.setFilterBitmap(true);
+
+        final DividerShader shader = new DividerShader(mContext, drawableRes);
+        shader.apply(mContext.getResources().getDisplayMetrics().densityDpi, DIVIDER_SIZE);
+        final DividerBatch batch = new DividerBatch();
+        segments.add(batch);
+        batch.draw(new Canvas(bitmap), paint, shader);
+        return bitmap;
+    }
+}
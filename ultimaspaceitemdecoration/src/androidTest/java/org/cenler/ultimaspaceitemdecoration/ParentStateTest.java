@@ -0,0 +1,156 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.view.View;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * 同一实例用于多个 RecycleView、detach 后重新 attach、release 后的状态
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParentStateTest {
+
+    private final Context mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    // 每次 onDraw 上报一次的 Span 信息重建次数
+    private long mRebuildCount;
+
+    @Test
+    public void sharedDecoration_eachParentUsesOwnSpanCount() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            final UltimaSpaceItemDecoration decoration = newDecoration();
+            final RecyclerView first = newRecyclerView(new TestAdapter(50, 3), 2, decoration);
+            final RecyclerView second = newRecyclerView(new TestAdapter(50, 4), 3, decoration);
+
+            assertMatchesFreshDecoration(first, decoration);
+            assertMatchesFreshDecoration(second, decoration);
+
+            // 释放其中一个后，另一个的状态不受影响
+            first.removeItemDecoration(decoration);
+            decoration.release(first);
+            assertNull(first.getTag(R.id.ultima_space_item_decoration_state));
+            assertNotNull(second.getTag(R.id.ultima_space_item_decoration_state));
+            assertMatchesFreshDecoration(second, decoration);
+        });
+    }
+
+    @Test
+    public void reattach_sameAdapterAndItemCount_keepsSpanIndex() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            final UltimaSpaceItemDecoration decoration = newDecoration();
+            final TestAdapter adapter = new TestAdapter(200, 3);
+            final RecyclerView recyclerView = newRecyclerView(adapter, 2, decoration);
+            assertEquals(1, drawAndCountRebuilds(recyclerView, decoration));
+
+            detachAndReattach(recyclerView);
+            assertEquals(0, drawAndCountRebuilds(recyclerView, decoration));
+            assertMatchesFreshDecoration(recyclerView, decoration);
+        });
+    }
+
+    @Test
+    public void reattach_itemCountChangedWhileDetached_rebuildsSpanIndex() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            final UltimaSpaceItemDecoration decoration = newDecoration();
+            final TestAdapter adapter = new TestAdapter(200, 3);
+            final RecyclerView recyclerView = newRecyclerView(adapter, 2, decoration);
+            assertEquals(1, drawAndCountRebuilds(recyclerView, decoration));
+
+            final View.OnAttachStateChangeListener listener = stateListener(recyclerView);
+            listener.onViewDetachedFromWindow(recyclerView);
+            // detach 期间的通知不会送达
+            adapter.add(0, 2, 0);
+            adapter.notifyItemRangeInserted(0, 1);
+            listener.onViewAttachedToWindow(recyclerView);
+            assertEquals(1, drawAndCountRebuilds(recyclerView, decoration));
+            assertMatchesFreshDecoration(recyclerView, decoration);
+        });
+    }
+
+    private UltimaSpaceItemDecoration newDecoration() {
+        return new UltimaSpaceItemDecoration.DividerBuilder(mContext)
+                .setHorizontalSpace(10)
+                .setVerticalSpace(6)
+                .setOffsetCache(true)
+                .setMetricsListener(metrics -> mRebuildCount += metrics.getSpanIndexRebuildCount(), 0)
+                .build();
+    }
+
+    private RecyclerView newRecyclerView(TestAdapter adapter, int spanCount, UltimaSpaceItemDecoration decoration) {
+        final RecyclerView recyclerView = new RecyclerView(mContext);
+        final GridLayoutManager layoutManager = new GridLayoutManager(mContext, spanCount);
+        layoutManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
+            @Override
+            public int getSpanSize(int position) {
+                return Math.min(spanCount, adapter.mSpanSizes.get(position));
+            }
+        });
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addItemDecoration(decoration);
+        layout(recyclerView);
+        return recyclerView;
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 400, 800);
+    }
+
+    private static View.OnAttachStateChangeListener stateListener(RecyclerView recyclerView) {
+        return (View.OnAttachStateChangeListener) recyclerView.getTag(R.id.ultima_space_item_decoration_state);
+    }
+
+    private static void detachAndReattach(RecyclerView recyclerView) {
+        final View.OnAttachStateChangeListener listener = stateListener(recyclerView);
+        listener.onViewDetachedFromWindow(recyclerView);
+        listener.onViewAttachedToWindow(recyclerView);
+    }
+
+    /**
+     * @return 重新布局并绘制一帧期间 Span 信息的重建次数
+     */
+    private long drawAndCountRebuilds(RecyclerView recyclerView, UltimaSpaceItemDecoration decoration) {
+        final long before = mRebuildCount;
+        layout(recyclerView);
+        final Rect outRect = new Rect();
+        final RecyclerView.State state = new RecyclerView.State();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            decoration.getItemOffsets(outRect, recyclerView.getChildAt(i), recyclerView, state);
+        }
+        final Bitmap bitmap = Bitmap.createBitmap(400, 800, Bitmap.Config.ARGB_8888);
+        decoration.onDraw(new Canvas(bitmap), recyclerView, state);
+        return mRebuildCount - before;
+    }
+
+    private void assertMatchesFreshDecoration(RecyclerView recyclerView, UltimaSpaceItemDecoration decoration) {
+        final UltimaSpaceItemDecoration fresh = newDecoration();
+        final RecyclerView.State state = new RecyclerView.State();
+        final Rect actual = new Rect();
+        final Rect expected = new Rect();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            final View child = recyclerView.getChildAt(i);
+            decoration.getItemOffsets(actual, child, recyclerView, state);
+            fresh.getItemOffsets(expected, child, recyclerView, state);
+            assertArrayEquals(new int[]{expected.left, expected.top, expected.right, expected.bottom},
+                    new int[]{actual.left, actual.top, actual.right, actual.bottom});
+        }
+        fresh.release(recyclerView);
+    }
+}
@@ -0,0 +1,65 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试用 Adapter：固定高度的空白 Item，每个 Item 记录 Span 大小及 ViewType
+ */
+final class TestAdapter extends RecyclerView.Adapter<TestAdapter.Holder> {
+
+    static final int ITEM_SIZE = 40;
+
+    final List<Integer> mSpanSizes = new ArrayList<>();
+    final List<Integer> mViewTypes = new ArrayList<>();
+
+    TestAdapter(int itemCount, int spanPattern) {
+        for (int i = 0; i < itemCount; i++) {
+            add(i, spanPattern > 0 && i % spanPattern == 0 ? 2 : 1, i % 3);
+        }
+    }
+
+    void add(int position, int spanSize, int viewType) {
+        mSpanSizes.add(position, spanSize);
+        mViewTypes.add(position, viewType);
+    }
+
+    void remove(int position) {
+        mSpanSizes.remove(position);
+        mViewTypes.remove(position);
+    }
+
+    @NonNull
+    @Override
+    public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        final View view = new View(parent.getContext());
+        view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_SIZE));
+        return new Holder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull Holder holder, int position) {
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mViewTypes.get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return mSpanSizes.size();
+    }
+
+    static final class Holder extends RecyclerView.ViewHolder {
+        Holder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
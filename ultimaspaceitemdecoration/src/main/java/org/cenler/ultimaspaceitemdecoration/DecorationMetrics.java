@@ -0,0 +1,153 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+/**
+ * Description: 一个上报周期内的性能统计快照，时间单位均为纳秒
+ *
+ * @see UltimaSpaceItemDecoration.MetricsListener
+ */
+public final class DecorationMetrics {
+
+    private final long mIntervalNanos;
+    private final long mFrameCount;
+    private final long mDrawTotalNanos;
+    private final long mDrawMaxNanos;
+    private final long mSegmentCount;
+    private final long mCulledSegmentCount;
+    private final long mItemOffsetsCount;
+    private final long mItemOffsetsTotalNanos;
+    private final long mSpanIndexRebuildCount;
+    private final long mSpanIndexRebuildTotalNanos;
+    private final long mSpanIndexRebuildItemCount;
+    private final long mFilterCount;
+    private final long mFilterTotalNanos;
+
+    DecorationMetrics(long intervalNanos, long frameCount, long drawTotalNanos, long drawMaxNanos, long segmentCount,
+                      long culledSegmentCount,
+                      long itemOffsetsCount, long itemOffsetsTotalNanos,
+                      long spanIndexRebuildCount, long spanIndexRebuildTotalNanos, long spanIndexRebuildItemCount,
+                      long filterCount, long filterTotalNanos) {
+        mIntervalNanos = intervalNanos;
+        mFrameCount = frameCount;
+        mDrawTotalNanos = drawTotalNanos;
+        mDrawMaxNanos = drawMaxNanos;
+        mSegmentCount = segmentCount;
+        mCulledSegmentCount = culledSegmentCount;
+        mItemOffsetsCount = itemOffsetsCount;
+        mItemOffsetsTotalNanos = itemOffsetsTotalNanos;
+        mSpanIndexRebuildCount = spanIndexRebuildCount;
+        mSpanIndexRebuildTotalNanos = spanIndexRebuildTotalNanos;
+        mSpanIndexRebuildItemCount = spanIndexRebuildItemCount;
+        mFilterCount = filterCount;
+        mFilterTotalNanos = filterTotalNanos;
+    }
+
+    /**
+     * @return 统计周期实际时长
+     */
+    public long getIntervalNanos() {
+        return mIntervalNanos;
+    }
+
+    /**
+     * @return onDraw 次数
+     */
+    public long getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return onDraw 累计耗时
+     */
+    public long getDrawTotalNanos() {
+        return mDrawTotalNanos;
+    }
+
+    /**
+     * @return 单帧 onDraw 最大耗时
+     */
+    public long getDrawMaxNanos() {
+        return mDrawMaxNanos;
+    }
+
+    /**
+     * @return 累计绘制的分割线线段数量
+     */
+    public long getSegmentCount() {
+        return mSegmentCount;
+    }
+
+    /**
+     * @return 累计因不在画布裁剪区域内被丢弃的线段数量
+     */
+    public long getCulledSegmentCount() {
+        return mCulledSegmentCount;
+    }
+
+    /**
+     * @return getItemOffsets 调用次数
+     */
+    public long getItemOffsetsCount() {
+        return mItemOffsetsCount;
+    }
+
+    /**
+     * @return getItemOffsets 累计耗时
+     */
+    public long getItemOffsetsTotalNanos() {
+        return mItemOffsetsTotalNanos;
+    }
+
+    /**
+     * @return 网格布局 Span 信息重建次数
+     */
+    public long getSpanIndexRebuildCount() {
+        return mSpanIndexRebuildCount;
+    }
+
+    /**
+     * @return Span 信息重建累计耗时（调用线程，不含后台构建）
+     */
+    public long getSpanIndexRebuildTotalNanos() {
+        return mSpanIndexRebuildTotalNanos;
+    }
+
+    /**
+     * @return Span 信息重建累计 Item 数量
+     */
+    public long getSpanIndexRebuildItemCount() {
+        return mSpanIndexRebuildItemCount;
+    }
+
+    /**
+     * @return VisibilityProvider.filter 调用次数
+     */
+    public long getFilterCount() {
+        return mFilterCount;
+    }
+
+    /**
+     * @return VisibilityProvider.filter 累计耗时
+     */
+    public long getFilterTotalNanos() {
+        return mFilterTotalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "DecorationMetrics{" +
+                "intervalNanos=" + mIntervalNanos +
+                ", frameCount=" + mFrameCount +
+                ", drawTotalNanos=" + mDrawTotalNanos +
+                ", drawMaxNanos=" + mDrawMaxNanos +
+                ", segmentCount=" + mSegmentCount +
+                ", culledSegmentCount=" + mCulledSegmentCount +
+                ", itemOffsetsCount=" + mItemOffsetsCount +
+                ", itemOffsetsTotalNanos=" + mItemOffsetsTotalNanos +
+                ", spanIndexRebuildCount=" + mSpanIndexRebuildCount +
+                ", spanIndexRebuildTotalNanos=" + mSpanIndexRebuildTotalNanos +
+                ", spanIndexRebuildItemCount=" + mSpanIndexRebuildItemCount +
+                ", filterCount=" + mFilterCount +
+                ", filterTotalNanos=" + mFilterTotalNanos +
+                '}';
+    }
+}
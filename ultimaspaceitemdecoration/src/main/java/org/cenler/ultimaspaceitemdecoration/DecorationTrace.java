@@ -0,0 +1,46 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Description: 系统 Trace（Perfetto / systrace）区段及计数器
+ * <p>
+ * 只在 {@link UltimaSpaceItemDecoration.DividerBuilder#setTraceEnabled(boolean)} 开启时调用，关闭时调用方只有一次布尔判断
+ */
+final class DecorationTrace {
+
+    static final String SECTION_DRAW = "UltimaSpace#onDraw";
+    static final String SECTION_SPAN_INDEX = "UltimaSpace#buildSpanIndex";
+    static final String SECTION_LINEAR_PADDING = "UltimaSpace#calculateLinearLayoutPadding";
+    static final String SECTION_GRID_PADDING = "UltimaSpace#calculateGridLayoutPadding";
+    static final String SECTION_STAGGERED_PADDING = "UltimaSpace#calculateStaggeredGridLayoutPadding";
+
+    // onDraw 遍历的 child 数量
+    static final String COUNTER_CHILDREN_DRAWN = "UltimaSpace#childrenDrawn";
+    // Span 信息构建时扫描的 Item 数量，按需计算时为 0
+    static final String COUNTER_SPAN_INDEX_ITEMS = "UltimaSpace#spanIndexItems";
+    static final String COUNTER_SEGMENTS = "UltimaSpace#segments";
+    static final String COUNTER_SEGMENTS_CULLED = "UltimaSpace#segmentsCulled";
+
+    private DecorationTrace() {
+    }
+
+    static void beginSection(String section) {
+        Trace.beginSection(section);
+    }
+
+    static void endSection() {
+        Trace.endSection();
+    }
+
+    /**
+     * @param name  计数器名称
+     * @param value 当前值，API 29 以下忽略
+     */
+    static void setCounter(String name, long value) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.setCounter(name, value);
+        }
+    }
+}
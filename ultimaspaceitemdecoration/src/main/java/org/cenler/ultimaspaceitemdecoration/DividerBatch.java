@@ -0,0 +1,136 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import org.cenler.ultimaspaceitemdecoration.engine.DividerSink;
+
+import java.util.Arrays;
+
+/**
+ * Description: 分割线批量绘制
+ * <p>
+ * 1、一帧内所有线段收集到复用的 float[] 中，最后通过一次 {@link Canvas#drawLines(float[], int, int, Paint)} 提交
+ * 2、Drawable 分割线每条线段的着色器坐标系不同，交给 {@link DividerShader} 逐条绘制
+ * 3、设置裁剪区域后，与裁剪区域不相交的线段在收集时直接丢弃并计数
+ */
+final class DividerBatch implements DividerSink {
+
+    private float[] mPoints = new float[4 * 64];
+    private int mSegmentCount;
+
+    private int mFrameSegmentCount;
+    private long mSavedDrawCallCount;
+
+    // 裁剪区域（已按线宽外扩），未设置时不裁剪
+    private boolean mClipEnabled;
+    private float mClipLeft;
+    private float mClipTop;
+    private float mClipRight;
+    private float mClipBottom;
+    private int mCulledCount;
+    private int mFrameCulledCount;
+
+    void reset() {
+        mSegmentCount = 0;
+        mCulledCount = 0;
+        mClipEnabled = false;
+    }
+
+    /**
+     * Description: 本帧的裁剪区域，{@link #reset()} 后失效
+     *
+     * @param left   左边界
+     * @param top    上边界
+     * @param right  右边界
+     * @param bottom 下边界
+     */
+    void setClip(float left, float top, float right, float bottom) {
+        mClipLeft = left;
+        mClipTop = top;
+        mClipRight = right;
+        mClipBottom = bottom;
+        mClipEnabled = true;
+    }
+
+    /**
+     * @param startX 起点 X
+     * @param startY 起点 Y
+     * @param stopX  终点 X
+     * @param stopY  终点 Y
+     */
+    @Override
+    public void add(float startX, float startY, float stopX, float stopY) {
+        if (mClipEnabled && (Math.max(startX, stopX) < mClipLeft || Math.min(startX, stopX) > mClipRight
+                || Math.max(startY, stopY) < mClipTop || Math.min(startY, stopY) > mClipBottom)) {
+            mCulledCount++;
+            return;
+        }
+        final int offset = mSegmentCount * 4;
+        if (offset + 4 > mPoints.length) {
+            mPoints = Arrays.copyOf(mPoints, mPoints.length * 2);
+        }
+        mPoints[offset] = startX;
+        mPoints[offset + 1] = startY;
+        mPoints[offset + 2] = stopX;
+        mPoints[offset + 3] = stopY;
+        mSegmentCount++;
+    }
+
+    /**
+     * @param c     画布
+     * @param paint 画笔（线宽即分割线尺寸）
+     */
+    void draw(Canvas c, Paint paint) {
+        if (!beginDraw()) {
+            return;
+        }
+        c.drawLines(mPoints, 0, mSegmentCount * 4, paint);
+        mSavedDrawCallCount += mSegmentCount - 1;
+    }
+
+    /**
+     * @param c      画布
+     * @param paint  画笔（线宽即分割线尺寸）
+     * @param shader Drawable 分割线着色器
+     */
+    void draw(Canvas c, Paint paint, DividerShader shader) {
+        if (beginDraw()) {
+            shader.draw(c, paint, mPoints, mSegmentCount);
+        }
+    }
+
+    /**
+     * @return 本帧是否有需要绘制的线段
+     */
+    private boolean beginDraw() {
+        mFrameSegmentCount = mSegmentCount;
+        mFrameCulledCount = mCulledCount;
+        return mSegmentCount > 0;
+    }
+
+    int getSegmentCount() {
+        return mSegmentCount;
+    }
+
+    /**
+     * @return 最近一帧绘制的线段数量
+     */
+    int getFrameSegmentCount() {
+        return mFrameSegmentCount;
+    }
+
+    /**
+     * @return 最近一帧因不在裁剪区域内被丢弃的线段数量
+     */
+    int getFrameCulledCount() {
+        return mFrameCulledCount;
+    }
+
+    /**
+     * @return 累计节省的绘制调用次数（逐条 drawLine 相比一次 drawLines）
+     */
+    long getSavedDrawCallCount() {
+        return mSavedDrawCallCount;
+    }
+}
@@ -0,0 +1,162 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import android.graphics.Canvas;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+import android.view.View;
+
+import androidx.annotation.RequiresApi;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Description: 分割线显示列表缓存（API 29+）
+ * <p>
+ * 1、分割线录制到 {@link RenderNode} 中，滑动时所有 child 整体平移，只更新 RenderNode 的平移量后重放
+ * 2、child 增加、移除、尺寸或相对位置变化、RecycleView 尺寸或 Item 数量变化时重新录制
+ * 3、只在硬件加速画布上生效
+ */
+@RequiresApi(Build.VERSION_CODES.Q)
+final class DividerLayer {
+
+    private final RenderNode mRenderNode = new RenderNode("UltimaSpaceItemDecoration");
+    private boolean mDirty = true;
+
+    // 录制时的布局快照
+    private int mChildCount;
+    private int[] mPositions = new int[32];
+    private int[] mLefts = new int[32];
+    private int[] mTops = new int[32];
+    private int[] mWidths = new int[32];
+    private int[] mHeights = new int[32];
+    private float[] mTranslationXs = new float[32];
+    private float[] mTranslationYs = new float[32];
+    private int mParentWidth;
+    private int mParentHeight;
+    private int mItemCount;
+
+    private long mReplayCount;
+    private long mRecordCount;
+
+    DividerLayer() {
+        mRenderNode.setClipToBounds(false);
+    }
+
+    void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * Description: 当前布局与录制时相比只是整体平移时，更新平移量并重放
+     *
+     * @param c      画布
+     * @param parent RecycleView
+     * @return 是否已重放，false 时需要重新收集并 {@link #record}
+     */
+    boolean replay(Canvas c, RecyclerView parent) {
+        if (mDirty || !mRenderNode.hasDisplayList()) {
+            return false;
+        }
+        final int childCount = parent.getChildCount();
+        if (childCount != mChildCount || parent.getWidth() != mParentWidth || parent.getHeight() != mParentHeight
+                || parent.getAdapter().getItemCount() != mItemCount) {
+            return false;
+        }
+
+        int dx = 0;
+        int dy = 0;
+        for (int i = 0; i < childCount; i++) {
+            final View child = parent.getChildAt(i);
+            if (parent.getChildAdapterPosition(child) != mPositions[i]
+                    || child.getWidth() != mWidths[i] || child.getHeight() != mHeights[i]
+                    || child.getTranslationX() != mTranslationXs[i] || child.getTranslationY() != mTranslationYs[i]) {
+                return false;
+            }
+            final int childDx = child.getLeft() - mLefts[i];
+            final int childDy = child.getTop() - mTops[i];
+            if (i == 0) {
+                dx = childDx;
+                dy = childDy;
+            } else if (childDx != dx || childDy != dy) {
+                return false;
+            }
+        }
+
+        mRenderNode.setTranslationX(dx);
+        mRenderNode.setTranslationY(dy);
+        c.drawRenderNode(mRenderNode);
+        mReplayCount++;
+        return true;
+    }
+
+    /**
+     * Description: 保存当前布局快照，将本帧收集的分割线录制到 RenderNode 并绘制
+     *
+     * @param c      画布
+     * @param parent RecycleView
+     * @param drawer 绘制本帧收集的分割线
+     */
+    void record(Canvas c, RecyclerView parent, Consumer<Canvas> drawer) {
+        final int childCount = parent.getChildCount();
+        ensureCapacity(childCount);
+        for (int i = 0; i < childCount; i++) {
+            final View child = parent.getChildAt(i);
+            mPositions[i] = parent.getChildAdapterPosition(child);
+            mLefts[i] = child.getLeft();
+            mTops[i] = child.getTop();
+            mWidths[i] = child.getWidth();
+            mHeights[i] = child.getHeight();
+            mTranslationXs[i] = child.getTranslationX();
+            mTranslationYs[i] = child.getTranslationY();
+        }
+        mChildCount = childCount;
+        mParentWidth = parent.getWidth();
+        mParentHeight = parent.getHeight();
+        mItemCount = parent.getAdapter().getItemCount();
+
+        mRenderNode.setPosition(0, 0, mParentWidth, mParentHeight);
+        mRenderNode.setTranslationX(0);
+        mRenderNode.setTranslationY(0);
+        final RecordingCanvas recordingCanvas = mRenderNode.beginRecording();
+        try {
+            drawer.accept(recordingCanvas);
+        } finally {
+            mRenderNode.endRecording();
+        }
+        mDirty = false;
+        mRecordCount++;
+
+        c.drawRenderNode(mRenderNode);
+    }
+
+    private void ensureCapacity(int childCount) {
+        if (childCount <= mPositions.length) {
+            return;
+        }
+        final int capacity = Math.max(childCount, mPositions.length * 2);
+        mPositions = Arrays.copyOf(mPositions, capacity);
+        mLefts = Arrays.copyOf(mLefts, capacity);
+        mTops = Arrays.copyOf(mTops, capacity);
+        mWidths = Arrays.copyOf(mWidths, capacity);
+        mHeights = Arrays.copyOf(mHeights, capacity);
+        mTranslationXs = Arrays.copyOf(mTranslationXs, capacity);
+        mTranslationYs = Arrays.copyOf(mTranslationYs, capacity);
+    }
+
+    /**
+     * @return 直接重放的帧数
+     */
+    long getReplayCount() {
+        return mReplayCount;
+    }
+
+    /**
+     * @return 重新录制的帧数
+     */
+    long getRecordCount() {
+        return mRecordCount;
+    }
+}
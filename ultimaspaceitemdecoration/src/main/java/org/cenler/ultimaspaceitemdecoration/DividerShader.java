@@ -0,0 +1,214 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.NinePatchDrawable;
+
+import androidx.annotation.DrawableRes;
+
+import java.util.Arrays;
+
+/**
+ * Description: Drawable 分割线着色器
+ * <p>
+ * 1、横向、纵向线段各光栅化一次（厚度为实际分割线尺寸），只在密度或分割线尺寸变化时重新光栅化
+ * 2、每条线段绘制前通过 {@link Shader#setLocalMatrix(Matrix)} 把着色器平移、沿线段方向拉伸到线段自身的坐标系，
+ * 与对每条线段 setBounds 后 draw 的效果一致：垂直于线段方向的渐变在所有线段上相位相同；
+ * 无圆角的矩形、线性渐变 {@link GradientDrawable} 同样走这条路径
+ * 3、{@link NinePatchDrawable} 的固定区域不能拉伸，按（方向、线段长度）缓存光栅化结果，绘制时只平移；
+ * 网格、线性布局的线段长度几乎一致，稳态滑动时不再光栅化
+ * 4、整体拉伸无法还原的 {@link GradientDrawable}（圆角、径向/扫描渐变、非矩形）逐条 setBounds 后直接绘制
+ */
+final class DividerShader {
+
+    // 没有固有尺寸时沿线段方向光栅化的长度，绘制时再拉伸到线段长度
+    private static final int DEFAULT_LENGTH = 256;
+    // 每个方向缓存的 .9 图长度数量
+    private static final int NINE_PATCH_CACHE_SIZE = 4;
+
+    private static final int HORIZONTAL = 0;
+    private static final int VERTICAL = 1;
+
+    private final Context mContext;
+    @DrawableRes
+    private final int mDrawableRes;
+
+    private int mDensityDpi;
+    private int mDividerSize = -1;
+
+    // 逐条 setBounds 绘制的 Drawable，使用着色器时为空
+    private Drawable mDrawable;
+
+    // 横向线段：宽为沿线段方向的长度，高为分割线尺寸；纵向线段相反
+    private BitmapShader mHorizontalShader;
+    private int mHorizontalLength;
+    private BitmapShader mVerticalShader;
+    private int mVerticalLength;
+
+    // .9 图按方向、长度缓存的光栅化结果，满时按顺序替换
+    private NinePatchDrawable mNinePatch;
+    private final int[][] mNinePatchLengths = new int[2][NINE_PATCH_CACHE_SIZE];
+    private final BitmapShader[][] mNinePatchShaders = new BitmapShader[2][NINE_PATCH_CACHE_SIZE];
+    private final int[] mNinePatchNext = new int[2];
+
+    // 复用的线段坐标系变换（仅主线程访问）
+    private final Matrix mMatrix = new Matrix();
+
+    DividerShader(Context context, @DrawableRes int drawableRes) {
+        mContext = context;
+        mDrawableRes = drawableRes;
+    }
+
+    /**
+     * @param densityDpi  当前密度
+     * @param dividerSize 分割线尺寸
+     */
+    void apply(int densityDpi, int dividerSize) {
+        if ((mDrawable != null || mNinePatch != null || mHorizontalShader != null)
+                && mDensityDpi == densityDpi && mDividerSize == dividerSize) {
+            return;
+        }
+        mDensityDpi = densityDpi;
+        mDividerSize = dividerSize;
+        mDrawable = null;
+        mNinePatch = null;
+        mHorizontalShader = null;
+        mVerticalShader = null;
+        clearNinePatchCache();
+
+        // 密度变化后需要按新的资源重新加载，固有尺寸随之变化
+        final Drawable drawable = mContext.getDrawable(mDrawableRes);
+        if (drawable == null) {
+            return;
+        }
+        if (drawable instanceof NinePatchDrawable) {
+            mNinePatch = (NinePatchDrawable) drawable;
+            return;
+        }
+        if (drawable instanceof GradientDrawable && !isScalable((GradientDrawable) drawable)) {
+            mDrawable = drawable;
+            return;
+        }
+        final int thickness = Math.max(1, dividerSize);
+        mHorizontalLength = drawable.getIntrinsicWidth() > 0 ? drawable.getIntrinsicWidth() : DEFAULT_LENGTH;
+        mHorizontalShader = rasterize(drawable, mHorizontalLength, thickness);
+        mVerticalLength = drawable.getIntrinsicHeight() > 0 ? drawable.getIntrinsicHeight() : DEFAULT_LENGTH;
+        mVerticalShader = rasterize(drawable, thickness, mVerticalLength);
+    }
+
+    /**
+     * @return 无圆角的矩形、线性渐变或纯色，沿线段方向整体拉伸与逐条绘制一致
+     */
+    private static boolean isScalable(GradientDrawable drawable) {
+        return drawable.getShape() == GradientDrawable.RECTANGLE
+                && drawable.getGradientType() == GradientDrawable.LINEAR_GRADIENT
+                && drawable.getCornerRadius() == 0
+                && drawable.getCornerRadii() == null;
+    }
+
+    private void clearNinePatchCache() {
+        for (int orientation = HORIZONTAL; orientation <= VERTICAL; orientation++) {
+            Arrays.fill(mNinePatchShaders[orientation], null);
+            Arrays.fill(mNinePatchLengths[orientation], 0);
+            mNinePatchNext[orientation] = 0;
+        }
+    }
+
+    private static BitmapShader rasterize(Drawable drawable, int width, int height) {
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(bitmap));
+        // 旧 Bitmap 可能仍被 RenderThread 上一帧引用，不主动 recycle
+        return new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+    }
+
+    /**
+     * @param orientation {@link #HORIZONTAL} 或 {@link #VERTICAL}
+     * @param length      线段长度
+     * @return 该长度的 .9 图光栅化结果，未缓存时光栅化并替换最早的一项
+     */
+    private BitmapShader obtainNinePatchShader(int orientation, int length) {
+        final int[] lengths = mNinePatchLengths[orientation];
+        final BitmapShader[] shaders = mNinePatchShaders[orientation];
+        for (int i = 0; i < NINE_PATCH_CACHE_SIZE; i++) {
+            if (shaders[i] != null && lengths[i] == length) {
+                return shaders[i];
+            }
+        }
+        final int thickness = Math.max(1, mDividerSize);
+        final BitmapShader shader = orientation == HORIZONTAL
+                ? rasterize(mNinePatch, length, thickness)
+                : rasterize(mNinePatch, thickness, length);
+        final int slot = mNinePatchNext[orientation];
+        lengths[slot] = length;
+        shaders[slot] = shader;
+        mNinePatchNext[orientation] = (slot + 1) % NINE_PATCH_CACHE_SIZE;
+        return shader;
+    }
+
+    /**
+     * Description: 逐条绘制线段，横向线段 startY == stopY，否则为纵向线段
+     *
+     * @param c            画布
+     * @param paint        分割线画笔（线宽即分割线尺寸）
+     * @param points       线段坐标，每 4 个一组
+     * @param segmentCount 线段数量
+     */
+    void draw(Canvas c, Paint paint, float[] points, int segmentCount) {
+        final float half = mDividerSize / 2f;
+        for (int i = 0; i < segmentCount; i++) {
+            final int offset = i * 4;
+            final float startX = points[offset];
+            final float startY = points[offset + 1];
+            final float stopX = points[offset + 2];
+            final float stopY = points[offset + 3];
+            final boolean horizontal = startY == stopY;
+            final float left = horizontal ? Math.min(startX, stopX) : startX - half;
+            final float top = horizontal ? startY - half : Math.min(startY, stopY);
+            final float length = horizontal ? Math.abs(stopX - startX) : Math.abs(stopY - startY);
+            if (length <= 0) {
+                continue;
+            }
+
+            if (mDrawable != null) {
+                final int l = Math.round(left);
+                final int t = Math.round(top);
+                if (horizontal) {
+                    mDrawable.setBounds(l, t, l + Math.round(length), t + mDividerSize);
+                } else {
+                    mDrawable.setBounds(l, t, l + mDividerSize, t + Math.round(length));
+                }
+                mDrawable.draw(c);
+                continue;
+            }
+
+            final BitmapShader shader;
+            if (mNinePatch != null) {
+                shader = obtainNinePatchShader(horizontal ? HORIZONTAL : VERTICAL, Math.max(1, Math.round(length)));
+                mMatrix.setTranslate(left, top);
+            } else {
+                shader = horizontal ? mHorizontalShader : mVerticalShader;
+                if (shader == null) {
+                    continue;
+                }
+                if (horizontal) {
+                    mMatrix.setScale(length / mHorizontalLength, 1f);
+                } else {
+                    mMatrix.setScale(1f, length / mVerticalLength);
+                }
+                mMatrix.postTranslate(left, top);
+            }
+            shader.setLocalMatrix(mMatrix);
+            // API 29 以下修改局部矩阵后需要重新设置到画笔才会生效
+            paint.setShader(shader);
+            c.drawLine(startX, startY, stopX, stopY, paint);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: 性能统计计数器
+ * <p>
+ * 1、所有计数均为无锁的 {@link AtomicLong}，可在主线程与后台线程同时累加
+ * 2、距上次上报超过上报间隔时，由累加线程取出并清零所有计数，生成 {@link DecorationMetrics} 回调给监听器
+ */
+final class MetricsRecorder {
+
+    private final UltimaSpaceItemDecoration.MetricsListener mListener;
+    private final long mFlushIntervalNanos;
+    private final AtomicLong mLastFlushNanos;
+
+    private final AtomicLong mFrameCount = new AtomicLong();
+    private final AtomicLong mDrawTotalNanos = new AtomicLong();
+    private final AtomicLong mDrawMaxNanos = new AtomicLong();
+    private final AtomicLong mSegmentCount = new AtomicLong();
+    private final AtomicLong mCulledSegmentCount = new AtomicLong();
+    private final AtomicLong mItemOffsetsCount = new AtomicLong();
+    private final AtomicLong mItemOffsetsTotalNanos = new AtomicLong();
+    private final AtomicLong mSpanIndexRebuildCount = new AtomicLong();
+    private final AtomicLong mSpanIndexRebuildTotalNanos = new AtomicLong();
+    private final AtomicLong mSpanIndexRebuildItemCount = new AtomicLong();
+    private final AtomicLong mFilterCount = new AtomicLong();
+    private final AtomicLong mFilterTotalNanos = new AtomicLong();
+
+    /**
+     * @param listener           统计监听
+     * @param flushIntervalNanos 上报间隔
+     * @param nowNanos           当前时间
+     */
+    MetricsRecorder(UltimaSpaceItemDecoration.MetricsListener listener, long flushIntervalNanos, long nowNanos) {
+        mListener = listener;
+        mFlushIntervalNanos = Math.max(0, flushIntervalNanos);
+        mLastFlushNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @param durationNanos 本帧 onDraw 耗时
+     * @param segmentCount  本帧绘制的线段数量
+     * @param culledCount   本帧裁剪丢弃的线段数量
+     */
+    void recordDraw(long durationNanos, int segmentCount, int culledCount) {
+        mFrameCount.incrementAndGet();
+        mDrawTotalNanos.addAndGet(durationNanos);
+        mSegmentCount.addAndGet(segmentCount);
+        mCulledSegmentCount.addAndGet(culledCount);
+        long max;
+        do {
+            max = mDrawMaxNanos.get();
+        } while (durationNanos > max && !mDrawMaxNanos.compareAndSet(max, durationNanos));
+    }
+
+    void recordItemOffsets(long durationNanos) {
+        mItemOffsetsCount.incrementAndGet();
+        mItemOffsetsTotalNanos.addAndGet(durationNanos);
+    }
+
+    void recordSpanIndexRebuild(long durationNanos, int itemCount) {
+        mSpanIndexRebuildCount.incrementAndGet();
+        mSpanIndexRebuildTotalNanos.addAndGet(durationNanos);
+        mSpanIndexRebuildItemCount.addAndGet(itemCount);
+    }
+
+    void recordFilter(long durationNanos) {
+        mFilterCount.incrementAndGet();
+        mFilterTotalNanos.addAndGet(durationNanos);
+    }
+
+    /**
+     * Description: 到达上报间隔时取出并清零计数，回调监听器；多个线程同时到达时只有一个上报
+     *
+     * @param nowNanos 当前时间
+     * @return 是否已上报
+     */
+    boolean flushIfDue(long nowNanos) {
+        final long last = mLastFlushNanos.get();
+        if (nowNanos - last < mFlushIntervalNanos || !mLastFlushNanos.compareAndSet(last, nowNanos)) {
+            return false;
+        }
+        mListener.onMetrics(new DecorationMetrics(nowNanos - last,
+                mFrameCount.getAndSet(0), mDrawTotalNanos.getAndSet(0), mDrawMaxNanos.getAndSet(0),
+                mSegmentCount.getAndSet(0), mCulledSegmentCount.getAndSet(0),
+                mItemOffsetsCount.getAndSet(0), mItemOffsetsTotalNanos.getAndSet(0),
+                mSpanIndexRebuildCount.getAndSet(0), mSpanIndexRebuildTotalNanos.getAndSet(0),
+                mSpanIndexRebuildItemCount.getAndSet(0),
+                mFilterCount.getAndSet(0), mFilterTotalNanos.getAndSet(0)));
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import org.cenler.ultimaspaceitemdecoration.engine.GridLines;
+import org.cenler.ultimaspaceitemdecoration.engine.SpacingConfig;
+import org.cenler.ultimaspaceitemdecoration.engine.SpacingEngine;
+import org.cenler.ultimaspaceitemdecoration.engine.StaggeredGutters;
+
+/**
+ * Description: 一组间距及分割线规则（默认规则或某个 ViewType 的规则）
+ * <p>
+ * 画笔、着色器在创建时解析完成；每条规则有独立的批量绘制及合并收集，一帧结束后按规则各提交一次
+ */
+final class SpacingRule {
+
+    final SpacingConfig mConfig;
+    final SpacingEngine mEngine;
+    final Paint mPaint;
+    final DividerShader mShader;
+    final int mDividerSize;
+
+    // 每帧复用（仅主线程访问）
+    final DividerBatch mBatch = new DividerBatch();
+    final GridLines mGridLines = new GridLines();
+    final StaggeredGutters mGutters = new StaggeredGutters();
+
+    /**
+     * @param config      间距配置
+     * @param paint       分割线画笔
+     * @param shader      Drawable 分割线着色器，使用颜色时为空
+     * @param dividerSize 分割线尺寸
+     */
+    SpacingRule(SpacingConfig config, Paint paint, DividerShader shader, int dividerSize) {
+        mConfig = config;
+        mEngine = new SpacingEngine(config);
+        mPaint = paint;
+        mShader = shader;
+        mDividerSize = dividerSize;
+    }
+
+    /**
+     * @param densityDpi 当前密度
+     */
+    void applyShader(int densityDpi) {
+        if (mShader != null) {
+            mShader.apply(densityDpi, mDividerSize);
+        }
+    }
+
+    void draw(Canvas c) {
+        if (mShader != null) {
+            mBatch.draw(c, mPaint, mShader);
+        } else {
+            mBatch.draw(c, mPaint);
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package org.cenler.ultimaspaceitemdecoration;
 
 import static androidx.annotation.Dimension.DP;
-import static androidx.recyclerview.widget.StaggeredGridLayoutManager.HORIZONTAL;
 import static androidx.recyclerview.widget.StaggeredGridLayoutManager.LayoutParams;
-import static androidx.recyclerview.widget.StaggeredGridLayoutManager.VERTICAL;
-import static java.lang.Math.max;
-import static java.lang.Math.round;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.os.Build;
+import android.util.SparseArray;
 import android.view.Gravity;
 import android.view.View;
 
@@ -18,16 +17,41 @@ import androidx.annotation.ColorRes;
 import androidx.annotation.Dimension;
 import androidx.annotation.DrawableRes;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.RecyclerView.AdapterDataObserver;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
+import org.cenler.ultimaspaceitemdecoration.engine.AsyncSpanInfo;
+import org.cenler.ultimaspaceitemdecoration.engine.DividerSink;
+import org.cenler.ultimaspaceitemdecoration.engine.GapCache;
+import org.cenler.ultimaspaceitemdecoration.engine.GapMatrix;
+import org.cenler.ultimaspaceitemdecoration.engine.LazySpanInfo;
+import org.cenler.ultimaspaceitemdecoration.engine.OffsetCache;
+import org.cenler.ultimaspaceitemdecoration.engine.SectionProvider;
+import org.cenler.ultimaspaceitemdecoration.engine.SectionedSpanInfo;
+import org.cenler.ultimaspaceitemdecoration.engine.SpacingConfig;
+import org.cenler.ultimaspaceitemdecoration.engine.SpacingEngine;
+import org.cenler.ultimaspaceitemdecoration.engine.SpanIndex;
+import org.cenler.ultimaspaceitemdecoration.engine.SpanInfo;
+import org.cenler.ultimaspaceitemdecoration.engine.SpanSizeProvider;
+import org.cenler.ultimaspaceitemdecoration.engine.VisibilityMask;
+
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Description: RecycleView.ItemDecoration 分割线&间距
@@ -43,52 +67,391 @@ public final class UltimaSpaceItemDecoration extends RecyclerView.ItemDecoration
      */
 //    static final String TAG = "UltimaSpaceItemDecoration";
 
+    /**
+     * 默认不过滤
+     */
+    private static final VisibilityProvider NO_FILTER = (position, parent) -> false;
+    /**
+     * 隐藏掩码最小窗口
+     */
+    private static final int VISIBILITY_WINDOW_SIZE = 128;
+
     private final Context mContext;
-    private SpanInfo mSpanInfo;
-    private final Paint mPaint;
     private final DividerBuilder mBuilder;
 
+    private final SpacingConfig mConfig;
+    // 默认规则及按 ViewType 区分的规则（为空时所有 Item 使用默认规则）
+    private final SpacingRule mDefaultRule;
+    private final SparseArray<SpacingRule> mViewTypeRules;
+    // ConcatAdapter 中按子 Adapter 区分的规则，未配置时为空
+    // 弱引用子 Adapter：子 Adapter 不再使用时随之释放
+    private final WeakHashMap<RecyclerView.Adapter<?>, SpacingRule> mAdapterRules;
+    private final SpacingRule[] mRules;
+    private final boolean mHasShader;
+    private final Consumer<Canvas> mRulesDrawer = this::drawRules;
+    // 相邻 ViewType 间距，未配置时为空
+    private final GapMatrix mGapMatrix;
+    // 复用的偏移量输出，getItemOffsets 滑动过程中不再分配内存（仅主线程访问）
+    private final int[] mOffsets = new int[4];
+    // 复用的画布裁剪区域（仅主线程访问）
+    private final Rect mClipBounds = new Rect();
+    private final MetricsRecorder mMetrics;
+    private final boolean mTraceEnabled;
+
     private UltimaSpaceItemDecoration(Context context, DividerBuilder dividerBuilder) {
         mContext = context;
         mBuilder = dividerBuilder;
-        mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPaint.setStyle(Paint.Style.FILL);
-        mPaint.setColor(mContext.getColor(mBuilder.colorRes == 0 ? android.R.color.transparent : mBuilder.colorRes));
-        mPaint.setStrokeWidth(mBuilder.dividerSize);
+        mDefaultRule = createRule(mBuilder, mBuilder);
+        mConfig = mDefaultRule.mConfig;
+        final List<SpacingRule> rules = new ArrayList<>();
+        rules.add(mDefaultRule);
+        if (mBuilder.viewTypeRules != null) {
+            final int size = mBuilder.viewTypeRules.size();
+            mViewTypeRules = new SparseArray<>(size);
+            for (int i = 0; i < size; i++) {
+                final SpacingRule rule = createRule(mBuilder.viewTypeRules.valueAt(i), mBuilder);
+                mViewTypeRules.put(mBuilder.viewTypeRules.keyAt(i), rule);
+                rules.add(rule);
+            }
+        } else {
+            mViewTypeRules = null;
+        }
+        if (mBuilder.adapterRules != null) {
+            mAdapterRules = new WeakHashMap<>(mBuilder.adapterRules.size());
+            for (Map.Entry<RecyclerView.Adapter<?>, DividerBuilder> entry : mBuilder.adapterRules.entrySet()) {
+                // 子 Adapter 的首尾隐藏、跳过规则按子 Adapter 内的 position 独立生效
+                final SpacingRule rule = createRule(entry.getValue(), entry.getValue());
+                mAdapterRules.put(entry.getKey(), rule);
+                rules.add(rule);
+            }
+        } else {
+            mAdapterRules = null;
+        }
+        mRules = rules.toArray(new SpacingRule[0]);
+        boolean hasShader = false;
+        for (SpacingRule rule : mRules) {
+            hasShader |= rule.mShader != null;
+        }
+        mHasShader = hasShader;
+        mGapMatrix = mBuilder.gapMatrixBuilder != null ? mBuilder.gapMatrixBuilder.build() : null;
+        mMetrics = mBuilder.metricsListener != null
+                ? new MetricsRecorder(mBuilder.metricsListener,
+                TimeUnit.MILLISECONDS.toNanos(mBuilder.metricsFlushIntervalMillis), System.nanoTime())
+                : null;
+        mTraceEnabled = mBuilder.traceEnabled;
+    }
+
+    /**
+     * Description: 解析规则的画笔、着色器
+     *
+     * @param rule 规则配置
+     * @param list 首尾隐藏、跳过规则所属的配置
+     * @return 间距及分割线规则
+     */
+    private SpacingRule createRule(DividerBuilder rule, DividerBuilder list) {
+        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(mContext.getColor(rule.colorRes == 0 ? android.R.color.transparent : rule.colorRes));
+        paint.setStrokeWidth(rule.dividerSize);
+        DividerShader shader = null;
+        if (rule.drawableRes != 0) {
+            // 着色器的透明度受画笔颜色影响；沿线段方向拉伸时需要双线性过滤
+            paint.setColor(Color.BLACK);
+            paint.setFilterBitmap(true);
+            shader = new DividerShader(mContext, rule.drawableRes);
+        }
+        return new SpacingRule(rule.toSpacingConfig(list), paint, shader, rule.dividerSize);
+    }
+
+    /**
+     * @param parent RecycleView
+     * @param child  Child View
+     * @return child 的 ViewType 对应的规则，没有单独配置时为默认规则
+     */
+    private SpacingRule resolveRule(RecyclerView parent, View child) {
+        if (mViewTypeRules == null) {
+            return mDefaultRule;
+        }
+        return mViewTypeRules.get(parent.getChildViewHolder(child).getItemViewType(), mDefaultRule);
+    }
+
+    /**
+     * @param parentState RecycleView 状态
+     * @param parent      RecycleView
+     * @param child       Child View
+     * @return child 的规则：ConcatAdapter 子 Adapter 规则优先，其次为 ViewType 规则、默认规则
+     */
+    private SpacingRule resolveChildRule(ParentState parentState, RecyclerView parent, View child) {
+        final AdapterScope scope = parentState.resolveAdapterScope(child);
+        return scope != null ? scope.mRule : resolveRule(parent, child);
+    }
+
+    /**
+     * @param sink 规则的批量绘制
+     * @return sink 所属的规则，不是任何规则的批量绘制时返回 null
+     */
+    private SpacingRule findRule(DividerSink sink) {
+        for (SpacingRule rule : mRules) {
+            if (rule.mBatch == sink) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Description: 按规则分别提交本帧收集的分割线
+     *
+     * @param c 画布
+     */
+    private void drawRules(Canvas c) {
+        for (SpacingRule rule : mRules) {
+            rule.draw(c);
+        }
     }
 
     @Override
     public void onDraw(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
         super.onDraw(c, parent, state);
 
+        if (mTraceEnabled) {
+            DecorationTrace.beginSection(DecorationTrace.SECTION_DRAW);
+        }
+        final MetricsRecorder metrics = mMetrics;
+        final long start = metrics == null ? 0 : System.nanoTime();
+        final int segmentCount = drawDividers(c, parent);
+        if (metrics != null) {
+            final long end = System.nanoTime();
+            metrics.recordDraw(end - start, segmentCount, getCulledSegmentCount());
+            metrics.flushIfDue(end);
+        }
+        if (mTraceEnabled) {
+            DecorationTrace.setCounter(DecorationTrace.COUNTER_SEGMENTS, segmentCount);
+            DecorationTrace.setCounter(DecorationTrace.COUNTER_SEGMENTS_CULLED, getCulledSegmentCount());
+            DecorationTrace.endSection();
+        }
+    }
+
+    /**
+     * @param c      画布
+     * @param parent RecycleView
+     * @return 本帧绘制的线段数量
+     */
+    private int drawDividers(Canvas c, RecyclerView parent) {
         final RecyclerView.Adapter adapter = parent.getAdapter();
         if (adapter == null) {
-            return;
+            return 0;
+        }
+
+        // 每次绘制只分发一次布局策略
+        final ParentState parentState = obtainParentState(parent);
+        final LayoutStrategy layoutStrategy = parentState.resolveLayoutStrategy(parent);
+        if (layoutStrategy == null) {
+            return 0;
+        }
+
+        // 后台构建 Span 信息：每帧在主线程拷贝一批 Span 大小快照，未拷贝完成时继续请求下一帧
+        final SpanIndex spanInfo = parentState.mSpanInfo;
+        if (spanInfo instanceof AsyncSpanInfo && ((AsyncSpanInfo) spanInfo).advanceSnapshot()) {
+            parent.postInvalidateOnAnimation();
+        }
+
+        // 静止或整体滑动时直接重放上次录制的分割线
+        final DividerLayer dividerLayer = parentState.mDividerLayer;
+        final boolean useLayer = dividerLayer != null && c.isHardwareAccelerated();
+        if (useLayer && dividerLayer.replay(c, parent)) {
+            return getDrawnSegmentCount();
         }
 
+        // 显示列表重放时会整体平移，录制时不能按当前裁剪区域丢弃线段
+        final Rect clipBounds = mClipBounds;
+        final boolean cull = !useLayer && resolveClipBounds(c, parent, clipBounds);
+        for (SpacingRule rule : mRules) {
+            rule.mBatch.reset();
+            if (cull) {
+                // 按线宽外扩，线段的边缘落在裁剪区域内时仍然绘制
+                final float half = rule.mDividerSize / 2f;
+                rule.mBatch.setClip(clipBounds.left - half, clipBounds.top - half,
+                        clipBounds.right + half, clipBounds.bottom + half);
+            }
+        }
         final int childCount = parent.getChildCount();
+        if (mTraceEnabled) {
+            DecorationTrace.setCounter(DecorationTrace.COUNTER_CHILDREN_DRAWN, childCount);
+        }
         for (int i = 0; i < childCount; i++) {
             final View targetChild = parent.getChildAt(i);
             final int position = parent.getChildAdapterPosition(targetChild);
-            if (filter(position, parent)) {
+            if (filter(parentState, position, parent)) {
                 continue;
             }
 
-            final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
-            if (layoutManager instanceof GridLayoutManager) {
-                // 网格布局：建议使用间距+背景颜色方式实现
-                final int orientation = ((GridLayoutManager) layoutManager).getOrientation();
-                drawGridLayoutBoundRect(c, orientation, parent, targetChild);
-            } else if (layoutManager instanceof LinearLayoutManager) {
-                // 线性布局
-                final int orientation = ((LinearLayoutManager) layoutManager).getOrientation();
-                drawLinearLayoutBoundRect(c, orientation, parent, targetChild);
-            } else if (layoutManager instanceof StaggeredGridLayoutManager) {
-                // 瀑布流布局：保留未实现（建议使用间距+容器背景颜色方式实现）
-                final int orientation = ((StaggeredGridLayoutManager) layoutManager).getOrientation();
-                drawStaggeredGridBoundRect(c, orientation, parent, targetChild);
+            // 由调用方按 child 所属规则选择批量绘制，策略只向 sink 输出
+            layoutStrategy.collectDividers(resolveChildRule(parentState, parent, targetChild).mBatch,
+                    targetChild, position, parent);
+        }
+        for (SpacingRule rule : mRules) {
+            layoutStrategy.finishDividers(rule.mBatch, parent);
+        }
+        if (mHasShader) {
+            final int densityDpi = parent.getContext().getResources().getDisplayMetrics().densityDpi;
+            for (SpacingRule rule : mRules) {
+                rule.applyShader(densityDpi);
             }
         }
+        if (useLayer) {
+            dividerLayer.record(c, parent, mRulesDrawer);
+        } else {
+            // 每条规则的分割线各一次提交
+            drawRules(c);
+        }
+        return getDrawnSegmentCount();
+    }
+
+    /**
+     * Description: 本帧实际会光栅化的区域：画布裁剪区域，clipToPadding 时再与 RecycleView 的 padding 区域求交
+     *
+     * @param c      画布
+     * @param parent RecycleView
+     * @param out    输出裁剪区域
+     * @return 是否可以按裁剪区域丢弃线段
+     */
+    private static boolean resolveClipBounds(Canvas c, RecyclerView parent, Rect out) {
+        if (!c.getClipBounds(out)) {
+            return false;
+        }
+        if (parent.getClipToPadding() && !out.intersect(parent.getPaddingLeft(), parent.getPaddingTop(),
+                parent.getWidth() - parent.getPaddingRight(), parent.getHeight() - parent.getPaddingBottom())) {
+            out.setEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Description: 使分割线显示列表缓存失效，下一帧重新录制
+     * <p>
+     * child 增删、尺寸变化及 Adapter 通知会自动失效；{@link VisibilityProvider} 等外部条件变化时需要手动调用
+     *
+     * @param parent RecycleView
+     */
+    public void invalidateDividerLayer(@NonNull RecyclerView parent) {
+        final ParentState parentState = findParentState(parent);
+        if (parentState != null) {
+            parentState.invalidateDividerLayer();
+        }
+    }
+
+    /**
+     * Description: 区间过滤器、隐藏的 ViewType 或 {@link VisibilityProvider} 依赖的外部条件变化时调用，下次使用时重新填充隐藏掩码；
+     * Adapter 通知会自动失效
+     *
+     * @param parent RecycleView
+     */
+    public void invalidateVisibility(@NonNull RecyclerView parent) {
+        final ParentState parentState = findParentState(parent);
+        if (parentState != null) {
+            parentState.invalidateVisibility();
+        }
+    }
+
+    /**
+     * Description: 释放当前实例在 parent 上的状态：注销 Adapter 监听，从 RecycleView 的 Tag 中移除 Span 信息与各项缓存
+     * <p>
+     * ItemDecoration 没有移除回调，{@link RecyclerView#removeItemDecoration(RecyclerView.ItemDecoration)} 之后调用；
+     * 仍在使用时调用只会丢弃缓存，下次计算间距或绘制时重新创建
+     *
+     * @param parent RecycleView
+     */
+    public void release(@NonNull RecyclerView parent) {
+        ParentState previous = null;
+        ParentState parentState = (ParentState) parent.getTag(R.id.ultima_space_item_decoration_state);
+        while (parentState != null && parentState.getDecoration() != this) {
+            previous = parentState;
+            parentState = parentState.mNext;
+        }
+        if (parentState == null) {
+            return;
+        }
+        if (previous == null) {
+            parent.setTag(R.id.ultima_space_item_decoration_state, parentState.mNext);
+        } else {
+            previous.mNext = parentState.mNext;
+        }
+        parent.removeOnAttachStateChangeListener(parentState);
+        parentState.unbindAdapter();
+    }
+
+    /**
+     * @param parent RecycleView
+     * @return 分割线显示列表缓存直接重放的帧数，未开启缓存时为 0
+     */
+    public long getDividerLayerReplayCount(@NonNull RecyclerView parent) {
+        final ParentState parentState = findParentState(parent);
+        return parentState == null || parentState.mDividerLayer == null
+                ? 0 : parentState.mDividerLayer.getReplayCount();
+    }
+
+    /**
+     * @param parent RecycleView
+     * @return 分割线显示列表缓存重新录制的帧数，未开启缓存时为 0
+     */
+    public long getDividerLayerRecordCount(@NonNull RecyclerView parent) {
+        final ParentState parentState = findParentState(parent);
+        return parentState == null || parentState.mDividerLayer == null
+                ? 0 : parentState.mDividerLayer.getRecordCount();
+    }
+
+    /**
+     * @return 最近一帧绘制的分割线线段数量
+     */
+    public int getDrawnSegmentCount() {
+        int count = 0;
+        for (SpacingRule rule : mRules) {
+            count += rule.mBatch.getFrameSegmentCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return 最近一帧因不在画布裁剪区域（clipToPadding 时为 padding 区域）内而丢弃的线段数量，开启显示列表缓存时不裁剪
+     */
+    public int getCulledSegmentCount() {
+        int count = 0;
+        for (SpacingRule rule : mRules) {
+            count += rule.mBatch.getFrameCulledCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return 批量绘制累计节省的 Canvas 绘制调用次数
+     */
+    public long getSavedDrawCallCount() {
+        long count = 0;
+        for (SpacingRule rule : mRules) {
+            count += rule.mBatch.getSavedDrawCallCount();
+        }
+        return count;
+    }
+
+    /**
+     * @param parent RecycleView
+     * @return 间距缓存命中次数，未开启缓存时为 0
+     */
+    public long getOffsetCacheHitCount(@NonNull RecyclerView parent) {
+        final ParentState parentState = findParentState(parent);
+        return parentState == null || parentState.mOffsetCache == null
+                ? 0 : parentState.mOffsetCache.getHitCount();
+    }
+
+    /**
+     * @param parent RecycleView
+     * @return 间距缓存未命中次数，未开启缓存时为 0
+     */
+    public long getOffsetCacheMissCount(@NonNull RecyclerView parent) {
+        final ParentState parentState = findParentState(parent);
+        return parentState == null || parentState.mOffsetCache == null
+                ? 0 : parentState.mOffsetCache.getMissCount();
     }
 
     @Override
@@ -98,646 +461,603 @@ public final class UltimaSpaceItemDecoration extends RecyclerView.ItemDecoration
 
     @Override
     public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
+        final MetricsRecorder metrics = mMetrics;
+        if (metrics == null) {
+            calculateItemOffsets(outRect, view, parent, state);
+            return;
+        }
+        final long start = System.nanoTime();
+        calculateItemOffsets(outRect, view, parent, state);
+        metrics.recordItemOffsets(System.nanoTime() - start);
+    }
 
+    private void calculateItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
         final RecyclerView.Adapter adapter = parent.getAdapter();
         if (adapter == null) {
             return;
         }
 
+        final ParentState parentState = obtainParentState(parent);
         final int position = parent.getChildAdapterPosition(view);
-        if (filter(position, parent)) {
+        if (filter(parentState, position, parent)) {
             return;
         }
 
-        final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        final LayoutStrategy layoutStrategy = parentState.resolveLayoutStrategy(parent);
+        if (layoutStrategy == null) {
+            return;
+        }
 
-        // 修正分割线范围
-        mBuilder.verticalSpace = Math.max(mBuilder.verticalSpace, mBuilder.dividerSize);
-        mBuilder.horizontalSpace = Math.max(mBuilder.horizontalSpace, mBuilder.dividerSize);
+        layoutStrategy.getItemOffsets(outRect, view, position, parent, state);
+    }
 
-        if (layoutManager instanceof GridLayoutManager) {
+    /**
+     * 内置线性布局策略
+     */
+    private final class LinearLayoutStrategy implements LayoutStrategy {
+        private final ParentState mParentState;
+        private final LinearLayoutManager mLayoutManager;
 
-            calculateGridLayoutPadding(outRect, view, parent, state);
-        } else if (layoutManager instanceof LinearLayoutManager) {
+        LinearLayoutStrategy(ParentState parentState, LinearLayoutManager layoutManager) {
+            mParentState = parentState;
+            mLayoutManager = layoutManager;
+        }
 
-            calculateLinearLayoutPadding(outRect, view, parent, state);
-        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+        @Override
+        public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, int position,
+                                   @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            if (mTraceEnabled) {
+                DecorationTrace.beginSection(DecorationTrace.SECTION_LINEAR_PADDING);
+            }
+            final AdapterScope scope = mParentState.resolveAdapterScope(view);
+            if (scope != null) {
+                calculateAdapterScopePadding(scope, outRect, view, parent);
+            } else {
+                calculateLinearLayoutPadding(mParentState, resolveRule(parent, view), outRect, view, parent, state);
+            }
+            if (mTraceEnabled) {
+                DecorationTrace.endSection();
+            }
+        }
 
-            calculateStaggeredGridLayoutPadding(outRect, view, parent, state);
+        @Override
+        public void collectDividers(@NonNull DividerSink sink, @NonNull View child, int position, @NonNull RecyclerView parent) {
+            final AdapterScope scope = mParentState.resolveAdapterScope(child);
+            if (scope != null) {
+                drawAdapterScopeBoundRect(scope, sink, parent, child);
+                return;
+            }
+            drawLinearLayoutBoundRect(resolveRule(parent, child), sink, mLayoutManager.getOrientation(), parent, child);
         }
     }
 
     /**
-     * @param position 当前Item
-     * @param parent   RecycleView
-     * @return 是否过滤
+     * 内置网格布局策略
      */
-    private boolean filter(int position, RecyclerView parent) {
-        if (mBuilder.visibilityProvider.filter(position, parent)) {
-            return true;
+    private final class GridLayoutStrategy implements LayoutStrategy {
+        private final ParentState mParentState;
+        private final GridLayoutManager mLayoutManager;
+
+        GridLayoutStrategy(ParentState parentState, GridLayoutManager layoutManager) {
+            mParentState = parentState;
+            mLayoutManager = layoutManager;
         }
 
-        if (mBuilder.skipStart > position) {
-            return true;
+        @Override
+        public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, int position,
+                                   @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            if (mTraceEnabled) {
+                DecorationTrace.beginSection(DecorationTrace.SECTION_GRID_PADDING);
+            }
+            final AdapterScope scope = mParentState.resolveAdapterScope(view);
+            if (scope != null) {
+                calculateAdapterScopePadding(scope, outRect, view, parent);
+            } else {
+                calculateGridLayoutPadding(mParentState, resolveRule(parent, view), outRect, view, parent, state);
+            }
+            if (mTraceEnabled) {
+                DecorationTrace.endSection();
+            }
         }
 
-        final RecyclerView.Adapter adapter = parent.getAdapter();
-        if (adapter != null && mBuilder.endSkip >= adapter.getItemCount() - position) {
-            return true;
+        @Override
+        public void collectDividers(@NonNull DividerSink sink, @NonNull View child, int position, @NonNull RecyclerView parent) {
+            final AdapterScope scope = mParentState.resolveAdapterScope(child);
+            if (scope != null) {
+                drawAdapterScopeBoundRect(scope, sink, parent, child);
+                return;
+            }
+            drawGridLayoutBoundRect(resolveRule(parent, child), sink, mParentState.mSpanInfo,
+                    mLayoutManager.getOrientation(), parent, child);
         }
 
-        return false;
+        @Override
+        public void finishDividers(@NonNull DividerSink sink, @NonNull RecyclerView parent) {
+            final SpacingRule rule = findRule(sink);
+            if (mBuilder.mergedGridLines && rule != null) {
+                rule.mGridLines.flush(sink, mLayoutManager.getOrientation());
+            }
+        }
     }
 
     /**
-     * Description: 计算间距及偏移
-     *
-     * @param outRect child view rect 空间
-     * @param view    child view
-     * @param parent  RecycleView
-     * @param state   RecyclerView.State
+     * 内置瀑布流布局策略
      */
-    private void calculateLinearLayoutPadding(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
-        LinearLayoutManager layoutManager = (LinearLayoutManager) parent.getLayoutManager();
-
-        final Rect targetRect = new Rect();
-        final int itemCount = parent.getAdapter().getItemCount();
-        final int orientation = layoutManager.getOrientation();
-
-        final int childAdapterPosition = parent.getChildAdapterPosition(view);
-        final boolean isFirstDivider = mBuilder.skipStart == childAdapterPosition;
-        final boolean isLastDivider = mBuilder.endSkip + childAdapterPosition == (itemCount - 1);
+    private final class StaggeredGridLayoutStrategy implements LayoutStrategy {
+        private final ParentState mParentState;
+        private final StaggeredGridLayoutManager mLayoutManager;
 
-        if (orientation == RecyclerView.VERTICAL) {
+        StaggeredGridLayoutStrategy(ParentState parentState, StaggeredGridLayoutManager layoutManager) {
+            mParentState = parentState;
+            mLayoutManager = layoutManager;
+        }
 
-            targetRect.left = mBuilder.paddingStart;
-            targetRect.right = mBuilder.paddingEnd;
-            if (isFirstDivider && isLastDivider) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.top = mBuilder.paddingTop;
-                }
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.bottom = mBuilder.paddingBottom;
-                }
-            } else if (isFirstDivider) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.top = mBuilder.paddingTop;
-                }
-                targetRect.bottom = mBuilder.verticalSpace;
-            } else if (isLastDivider) {
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.bottom = mBuilder.paddingBottom;
-                }
-            } else {
-                targetRect.bottom = mBuilder.verticalSpace;
+        @Override
+        public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, int position,
+                                   @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            if (mTraceEnabled) {
+                DecorationTrace.beginSection(DecorationTrace.SECTION_STAGGERED_PADDING);
             }
-
-            if (isReverseLayout(parent)) {
-                outRect.set(targetRect.left, targetRect.bottom, targetRect.right, targetRect.top);
+            final AdapterScope scope = mParentState.resolveAdapterScope(view);
+            if (scope != null) {
+                calculateAdapterScopePadding(scope, outRect, view, parent);
             } else {
-                outRect.set(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom);
+                calculateStaggeredGridLayoutPadding(resolveRule(parent, view), outRect, view, parent, state);
+            }
+            if (mTraceEnabled) {
+                DecorationTrace.endSection();
             }
-        } else if (orientation == RecyclerView.HORIZONTAL) {
+        }
 
-            targetRect.top = mBuilder.paddingTop;
-            targetRect.bottom = mBuilder.paddingBottom;
-            if (isFirstDivider && isLastDivider) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.left = mBuilder.paddingStart;
-                }
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.right = mBuilder.paddingEnd;
-                }
-            } else if (isFirstDivider) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.left = mBuilder.paddingStart;
-                }
-                targetRect.right = mBuilder.horizontalSpace;
-            } else if (isLastDivider) {
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.right = mBuilder.paddingEnd;
-                }
-            } else {
-                targetRect.right = mBuilder.horizontalSpace;
+        @Override
+        public void collectDividers(@NonNull DividerSink sink, @NonNull View child, int position, @NonNull RecyclerView parent) {
+            final AdapterScope scope = mParentState.resolveAdapterScope(child);
+            if (scope != null) {
+                drawAdapterScopeBoundRect(scope, sink, parent, child);
+                return;
             }
+            drawStaggeredGridBoundRect(resolveRule(parent, child), sink, mLayoutManager.getOrientation(), parent, child);
+        }
 
-            if (isReverseLayout(parent)) {
-                outRect.set(targetRect.right, targetRect.top, targetRect.left, targetRect.bottom);
-            } else {
-                outRect.set(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom);
+        @Override
+        public void finishDividers(@NonNull DividerSink sink, @NonNull RecyclerView parent) {
+            final SpacingRule rule = findRule(sink);
+            if (rule != null) {
+                rule.mGutters.flush(sink, mLayoutManager.getOrientation());
             }
         }
     }
 
     /**
-     * Description: 绘制网格布局分割线
+     * Description: 以 position 为中心批量填充隐藏掩码：区间过滤器、隐藏的 ViewType 以及跳过开始/结尾规则；
+     * 单个过滤器只在设置了区间过滤器时一并折叠到掩码中
      *
-     * @param outRect child view rect 空间
-     * @param view    child view
-     * @param parent  RecycleView
-     * @param state   RecyclerView.State
+     * @param visibilityMask 隐藏掩码
+     * @param position       当前Item
+     * @param itemCount      Item 数量
+     * @param parent         RecycleView
      */
-    private void calculateGridLayoutPadding(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
-        GridLayoutManager layoutManager = (GridLayoutManager) parent.getLayoutManager();
-
-        final Rect targetRect = new Rect();
-        final int itemCount = parent.getAdapter().getItemCount();
-        final int position = parent.getChildAdapterPosition(view);
-
-        final GridLayoutManager.SpanSizeLookup spanSizeLookup = layoutManager.getSpanSizeLookup();
-        final int spanCount = layoutManager.getSpanCount();
-        final int currSpanSize = spanSizeLookup.getSpanSize(position);
-
-        final boolean isSingleSpan = currSpanSize == spanCount;
-
-        if (mSpanInfo == null) {
-            mSpanInfo = new SpanInfo(parent, layoutManager);
-            parent.getAdapter().registerAdapterDataObserver(new AdapterDataObserver() {
-                @Override
-                public void onChanged() {
-                    super.onChanged();
-                    mSpanInfo = new SpanInfo(parent, layoutManager);
-                }
-            });
+    private void fillVisibilityMask(VisibilityMask visibilityMask, int position, int itemCount, RecyclerView parent) {
+        final MetricsRecorder metrics = mMetrics;
+        final long begin = metrics == null ? 0 : System.nanoTime();
+
+        // 窗口覆盖当前屏幕前后各一屏以上，滑动时很少需要重新填充
+        final int window = Math.max(VISIBILITY_WINDOW_SIZE, parent.getChildCount() * 4);
+        final int start = Math.max(0, Math.min(position - window / 2, itemCount - window));
+        final int count = Math.min(window, itemCount - start);
+        final BitSet hidden = visibilityMask.reset(start, count, itemCount);
+
+        if (mBuilder.rangeVisibilityProvider != null) {
+            mBuilder.rangeVisibilityProvider.fill(start, count, hidden, parent);
+            hidden.clear(count, Math.max(count, hidden.length()));
         }
-
-        final int firstRow = mSpanInfo.getRowByPosition(mBuilder.skipStart);
-        final int lastRow = mSpanInfo.getRowByPosition(itemCount - mBuilder.endSkip - 1);
-
-        boolean isFirstRow = mSpanInfo.isInRow(position, firstRow);
-        boolean isLastRow = mSpanInfo.isInRow(position, lastRow);
-        boolean isFirstSpan = mSpanInfo.isFirstSpan(position);
-        boolean isLastSpan = mSpanInfo.isLastSpan(position);
-
-        // Log.d(TAG, String.format("P(%d): FD-%b LD-%b isSingleSpan-%b firstSpan-%b lastSpan-%b"
-        //        , position, isFirstDivider, isLastDivider, isSingleSpan, isFirstSpan, isLastSpan));
-
-        // 32 32 32 = 96 / 4 = 24
-        // 24 8 24 8 24 24
-
-        final int orientation = layoutManager.getOrientation();
-        if (orientation == LinearLayoutManager.VERTICAL) {
-            int relativeIndex = mSpanInfo.getCurrentRowRelativeIndex(position);
-            int relativeItemCount = mSpanInfo.getCurrentRowRelativeItemCount(position);
-
-            // 根据是否显示外部的间距来计算总的间距个数
-            final int spaceNum = getSpaceNum(spanCount, mBuilder.horizontalOuter);
-            // 间距均值
-            final float eachSpace = getTotalSpace(spaceNum, orientation) * 1.0f / spanCount;
-
-            int offsetLeft = round(relativeIndex % spanCount * (mBuilder.horizontalSpace - eachSpace) + getHorizontalOuterSpace(true));
-            int offsetRight = round(eachSpace - offsetLeft);
-
-            if (relativeItemCount != spanCount) {
-                if (isFirstSpan) {
-                    relativeIndex = 0;
-                    offsetLeft = getHorizontalOuterSpace(true);
-                    offsetRight = round(eachSpace - offsetLeft);
-                } else if (isLastSpan) {
-                    relativeIndex = spanCount - 1;
-                    offsetLeft = round(relativeIndex % spanCount * (mBuilder.horizontalSpace - eachSpace) + getHorizontalOuterSpace(true));
-                    offsetRight = round(eachSpace - offsetLeft);
-                }
-
-                int offsetIndex = mSpanInfo.getCurrentRowRelativeOffsetIndex(position);
-                if (offsetIndex != relativeIndex) {
-                    int tempLeftOffset = round(offsetIndex % spanCount * (mBuilder.horizontalSpace - eachSpace) + getHorizontalOuterSpace(true));
-                    offsetRight = round(eachSpace - tempLeftOffset);
+        if (mBuilder.hiddenViewTypes != null) {
+            final RecyclerView.Adapter adapter = parent.getAdapter();
+            for (int i = 0; i < count; i++) {
+                if (Arrays.binarySearch(mBuilder.hiddenViewTypes, adapter.getItemViewType(start + i)) >= 0) {
+                    hidden.set(i);
                 }
             }
-
-            // eachSpace(24) 32
-            // Position      0    1   2   3   4   5  6   7   8   9   10  11  12
-            // OffsetLeft    0    8   16  24  0   8  16  8   16  8
-            // OffsetRight   24   16   8  0   24  16 8   16  8   16
-            if (isFirstRow && isLastRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.top = getVerticalOuterSpace(true);
-                }
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.bottom = getVerticalOuterSpace(false);
-                }
-            } else if (isFirstRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.top = getVerticalOuterSpace(true);
-                }
-                targetRect.bottom = mBuilder.verticalSpace;
-            } else if (isLastRow) {
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.bottom = getVerticalOuterSpace(false);
+        }
+        if (mBuilder.rangeVisibilityProvider != null && mBuilder.visibilityProvider != NO_FILTER) {
+            for (int i = hidden.nextClearBit(0); i < count; i = hidden.nextClearBit(i + 1)) {
+                if (mBuilder.visibilityProvider.filter(start + i, parent)) {
+                    hidden.set(i);
                 }
-            } else {
-                targetRect.bottom = mBuilder.verticalSpace;
-            }
-
-            if (isSingleSpan) {
-                targetRect.left = getHorizontalOuterSpace(true);
-                targetRect.right = getHorizontalOuterSpace(false);
-            } else if (isFirstSpan) {
-                targetRect.left = offsetLeft;
-                targetRect.right = offsetRight;
-            } else if (isLastSpan) {
-                targetRect.left = offsetLeft;
-                targetRect.right = offsetRight;
-            } else {
-                targetRect.left = offsetLeft;
-                targetRect.right = offsetRight;
             }
+        }
+        visibilityMask.hideSkipped(mBuilder.skipStart, mBuilder.endSkip);
 
-            if (isReverseLayout(parent)) {
-                outRect.set(targetRect.left, targetRect.bottom, targetRect.right, targetRect.top);
-            } else {
-                outRect.set(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom);
-            }
-        } else if (orientation == LinearLayoutManager.HORIZONTAL) {
-            int relativeIndex = mSpanInfo.getCurrentRowRelativeIndex(position);
-            int relativeItemCount = mSpanInfo.getCurrentRowRelativeItemCount(position);
-
-            // 根据是否显示外部的间距来计算总的间距个数
-            final int spaceNum = getSpaceNum(spanCount, mBuilder.verticalOuter);
-            // 均值偏移量
-            final float eachSpace = getTotalSpace(spaceNum, orientation) * 1.0f / spanCount;
-
-            int offsetTop = round(relativeIndex % spanCount * (mBuilder.verticalSpace - eachSpace)) + getVerticalOuterSpace(true);
-            int offsetBottom = round(eachSpace - offsetTop);
-
-//            Log.d("P:%d - T&B(%d, %d)", position, offsetTop, offsetBottom);
-
-            if (relativeItemCount != spanCount) {
-                if (isFirstSpan) {
-                    relativeIndex = 0;
-                    offsetTop = getVerticalOuterSpace(true);
-                    offsetBottom = round(eachSpace - offsetTop);
-                } else if (isLastSpan) {
-                    relativeIndex = spanCount - 1;
-                    offsetTop = round(relativeIndex % spanCount * (mBuilder.verticalSpace - eachSpace) + getVerticalOuterSpace(true));
-                    offsetBottom = round(eachSpace - offsetTop);
-                }
+        if (metrics != null) {
+            metrics.recordFilter(System.nanoTime() - begin);
+        }
+    }
 
-                // 一个Item占多喝Span情况需要修正
-                int offsetIndex = mSpanInfo.getCurrentRowRelativeOffsetIndex(position);
-                if (offsetIndex != relativeIndex) {
-                    int tempLeftOffset = round(offsetIndex % spanCount * (mBuilder.verticalSpace - eachSpace) + getVerticalOuterSpace(true));
-                    offsetBottom = round(eachSpace - tempLeftOffset);
-                } else {
-                    offsetTop = round(offsetIndex % spanCount * (mBuilder.verticalSpace - eachSpace) + getVerticalOuterSpace(true));
-                }
-            }
+    private boolean isFilteredByProvider(int position, RecyclerView parent) {
+        final MetricsRecorder metrics = mMetrics;
+        if (metrics == null) {
+            return mBuilder.visibilityProvider.filter(position, parent);
+        }
+        final long start = System.nanoTime();
+        final boolean filtered = mBuilder.visibilityProvider.filter(position, parent);
+        metrics.recordFilter(System.nanoTime() - start);
+        return filtered;
+    }
 
-            if (isFirstRow && isLastRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.left = getHorizontalOuterSpace(true);
-                }
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.right = getHorizontalOuterSpace(false);
-                }
-            } else if (isFirstRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.left = getHorizontalOuterSpace(true);
+    /**
+     * @param parentState RecycleView 状态
+     * @param position    当前Item
+     * @param parent      RecycleView
+     * @return 是否过滤
+     */
+    private boolean filter(ParentState parentState, int position, RecyclerView parent) {
+        final VisibilityMask visibilityMask = parentState.mVisibilityMask;
+        if (visibilityMask != null) {
+            final int itemCount = parent.getAdapter().getItemCount();
+            if (position >= 0 && position < itemCount) {
+                if (!visibilityMask.covers(position, itemCount)) {
+                    fillVisibilityMask(visibilityMask, position, itemCount, parent);
                 }
-                targetRect.right = mBuilder.horizontalSpace;
-            } else if (isLastRow) {
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.right = getHorizontalOuterSpace(false);
+                if (visibilityMask.isHidden(position)) {
+                    return true;
                 }
-            } else {
-                targetRect.right = mBuilder.horizontalSpace;
-            }
-
-            if (isSingleSpan) {
-                targetRect.top = getVerticalOuterSpace(true);
-                targetRect.bottom = getVerticalOuterSpace(false);
-            } else if (isFirstSpan) {
-                targetRect.top = offsetTop;
-                targetRect.bottom = offsetBottom;
-            } else if (isLastSpan) {
-                targetRect.top = offsetTop;
-                targetRect.bottom = offsetBottom;
-            } else {
-                targetRect.top = offsetTop;
-                targetRect.bottom = offsetBottom;
+                // 只设置了隐藏的 ViewType 时单个过滤器不缓存，仍逐个实时判断
+                return mBuilder.rangeVisibilityProvider == null && isFilteredByProvider(position, parent);
             }
+        }
 
-            if (isReverseLayout(parent)) {
-                outRect.set(targetRect.right, targetRect.top, targetRect.left, targetRect.bottom);
-            } else {
-                outRect.set(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom);
-            }
+        if (isFilteredByProvider(position, parent)) {
+            return true;
+        }
+
+        if (mBuilder.skipStart > position) {
+            return true;
+        }
+
+        final RecyclerView.Adapter adapter = parent.getAdapter();
+        if (adapter != null && mBuilder.endSkip >= adapter.getItemCount() - position) {
+            return true;
         }
+
+        return false;
     }
 
     /**
-     * Description: 当前行或列的总间距空间
+     * Description: 计算间距及偏移
      *
-     * @param spaceNum    间距的个数
-     * @param orientation 布局方向
-     * @return 当前行或列的总间距空间
+     * @param parentState RecycleView 状态
+     * @param rule        当前 Item 的规则
+     * @param outRect     child view rect 空间
+     * @param view        child view
+     * @param parent      RecycleView
+     * @param state       RecyclerView.State
      */
-    private int getTotalSpace(int spaceNum, int orientation) {
-        if (orientation == RecyclerView.HORIZONTAL) {
-            int totalSpace = spaceNum * mBuilder.verticalSpace;
-            if (!mBuilder.verticalOuter) {
-                totalSpace += mBuilder.paddingTop + mBuilder.paddingBottom;
-            }
-            return totalSpace;
-        } else {
-            int totalSpace = spaceNum * mBuilder.horizontalSpace;
-            if (!mBuilder.horizontalOuter) {
-                totalSpace += mBuilder.paddingStart + mBuilder.paddingEnd;
+    private void calculateLinearLayoutPadding(ParentState parentState, SpacingRule rule, Rect outRect, View view,
+                                              RecyclerView parent, RecyclerView.State state) {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) parent.getLayoutManager();
+
+        final int itemCount = parent.getAdapter().getItemCount();
+        final int position = parent.getChildAdapterPosition(view);
+
+        final int orientation = layoutManager.getOrientation();
+        final boolean reverseLayout = isReverseLayout(parent);
+
+        final int[] offsets = mOffsets;
+        final OffsetCache offsetCache = parentState.mOffsetCache;
+        if (offsetCache != null) {
+            offsetCache.ensureVersion(mConfig, 1, orientation, reverseLayout, itemCount);
+            if (offsetCache.get(position, offsets)) {
+                setOutRect(outRect, offsets);
+                return;
             }
-            return totalSpace;
         }
-    }
 
-    /**
-     * Description: 间距的数量，显示外边距 n+1，否则 n-1
-     *
-     * @param spanCount   span 数量
-     * @param isShowOuter 是否显示外边距或分割线
-     * @return 间距的数量，显示外边距 n+1，否则 n-1
-     */
-    private int getSpaceNum(int spanCount, boolean isShowOuter) {
-        return spanCount + (isShowOuter ? 1 : -1);
+        final int gap = resolveGap(parentState, parent, view, position, position + 1, itemCount);
+        rule.mEngine.linearOffsets(offsets, position, itemCount, orientation, reverseLayout, gap);
+        if (offsetCache != null) {
+            offsetCache.put(position, offsets);
+        }
+        setOutRect(outRect, offsets);
     }
 
     /**
-     * Description: 获取横向的外边距
+     * Description: 绘制网格布局分割线
      *
-     * @param isLeft 是否显示左边距，否则右边距
-     * @return 获取横向的外边距
+     * @param parentState RecycleView 状态
+     * @param rule        当前 Item 的规则
+     * @param outRect     child view rect 空间
+     * @param view        child view
+     * @param parent      RecycleView
+     * @param state       RecyclerView.State
      */
-    private int getHorizontalOuterSpace(boolean isLeft) {
-        if (mBuilder.horizontalOuter) {
-            return Math.max(mBuilder.horizontalSpace, mBuilder.dividerSize);
+    private void calculateGridLayoutPadding(ParentState parentState, SpacingRule rule, Rect outRect, View view,
+                                            RecyclerView parent, RecyclerView.State state) {
+        GridLayoutManager layoutManager = (GridLayoutManager) parent.getLayoutManager();
+
+        final int itemCount = parent.getAdapter().getItemCount();
+        final int position = parent.getChildAdapterPosition(view);
+
+        final GridLayoutManager.SpanSizeLookup spanSizeLookup = layoutManager.getSpanSizeLookup();
+        final int spanCount = layoutManager.getSpanCount();
+
+        SpanIndex spanInfo = parentState.mSpanInfo;
+        if (spanInfo == null || spanInfo.getSpanCount() != spanCount || spanInfo.getItemCount() != itemCount) {
+            if (mTraceEnabled) {
+                DecorationTrace.beginSection(DecorationTrace.SECTION_SPAN_INDEX);
+            }
+            final long start = mMetrics == null ? 0 : System.nanoTime();
+            final SpanSizeProvider spanSizeProvider = spanSizeLookup::getSpanSize;
+            if (mBuilder.sectionProvider != null) {
+                spanInfo = new SectionedSpanInfo(spanSizeProvider, mBuilder.sectionProvider, spanCount, itemCount);
+            } else if (mBuilder.lazySpanIndex) {
+                spanInfo = new LazySpanInfo(spanSizeProvider, spanCount, itemCount,
+                        mBuilder.spanIndexCheckpointInterval, mBuilder.spanIndexCachedBlockCount,
+                        mBuilder.spanIndexWindowBlockCount);
+            } else if (mBuilder.spanIndexExecutor != null) {
+                spanInfo = new AsyncSpanInfo(spanSizeProvider, spanCount, itemCount, mBuilder.spanIndexExecutor,
+                        mBuilder.spanIndexCheckpointInterval, mBuilder.spanIndexCachedBlockCount);
+            } else {
+                spanInfo = new SpanInfo(spanSizeProvider, spanCount, itemCount);
+            }
+            parentState.mSpanInfo = spanInfo;
+            if (mMetrics != null) {
+                mMetrics.recordSpanIndexRebuild(System.nanoTime() - start, itemCount);
+            }
+            if (mTraceEnabled) {
+                // 按需计算时构建阶段不扫描 Item
+                DecorationTrace.setCounter(DecorationTrace.COUNTER_SPAN_INDEX_ITEMS,
+                        mBuilder.lazySpanIndex && mBuilder.sectionProvider == null ? 0 : itemCount);
+                DecorationTrace.endSection();
+            }
         }
-        if (isLeft) {
-            return mBuilder.paddingStart;
-        } else {
-            return mBuilder.paddingEnd;
+
+        final int orientation = layoutManager.getOrientation();
+        final boolean reverseLayout = isReverseLayout(parent);
+
+        final int[] offsets = mOffsets;
+        final OffsetCache offsetCache = parentState.mOffsetCache;
+        if (offsetCache != null) {
+            offsetCache.ensureVersion(mConfig, spanCount, orientation, reverseLayout, itemCount);
+            if (offsetCache.get(position, offsets)) {
+                setOutRect(outRect, offsets);
+                return;
+            }
         }
-    }
 
-    /**
-     * 绘制网格布局分割线
-     *
-     * @param isTop 是否边距，否则底边距
-     * @return 获取垂直方向外边距
-     */
-    private int getVerticalOuterSpace(boolean isTop) {
-        if (mBuilder.verticalOuter) {
-            return Math.max(mBuilder.verticalSpace, mBuilder.dividerSize);
+        final int currSpanSize = spanSizeLookup.getSpanSize(position);
+        int gap = GapMatrix.NO_GAP;
+        if (mGapMatrix != null) {
+            // 每个 Item 按自身 ViewType 与下一行第一个 Item 解析间距，同一行内各 Item 的间距可能不同；
+            // 行间距不取最大值，而是由（Item 高度 + 自身间距）最大的 Item 决定
+            final int nextRowStart = position - spanInfo.getCurrentRowRelativeIndex(position)
+                    + spanInfo.getCurrentRowRelativeItemCount(position);
+            gap = resolveGap(parentState, parent, view, position, nextRowStart, itemCount);
         }
-        if (isTop) {
-            return mBuilder.paddingTop;
-        } else {
-            return mBuilder.paddingBottom;
+        rule.mEngine.gridOffsets(offsets, spanInfo, position, currSpanSize, spanCount, itemCount,
+                orientation, reverseLayout, gap);
+        if (offsetCache != null) {
+            offsetCache.put(position, offsets);
         }
+        setOutRect(outRect, offsets);
     }
 
     /**
      * 计算流式布局 View rect 空间范围
      *
+     * @param rule    当前 Item 的规则
      * @param outRect child view rect 空间
      * @param view    child view
      * @param parent  RecycleView
      * @param state   RecyclerView.State
      */
-    private void calculateStaggeredGridLayoutPadding(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
+    private void calculateStaggeredGridLayoutPadding(SpacingRule rule, Rect outRect, View view, RecyclerView parent,
+                                                     RecyclerView.State state) {
         StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) parent.getLayoutManager();
 
-        final Rect targetRect = new Rect();
         final int itemCount = parent.getAdapter().getItemCount();
         final int position = parent.getChildAdapterPosition(view);
-        final int spanCount = layoutManager.getSpanCount();
-
         final LayoutParams layoutParams = (LayoutParams) view.getLayoutParams();
 
-        final int spanIndex = layoutParams.getSpanIndex();
-        final boolean isFirstRow = position - mBuilder.skipStart < spanCount;
-        final boolean isLastRow = position + mBuilder.endSkip == itemCount - 1;
-        final boolean isFirstSpan = (spanIndex % spanCount) == 0;
-        final boolean isLastSpan = (spanIndex % spanCount) == spanCount - 1;
-        final boolean isSingleSpan = layoutParams.isFullSpan();
-
-//        Log.d(TAG, String.format(Locale.getDefault(),
-//                "P(%d-%d): FR-%b LR-%b firstSpan-%b lastSpan-%b",
-//                position, spanIndex, isFirstRow, isLastRow, isFirstSpan, isLastSpan));
-
-        final int orientation = layoutManager.getOrientation();
-        if (orientation == VERTICAL) {
-            // 均值偏移量
-            final int eachSpace = round((spanCount - 1) * mBuilder.horizontalSpace * 1.0f / spanCount);
-            final int offsetLeft = round(spanIndex % spanCount * (mBuilder.horizontalSpace - eachSpace));
-            final int offsetRight = round(eachSpace - offsetLeft);
-
-            if (!isSingleSpan) {
-                targetRect.left = offsetLeft;
-                targetRect.right = offsetRight;
-            }
-            if (isFirstRow && isLastRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.top = mBuilder.paddingTop;
-                }
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.bottom = mBuilder.paddingBottom;
-                }
-            } else if (isFirstRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.top = mBuilder.paddingTop;
-                }
-                targetRect.bottom = mBuilder.verticalSpace;
-            } else if (isLastRow) {
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.bottom = mBuilder.paddingBottom;
-                }
-            } else {
-                targetRect.bottom = mBuilder.verticalSpace;
-            }
-        } else if (orientation == HORIZONTAL) {
-            // 均值偏移量
-            final int eachSpace = round((spanCount - 1) * mBuilder.verticalSpace * 1.0f / spanCount);
-            final int offsetTop = round(spanIndex % spanCount * (mBuilder.verticalSpace - eachSpace));
-            final int offsetBottom = round(eachSpace - offsetTop);
+        final int[] offsets = mOffsets;
+        rule.mEngine.staggeredOffsets(offsets, position, layoutParams.getSpanIndex(), layoutParams.isFullSpan(),
+                layoutManager.getSpanCount(), itemCount, layoutManager.getOrientation());
+        setOutRect(outRect, offsets);
+    }
 
-            if (!isSingleSpan) {
-                targetRect.top = offsetTop;
-                targetRect.bottom = offsetBottom;
-            }
-            if (isFirstRow && isLastRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.left = mBuilder.paddingStart;
-                }
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.right = mBuilder.paddingEnd;
-                }
-            } else if (isFirstRow) {
-                if (!mBuilder.isHiddenFirst) {
-                    targetRect.left = mBuilder.paddingStart;
-                }
-                targetRect.right = mBuilder.horizontalSpace;
-            } else if (isLastRow) {
-                if (!mBuilder.isHiddenLast) {
-                    targetRect.right = mBuilder.paddingEnd;
-                }
-            } else {
-                targetRect.right = mBuilder.horizontalSpace;
-            }
+    /**
+     * Description: 查询与下一个（行）Item 之间的相邻 ViewType 间距，结果按 position 缓存
+     *
+     * @param parentState  RecycleView 状态
+     * @param parent       RecycleView
+     * @param view         child view
+     * @param position     当前 Item
+     * @param nextPosition 下一个（行）Item
+     * @param itemCount    Item 数量
+     * @return 相邻间距，未配置时为 {@link GapMatrix#NO_GAP}
+     */
+    private int resolveGap(ParentState parentState, RecyclerView parent, View view, int position, int nextPosition,
+                           int itemCount) {
+        if (mGapMatrix == null || nextPosition >= itemCount) {
+            return GapMatrix.NO_GAP;
+        }
+        final GapCache gapCache = parentState.mGapCache;
+        int gap = gapCache.get(position);
+        if (gap == GapCache.UNRESOLVED) {
+            final int viewType = parent.getChildViewHolder(view).getItemViewType();
+            gap = mGapMatrix.getGap(viewType, parent.getAdapter().getItemViewType(nextPosition));
+            gapCache.put(position, gap);
         }
+        return gap;
+    }
 
-        outRect.set(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom);
+    private static void setOutRect(Rect outRect, int[] offsets) {
+        outRect.set(offsets[SpacingEngine.LEFT], offsets[SpacingEngine.TOP],
+                offsets[SpacingEngine.RIGHT], offsets[SpacingEngine.BOTTOM]);
     }
 
     /**
      * 绘制流式布局分割线
      *
-     * @param c           画布
+     * @param rule        当前 Item 的规则
+     * @param sink        规则的批量绘制
      * @param orientation 布局方向
      * @param parent      RecycleView
      * @param child       Child View
      */
-    private void drawStaggeredGridBoundRect(Canvas c, int orientation, RecyclerView parent, View child) {
-        // 保留
+    private void drawStaggeredGridBoundRect(SpacingRule rule, DividerSink sink, int orientation, RecyclerView parent,
+                                            View child) {
+        final StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) parent.getLayoutManager();
+        final LayoutParams layoutParams = (LayoutParams) child.getLayoutParams();
+        final int position = parent.getChildAdapterPosition(child);
+
+        rule.mEngine.staggeredDividers(sink, rule.mGutters, orientation, position, parent.getAdapter().getItemCount(),
+                layoutParams.getSpanIndex(), layoutParams.isFullSpan(), layoutManager.getSpanCount(),
+                child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
     }
 
     /**
      * 绘制线性布局分割线
      *
-     * @param c           画布
+     * @param rule        当前 Item 的规则
+     * @param sink        规则的批量绘制
      * @param orientation 布局方向
      * @param parent      RecycleView
      * @param child       Child View
      */
-    private void drawLinearLayoutBoundRect(Canvas c, int orientation, RecyclerView parent, View child) {
+    private void drawLinearLayoutBoundRect(SpacingRule rule, DividerSink sink, int orientation, RecyclerView parent,
+                                           View child) {
 
         final int position = parent.getChildAdapterPosition(child);
+        final RecyclerView.LayoutParams params = (RecyclerView.LayoutParams) child.getLayoutParams();
 
-        if (position == mBuilder.skipStart && mBuilder.isHiddenFirst) {
-            return;
-        }
-        if (position + mBuilder.endSkip == parent.getAdapter().getItemCount() - 1 && mBuilder.isHiddenLast) {
-            return;
-        }
-
-        final Rect targetRect = getLinearLayoutBoundRect(orientation, parent, child);
-
-        c.drawLine(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom, mPaint);
+        rule.mEngine.linearDivider(sink, orientation, position, parent.getAdapter().getItemCount(),
+                child.getRight(), child.getBottom(), child.getTranslationX(), child.getTranslationY(),
+                params.topMargin, params.getMarginStart(), parent.getWidth(), parent.getHeight());
     }
 
     /**
-     * @param c           画布
+     * @param rule        当前 Item 的规则
+     * @param sink        规则的批量绘制
+     * @param spanInfo    Span 信息，尚未计算间距时为空
      * @param orientation 布局方向
      * @param parent      RecycleView
      * @param child       Child View
      */
-    private void drawGridLayoutBoundRect(Canvas c, int orientation, RecyclerView parent, View child) {
+    private void drawGridLayoutBoundRect(SpacingRule rule, DividerSink sink, SpanIndex spanInfo, int orientation,
+                                         RecyclerView parent, View child) {
 
         final int position = parent.getChildAdapterPosition(child);
         final int itemCount = parent.getAdapter().getItemCount();
 
-        final Rect vLeftRect = new Rect();
-        final Rect vRightRect = new Rect();
-        final Rect hTopRect = new Rect();
-        final Rect hBottomRect = new Rect();
-
-        final int dividerHalf = round(mBuilder.dividerSize * 1.0f / 2);
-        final int vHalfSize = max(mBuilder.dividerSize, mBuilder.verticalSpace) / 2;
-        final int hHalfHSize = max(mBuilder.dividerSize, mBuilder.horizontalSpace) / 2;
-
-        // 不区分方向，相对于 View 本身环绕
-        hTopRect.left = child.getLeft() - hHalfHSize - dividerHalf;
-        hTopRect.top = child.getTop() - vHalfSize;
-        hTopRect.right = child.getRight() + hHalfHSize;
-        hTopRect.bottom = hTopRect.top;
-
-        hBottomRect.left = hTopRect.left;
-        hBottomRect.top = child.getBottom() + vHalfSize;
-        hBottomRect.right = hTopRect.right;
-        hBottomRect.bottom = hBottomRect.top;
-
-        vLeftRect.left = child.getLeft() - hHalfHSize;
-        vLeftRect.top = child.getTop() - vHalfSize - dividerHalf;
-        vLeftRect.right = vLeftRect.left;
-        vLeftRect.bottom = child.getBottom() + vHalfSize;
-
-        vRightRect.left = child.getRight() + hHalfHSize;
-        vRightRect.top = vLeftRect.top;
-        vRightRect.right = vRightRect.left;
-        vRightRect.bottom = vLeftRect.bottom;
-
-        final boolean isHiddenFirstOrLast = mBuilder.isHiddenFirst || mBuilder.isHiddenLast;
-        if (isHiddenFirstOrLast && mSpanInfo != null) {
-            final int firstRow = mSpanInfo.getRowByPosition(mBuilder.skipStart);
-            final int lastRow = mSpanInfo.getRowByPosition(itemCount - mBuilder.endSkip - 1);
-
-            boolean isFirstRow = mSpanInfo.isInRow(position, firstRow);
-            boolean isLastRow = mSpanInfo.isInRow(position, lastRow);
-
-            if (orientation == HORIZONTAL) {
-                c.drawLine(hTopRect.left, hTopRect.top, hTopRect.right, hTopRect.bottom, mPaint);
-                c.drawLine(hBottomRect.left, hBottomRect.top, hBottomRect.right, hBottomRect.bottom, mPaint);
-                if (!isFirstRow) {
-                    c.drawLine(vLeftRect.left, vLeftRect.top, vLeftRect.right, vLeftRect.bottom, mPaint);
-                }
-                if (!isLastRow) {
-                    c.drawLine(vRightRect.left, vRightRect.top, vRightRect.right, vRightRect.bottom, mPaint);
-                }
-            } else if (orientation == VERTICAL) {
-                c.drawLine(vLeftRect.left, vLeftRect.top, vLeftRect.right, vLeftRect.bottom, mPaint);
-                c.drawLine(vRightRect.left, vRightRect.top, vRightRect.right, vRightRect.bottom, mPaint);
-                if (!isFirstRow) {
-                    c.drawLine(hTopRect.left, hTopRect.top, hTopRect.right, hTopRect.bottom, mPaint);
-                }
-                if (!isLastRow) {
-                    c.drawLine(hBottomRect.left, hBottomRect.top, hBottomRect.right, hBottomRect.bottom, mPaint);
-                }
-            }
-        } else {
-            c.drawLine(vLeftRect.left, vLeftRect.top, vLeftRect.right, vLeftRect.bottom, mPaint);
-            c.drawLine(vRightRect.left, vRightRect.top, vRightRect.right, vRightRect.bottom, mPaint);
-
-            c.drawLine(hTopRect.left, hTopRect.top, hTopRect.right, hTopRect.bottom, mPaint);
-            c.drawLine(hBottomRect.left, hBottomRect.top, hBottomRect.right, hBottomRect.bottom, mPaint);
+        if (mBuilder.mergedGridLines && spanInfo != null) {
+            // 去重模式：按行、列合并后在 finishDividers 中统一输出
+            rule.mEngine.gridLines(rule.mGridLines, spanInfo, position, itemCount, orientation,
+                    child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+            return;
         }
+        rule.mEngine.gridDividers(sink, spanInfo, position, itemCount, orientation,
+                child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
     }
 
     /**
-     * @param orientation 布局方向
-     * @param parent      RecycleView
-     * @param child       Child View
-     * @return 获View的范围
+     * Description: 子 Adapter 内的 position，被子 Adapter 的跳过规则过滤时返回 {@link RecyclerView#NO_POSITION}
+     *
+     * @param scope  子 Adapter 状态
+     * @param parent RecycleView
+     * @param child  Child View
+     * @return 子 Adapter 内的 position
      */
-    private Rect getLinearLayoutBoundRect(int orientation, RecyclerView parent, View child) {
-
-        final RecyclerView.LayoutParams params = (RecyclerView.LayoutParams) child.getLayoutParams();
-
-        final Rect rect = new Rect();
-        if (orientation == RecyclerView.VERTICAL) {
-            int halfSize = max(mBuilder.dividerSize, mBuilder.verticalSpace) / 2;
-
-            rect.left = round(child.getTranslationX());
-            rect.top = child.getBottom() + halfSize + params.topMargin;
-            rect.right = parent.getWidth() + round(child.getTranslationY());
-            rect.bottom = rect.top;
-
-            if (mBuilder.dividerPaddingEnable) {
-                rect.left += mBuilder.paddingStart;
-                rect.right -= mBuilder.paddingEnd;
-            }
-        } else if (orientation == RecyclerView.HORIZONTAL) {
-            int halfSize = max(mBuilder.dividerSize, mBuilder.horizontalSpace) / 2;
+    private static int getScopePosition(AdapterScope scope, RecyclerView parent, View child) {
+        final int position = parent.getChildViewHolder(child).getBindingAdapterPosition();
+        final SpacingConfig config = scope.mRule.mConfig;
+        if (position == RecyclerView.NO_POSITION || position < config.getSkipStart()
+                || position >= scope.mAdapter.getItemCount() - config.getSkipEnd()) {
+            return RecyclerView.NO_POSITION;
+        }
+        return position;
+    }
 
-            rect.left = child.getRight() + params.getMarginStart() + round(child.getTranslationX()) + halfSize;
-            rect.top = round(child.getTranslationY());
-            rect.right = rect.left;
-            rect.bottom = parent.getHeight() + round(child.getTranslationY());
+    /**
+     * Description: 按子 Adapter 的规则计算间距，position、Item 数量、Span 信息均为子 Adapter 内的
+     *
+     * @param scope   子 Adapter 状态
+     * @param outRect child view rect 空间
+     * @param view    child view
+     * @param parent  RecycleView
+     */
+    private void calculateAdapterScopePadding(AdapterScope scope, Rect outRect, View view, RecyclerView parent) {
+        final int position = getScopePosition(scope, parent, view);
+        if (position == RecyclerView.NO_POSITION) {
+            outRect.set(0, 0, 0, 0);
+            return;
+        }
+        final SpacingRule rule = scope.mRule;
+        final int itemCount = scope.mAdapter.getItemCount();
+        final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        final int[] offsets = mOffsets;
+        if (layoutManager instanceof GridLayoutManager) {
+            final GridLayoutManager gridLayoutManager = (GridLayoutManager) layoutManager;
+            final SpanIndex spanInfo = scope.obtainSpanInfo(gridLayoutManager, parent, view);
+            final int currSpanSize = gridLayoutManager.getSpanSizeLookup()
+                    .getSpanSize(parent.getChildAdapterPosition(view));
+            rule.mEngine.gridOffsets(offsets, spanInfo, position, currSpanSize, gridLayoutManager.getSpanCount(),
+                    itemCount, gridLayoutManager.getOrientation(), isReverseLayout(parent));
+        } else if (layoutManager instanceof LinearLayoutManager) {
+            rule.mEngine.linearOffsets(offsets, position, itemCount,
+                    ((LinearLayoutManager) layoutManager).getOrientation(), isReverseLayout(parent));
+        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+            final StaggeredGridLayoutManager staggeredLayoutManager = (StaggeredGridLayoutManager) layoutManager;
+            final LayoutParams layoutParams = (LayoutParams) view.getLayoutParams();
+            rule.mEngine.staggeredOffsets(offsets, position, layoutParams.getSpanIndex(), layoutParams.isFullSpan(),
+                    staggeredLayoutManager.getSpanCount(), itemCount, staggeredLayoutManager.getOrientation());
+        } else {
+            return;
+        }
+        setOutRect(outRect, offsets);
+    }
 
-            if (mBuilder.dividerPaddingEnable) {
-                rect.top += mBuilder.paddingTop;
-                rect.bottom -= mBuilder.paddingBottom;
+    /**
+     * Description: 按子 Adapter 的规则绘制分割线
+     *
+     * @param scope  子 Adapter 状态
+     * @param sink   子 Adapter 规则的批量绘制
+     * @param parent RecycleView
+     * @param child  Child View
+     */
+    private void drawAdapterScopeBoundRect(AdapterScope scope, DividerSink sink, RecyclerView parent, View child) {
+        final int position = getScopePosition(scope, parent, child);
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        final SpacingRule rule = scope.mRule;
+        final int itemCount = scope.mAdapter.getItemCount();
+        final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (layoutManager instanceof GridLayoutManager) {
+            final GridLayoutManager gridLayoutManager = (GridLayoutManager) layoutManager;
+            final SpanIndex spanInfo = scope.obtainSpanInfo(gridLayoutManager, parent, child);
+            if (mBuilder.mergedGridLines) {
+                rule.mEngine.gridLines(rule.mGridLines, spanInfo, position, itemCount,
+                        gridLayoutManager.getOrientation(),
+                        child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+            } else {
+                rule.mEngine.gridDividers(sink, spanInfo, position, itemCount,
+                        gridLayoutManager.getOrientation(),
+                        child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
             }
+        } else if (layoutManager instanceof LinearLayoutManager) {
+            final RecyclerView.LayoutParams params = (RecyclerView.LayoutParams) child.getLayoutParams();
+            rule.mEngine.linearDivider(sink, ((LinearLayoutManager) layoutManager).getOrientation(),
+                    position, itemCount, child.getRight(), child.getBottom(),
+                    child.getTranslationX(), child.getTranslationY(),
+                    params.topMargin, params.getMarginStart(), parent.getWidth(), parent.getHeight());
+        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+            final StaggeredGridLayoutManager staggeredLayoutManager = (StaggeredGridLayoutManager) layoutManager;
+            final LayoutParams layoutParams = (LayoutParams) child.getLayoutParams();
+            rule.mEngine.staggeredDividers(sink, rule.mGutters, staggeredLayoutManager.getOrientation(),
+                    position, itemCount, layoutParams.getSpanIndex(), layoutParams.isFullSpan(),
+                    staggeredLayoutManager.getSpanCount(),
+                    child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
         }
-
-        return rect;
     }
 
     /**
@@ -779,170 +1099,431 @@ public final class UltimaSpaceItemDecoration extends RecyclerView.ItemDecoration
         @ColorRes
         private int colorRes;// 分割线颜色
         @DrawableRes
-        private int drawableRes;// 分割线图片(待完善)
+        private int drawableRes;// 分割线图片，优先于颜色
         @Dimension(unit = Dimension.DP)
         private int dividerSize;// 分割线尺寸
         private boolean dividerPaddingEnable;// 分割线padding
         private int dividerGravity = Gravity.CENTER;// (待完善)
-        private VisibilityProvider visibilityProvider = (position, parent) -> false;
+        private VisibilityProvider visibilityProvider = NO_FILTER;
+        private RangeVisibilityProvider rangeVisibilityProvider;// 区间过滤器
+        private int[] hiddenViewTypes;// 隐藏分割线的 ViewType（已排序）
+        private SparseArray<DividerBuilder> viewTypeRules;// 按 ViewType 区分的间距及分割线规则
+        private GapMatrix.Builder gapMatrixBuilder;// 相邻 ViewType 间距
+        private WeakHashMap<RecyclerView.Adapter<?>, DividerBuilder> adapterRules;// ConcatAdapter 子 Adapter 的规则（弱引用子 Adapter）
+        private boolean lazySpanIndex;// 网格布局按需计算 Span 信息
+        private SectionProvider sectionProvider;// 网格布局分组边界
+        private int spanIndexCheckpointInterval = LazySpanInfo.DEFAULT_CHECKPOINT_INTERVAL;
+        private int spanIndexCachedBlockCount = LazySpanInfo.DEFAULT_CACHED_BLOCK_COUNT;
+        private int spanIndexWindowBlockCount;// 按需计算时的扫描窗口（块数），0 表示不限制
+        private Executor spanIndexExecutor;// 网格布局后台构建 Span 信息
+        private boolean offsetCache;// 按 position 缓存间距
+        private int offsetCacheBlockSize = OffsetCache.DEFAULT_BLOCK_SIZE;
+        private int offsetCacheBlockCount = OffsetCache.DEFAULT_CACHED_BLOCK_COUNT;
+        private boolean dividerLayerCache;// 分割线显示列表缓存（API 29+）
+        private boolean mergedGridLines;// 网格布局分割线去重合并
+        private MetricsListener metricsListener;// 性能统计监听
+        private long metricsFlushIntervalMillis;
+        private boolean traceEnabled;// 系统 Trace 区段
+        private final List<LayoutStrategyFactory> layoutStrategyFactories = new ArrayList<>();
+
+        public DividerBuilder(@NonNull Context context) {
+            this.context = context;
+        }
+
+        /**
+         * @param hiddenFirst 是否隐藏第一个
+         * @return DividerBuilder
+         */
+        public DividerBuilder setHiddenFirst(boolean hiddenFirst) {
+            isHiddenFirst = hiddenFirst;
+            return this;
+        }
+
+        /**
+         * @param hiddenLast 是否隐藏最后一个
+         * @return DividerBuilder
+         */
+        public DividerBuilder setHiddenLast(boolean hiddenLast) {
+            isHiddenLast = hiddenLast;
+            return this;
+        }
+
+        /**
+         * @param skipStart 跳过开始Item数量
+         * @return DividerBuilder
+         */
+        public DividerBuilder setSkipStart(int skipStart) {
+            this.skipStart = skipStart;
+            return this;
+        }
+
+        /**
+         * @param skipEnd 跳过结束Item数量
+         * @return DividerBuilder
+         */
+        public DividerBuilder setSkipEnd(int skipEnd) {
+            this.endSkip = skipEnd;
+            return this;
+        }
+
+        /**
+         * @param verticalSpace 垂直方向间距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setVerticalSpace(@Dimension(unit = DP) int verticalSpace) {
+            this.verticalSpace = dp2px(context, verticalSpace);
+            return this;
+        }
+
+        /**
+         * @param horizontalSpace 水平放下间距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setHorizontalSpace(@Dimension(unit = DP) int horizontalSpace) {
+            this.horizontalSpace = dp2px(context, horizontalSpace);
+            return this;
+        }
+
+        /**
+         * @param verticalSpaceOuter 是否显示纵向外部的边距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setVerticalOuter(boolean verticalSpaceOuter) {
+            this.verticalOuter = verticalSpaceOuter;
+            return this;
+        }
+
+        /**
+         * @param horizontalSpaceOuter 是否显示横向外部的边距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setHorizontalOuter(boolean horizontalSpaceOuter) {
+            this.horizontalOuter = horizontalSpaceOuter;
+            return this;
+        }
+
+        /**
+         * @param paddingStart 左侧外边距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setPaddingStart(@Dimension(unit = DP) int paddingStart) {
+            this.paddingStart = dp2px(context, paddingStart);
+            return this;
+        }
+
+        /**
+         * @param paddingEnd 右侧外边距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setPaddingEnd(@Dimension(unit = DP) int paddingEnd) {
+            this.paddingEnd = dp2px(context, paddingEnd);
+            return this;
+        }
+
+        /**
+         * @param paddingTop 顶部外边距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setPaddingTop(@Dimension(unit = DP) int paddingTop) {
+            this.paddingTop = dp2px(context, paddingTop);
+            return this;
+        }
+
+        /**
+         * @param paddingBottom 底部外边距
+         * @return DividerBuilder
+         */
+        public DividerBuilder setPaddingBottom(@Dimension(unit = DP) int paddingBottom) {
+            this.paddingBottom = dp2px(context, paddingBottom);
+            return this;
+        }
+
+        /**
+         * @param dividerSize 分割线大小
+         * @return DividerBuilder
+         */
+        public DividerBuilder setDividerSize(@Dimension(unit = DP) int dividerSize) {
+            this.dividerSize = dp2px(context, dividerSize);
+            return this;
+        }
+
+        /**
+         * @param dividerPaddingEnable 分割线padding
+         * @return DividerBuilder
+         */
+        public DividerBuilder setDividerPaddingEnable(boolean dividerPaddingEnable) {
+            this.dividerPaddingEnable = dividerPaddingEnable;
+            return this;
+        }
+
+        /**
+         * @param colorRes 分割线颜色
+         * @return DividerBuilder
+         */
+        public DividerBuilder setColorRes(@ColorRes int colorRes) {
+            this.colorRes = colorRes;
+            return this;
+        }
 
-        public DividerBuilder(@NonNull Context context) {
-            this.context = context;
+        /**
+         * 分割线使用 drawable 绘制（渐变、纹理等），按分割线尺寸光栅化一次后平铺，优先于 {@link #setColorRes(int)}
+         *
+         * @param drawableRes 分割线 drawable
+         * @return DividerBuilder
+         */
+        public DividerBuilder setDrawableRes(@DrawableRes int drawableRes) {
+            this.drawableRes = drawableRes;
+            return this;
         }
 
         /**
-         * @param hiddenFirst 是否隐藏第一个
+         * @param visibilityProvider 过滤器
          * @return DividerBuilder
          */
-        public DividerBuilder setHiddenFirst(boolean hiddenFirst) {
-            isHiddenFirst = hiddenFirst;
+        public DividerBuilder setVisibilityProvider(@NonNull VisibilityProvider visibilityProvider) {
+            this.visibilityProvider = visibilityProvider;
             return this;
         }
 
         /**
-         * @param hiddenLast 是否隐藏最后一个
+         * @param rangeVisibilityProvider 区间过滤器：按窗口批量填充隐藏掩码，之后每个 Item 只需一次位测试；
+         *                                设置后 {@link VisibilityProvider} 及跳过开始/结尾规则一并折叠到掩码中
          * @return DividerBuilder
          */
-        public DividerBuilder setHiddenLast(boolean hiddenLast) {
-            isHiddenLast = hiddenLast;
+        public DividerBuilder setRangeVisibilityProvider(@Nullable RangeVisibilityProvider rangeVisibilityProvider) {
+            this.rangeVisibilityProvider = rangeVisibilityProvider;
             return this;
         }
 
         /**
-         * @param skipStart 跳过开始Item数量
+         * @param viewTypes 不显示分割线的 ViewType，按掩码批量判断（结果缓存到调用
+         *                  {@link UltimaSpaceItemDecoration#invalidateVisibility(RecyclerView)} 或 Adapter 通知）；
+         *                  {@link VisibilityProvider} 不受影响，仍逐个实时判断
          * @return DividerBuilder
          */
-        public DividerBuilder setSkipStart(int skipStart) {
-            this.skipStart = skipStart;
+        public DividerBuilder setHiddenViewTypes(@NonNull int... viewTypes) {
+            this.hiddenViewTypes = viewTypes.length == 0 ? null : viewTypes.clone();
+            if (this.hiddenViewTypes != null) {
+                Arrays.sort(this.hiddenViewTypes);
+            }
             return this;
         }
 
         /**
-         * @param skipEnd 跳过结束Item数量
+         * @param viewType ViewType
+         * @param rule     该 ViewType 的间距、分割线尺寸、颜色或图片配置（首尾隐藏、跳过规则及其他选项以当前配置为准）；
+         *                 同一实例内按 ViewType 查表，代替多个实例叠加 + {@link VisibilityProvider}
          * @return DividerBuilder
          */
-        public DividerBuilder setSkipEnd(int skipEnd) {
-            this.endSkip = skipEnd;
+        public DividerBuilder addViewTypeRule(int viewType, @NonNull DividerBuilder rule) {
+            if (this.viewTypeRules == null) {
+                this.viewTypeRules = new SparseArray<>();
+            }
+            this.viewTypeRules.put(viewType, rule);
             return this;
         }
 
         /**
-         * @param verticalSpace 垂直方向间距
+         * 按 ConcatAdapter 的子 Adapter（{@link RecyclerView.ViewHolder#getBindingAdapter()}）区分规则：
+         * position、Item 数量取自子 Adapter，首尾隐藏、跳过规则以 rule 为准并在子 Adapter 内独立生效；
+         * 网格布局每个子 Adapter 单独维护 Span 信息及 Adapter 监听，子 Adapter 应从新行开始（如前一个子 Adapter 以占满整行的 Item 结尾）
+         * <p>
+         * 限制：这些 Item 不使用间距缓存、相邻 ViewType 间距及按 ViewType 区分的规则，只使用 rule 本身；
+         * 隐藏的 ViewType、区间过滤器及 {@link VisibilityProvider} 仍按 ConcatAdapter 中的 position 生效；
+         * 不支持嵌套的 ConcatAdapter；子 Adapter 只被弱引用，从 ConcatAdapter 移除后其状态及监听随之释放
+         *
+         * @param adapter ConcatAdapter 中的子 Adapter
+         * @param rule    该子 Adapter 的间距及分割线配置
          * @return DividerBuilder
          */
-        public DividerBuilder setVerticalSpace(@Dimension(unit = DP) int verticalSpace) {
-            this.verticalSpace = dp2px(context, verticalSpace);
+        public DividerBuilder setAdapterRule(@NonNull RecyclerView.Adapter<?> adapter, @NonNull DividerBuilder rule) {
+            if (this.adapterRules == null) {
+                this.adapterRules = new WeakHashMap<>();
+            }
+            this.adapterRules.put(adapter, rule);
             return this;
         }
 
         /**
-         * @param horizontalSpace 水平放下间距
+         * @param viewType     前一个 Item 的 ViewType
+         * @param nextViewType 后一个 Item 的 ViewType（网格布局为下一行第一个 Item）
+         * @param gap          两者之间的间距，代替 verticalSpace / horizontalSpace；线性、网格布局有效，分割线仍按默认间距居中
          * @return DividerBuilder
          */
-        public DividerBuilder setHorizontalSpace(@Dimension(unit = DP) int horizontalSpace) {
-            this.horizontalSpace = dp2px(context, horizontalSpace);
+        public DividerBuilder setViewTypeGap(int viewType, int nextViewType, @Dimension(unit = DP) int gap) {
+            if (this.gapMatrixBuilder == null) {
+                this.gapMatrixBuilder = new GapMatrix.Builder();
+            }
+            this.gapMatrixBuilder.setGap(viewType, nextViewType, dp2px(context, gap));
             return this;
         }
 
         /**
-         * @param verticalSpaceOuter 是否显示纵向外部的边距
+         * @param lazySpanIndex 网格布局是否按需计算 Span 信息（超大或无限列表）
          * @return DividerBuilder
          */
-        public DividerBuilder setVerticalOuter(boolean verticalSpaceOuter) {
-            this.verticalOuter = verticalSpaceOuter;
+        public DividerBuilder setLazySpanIndex(boolean lazySpanIndex) {
+            this.lazySpanIndex = lazySpanIndex;
             return this;
         }
 
         /**
-         * @param horizontalSpaceOuter 是否显示横向外部的边距
+         * @param checkpointInterval 每隔多少个 Item 保存一个检查点，同时也是缓存块大小
+         * @param cachedBlockCount   缓存块数量
          * @return DividerBuilder
          */
-        public DividerBuilder setHorizontalOuter(boolean horizontalSpaceOuter) {
-            this.horizontalOuter = horizontalSpaceOuter;
+        public DividerBuilder setLazySpanIndex(int checkpointInterval, int cachedBlockCount) {
+            this.lazySpanIndex = true;
+            this.spanIndexCheckpointInterval = checkpointInterval;
+            this.spanIndexCachedBlockCount = cachedBlockCount;
             return this;
         }
 
         /**
-         * @param paddingStart 左侧外边距
+         * 分页、占位符列表（如 PagingDataAdapter 开启占位符时 getItemCount 为远端总数）：按需计算 Span 信息，
+         * 且只扫描目标位置之前的窗口，窗口之前按 Span 大小一致估算，跳转到任意位置不会遍历之前所有的占位符
+         *
+         * @param pagedSpanIndex 网格布局是否使用分页模式
          * @return DividerBuilder
          */
-        public DividerBuilder setPaddingStart(@Dimension(unit = DP) int paddingStart) {
-            this.paddingStart = dp2px(context, paddingStart);
+        public DividerBuilder setPagedSpanIndex(boolean pagedSpanIndex) {
+            this.lazySpanIndex = pagedSpanIndex;
+            this.spanIndexWindowBlockCount = pagedSpanIndex ? LazySpanInfo.DEFAULT_WINDOW_BLOCK_COUNT : 0;
             return this;
         }
 
         /**
-         * @param paddingEnd 右侧外边距
+         * @param checkpointInterval 每隔多少个 Item 保存一个检查点，同时也是缓存块大小
+         * @param cachedBlockCount   缓存块数量
+         * @param windowBlockCount   扫描窗口（块数）
          * @return DividerBuilder
          */
-        public DividerBuilder setPaddingEnd(@Dimension(unit = DP) int paddingEnd) {
-            this.paddingEnd = dp2px(context, paddingEnd);
+        public DividerBuilder setPagedSpanIndex(int checkpointInterval, int cachedBlockCount, int windowBlockCount) {
+            setLazySpanIndex(checkpointInterval, cachedBlockCount);
+            this.spanIndexWindowBlockCount = windowBlockCount;
             return this;
         }
 
         /**
-         * @param paddingTop 顶部外边距
+         * 网格布局按分组计算 Span 信息：每个分组的行独立排布，首尾行（外边距、首尾隐藏）按分组处理，
+         * 局部更新只重新计算受影响的分组；优先于 {@link #setLazySpanIndex(boolean)}、{@link #setSpanIndexExecutor(Executor)}
+         *
+         * @param sectionProvider 分组边界（如占满整行的分组标题），null 表示整个列表为一个分组
          * @return DividerBuilder
          */
-        public DividerBuilder setPaddingTop(@Dimension(unit = DP) int paddingTop) {
-            this.paddingTop = dp2px(context, paddingTop);
+        public DividerBuilder setSectionProvider(@Nullable SectionProvider sectionProvider) {
+            this.sectionProvider = sectionProvider;
             return this;
         }
 
         /**
-         * @param paddingBottom 底部外边距
+         * 网格布局 Span 信息在 executor 上根据 Span 大小快照后台构建，构建完成前按需计算可见行；
+         * 快照在主线程每帧拷贝一批（SpanSizeLookup 只在主线程读取），构建期间的 Adapter 通知只修补快照的变化区间；
+         * 同时设置 {@link #setLazySpanIndex(boolean)} 时只按需计算
+         *
+         * @param executor 后台构建使用的 Executor，null 表示在主线程同步构建
          * @return DividerBuilder
          */
-        public DividerBuilder setPaddingBottom(@Dimension(unit = DP) int paddingBottom) {
-            this.paddingBottom = dp2px(context, paddingBottom);
+        public DividerBuilder setSpanIndexExecutor(@Nullable Executor executor) {
+            this.spanIndexExecutor = executor;
             return this;
         }
 
         /**
-         * @param dividerSize 分割线大小
+         * @param offsetCache 线性、网格布局是否按 position 缓存间距
          * @return DividerBuilder
          */
-        public DividerBuilder setDividerSize(@Dimension(unit = DP) int dividerSize) {
-            this.dividerSize = dp2px(context, dividerSize);
+        public DividerBuilder setOffsetCache(boolean offsetCache) {
+            this.offsetCache = offsetCache;
             return this;
         }
 
         /**
-         * @param dividerPaddingEnable 分割线padding
+         * @param blockSize        每个缓存块包含的 Item 数量（相邻 ViewType 间距缓存同样按此分块）
+         * @param cachedBlockCount 缓存块数量
          * @return DividerBuilder
          */
-        public DividerBuilder setDividerPaddingEnable(boolean dividerPaddingEnable) {
-            this.dividerPaddingEnable = dividerPaddingEnable;
+        public DividerBuilder setOffsetCache(int blockSize, int cachedBlockCount) {
+            this.offsetCache = true;
+            this.offsetCacheBlockSize = blockSize;
+            this.offsetCacheBlockCount = cachedBlockCount;
             return this;
         }
 
         /**
-         * @param colorRes 分割线颜色
+         * @param dividerLayerCache 是否将分割线录制到 RenderNode，滑动时平移重放，只在 child 增删或尺寸变化时重新录制；
+         *                          API 29 以下及非硬件加速画布自动使用普通绘制
          * @return DividerBuilder
          */
-        public DividerBuilder setColorRes(@ColorRes int colorRes) {
-            this.colorRes = colorRes;
+        public DividerBuilder setDividerLayerCache(boolean dividerLayerCache) {
+            this.dividerLayerCache = dividerLayerCache;
             return this;
         }
 
         /**
-         * @param drawableRes 分割线 drawable
+         * @param mergedGridLines 网格布局是否去重绘制分割线：每条行分割线、列间隔线只绘制一次，相邻 Item 的线段合并为一条，
+         *                        避免内部分割线重复绘制（半透明颜色叠加），首尾行隐藏规则不变
          * @return DividerBuilder
          */
-        public DividerBuilder setDrawableRes(@DrawableRes int drawableRes) {
-            this.drawableRes = drawableRes;
+        public DividerBuilder setMergedGridLines(boolean mergedGridLines) {
+            this.mergedGridLines = mergedGridLines;
             return this;
         }
 
         /**
-         * @param visibilityProvider 过滤器
+         * @param listener            性能统计监听，为空时不统计
+         * @param flushIntervalMillis 上报间隔（毫秒），统计在 onDraw 中按间隔汇总后回调
          * @return DividerBuilder
          */
-        public DividerBuilder setVisibilityProvider(@NonNull VisibilityProvider visibilityProvider) {
-            this.visibilityProvider = visibilityProvider;
+        public DividerBuilder setMetricsListener(@Nullable MetricsListener listener, long flushIntervalMillis) {
+            this.metricsListener = listener;
+            this.metricsFlushIntervalMillis = flushIntervalMillis;
+            return this;
+        }
+
+        /**
+         * @param traceEnabled 是否输出系统 Trace 区段（Span 信息构建、各布局间距计算、onDraw）及计数器
+         *                     （onDraw 遍历的 child 数量、Span 信息构建扫描的 Item 数量、绘制及裁剪的线段数量），
+         *                     用于 Perfetto / systrace 分析卡顿
+         * @return DividerBuilder
+         */
+        public DividerBuilder setTraceEnabled(boolean traceEnabled) {
+            this.traceEnabled = traceEnabled;
+            return this;
+        }
+
+        /**
+         * @param factory 自定义布局策略（如 FlexboxLayoutManager 等第三方 LayoutManager），优先于内置策略
+         * @return DividerBuilder
+         */
+        public DividerBuilder addLayoutStrategyFactory(@NonNull LayoutStrategyFactory factory) {
+            this.layoutStrategyFactories.add(factory);
             return this;
         }
 
+        /**
+         * @param list 首尾隐藏、跳过规则所属的配置（整个列表一致）
+         * @return 间距及分割线配置（px），供 {@link SpacingEngine} 使用
+         */
+        SpacingConfig toSpacingConfig(DividerBuilder list) {
+            return new SpacingConfig.Builder()
+                    .setHiddenFirst(list.isHiddenFirst)
+                    .setHiddenLast(list.isHiddenLast)
+                    .setSkipStart(list.skipStart)
+                    .setSkipEnd(list.endSkip)
+                    .setVerticalSpace(verticalSpace)
+                    .setVerticalOuter(verticalOuter)
+                    .setHorizontalSpace(horizontalSpace)
+                    .setHorizontalOuter(horizontalOuter)
+                    .setPaddingStart(paddingStart)
+                    .setPaddingEnd(paddingEnd)
+                    .setPaddingTop(paddingTop)
+                    .setPaddingBottom(paddingBottom)
+                    .setDividerSize(dividerSize)
+                    .setDividerPaddingEnable(dividerPaddingEnable)
+                    .build();
+        }
+
         /**
          * @return DividerBuilder 构建实例
          */
@@ -955,6 +1536,76 @@ public final class UltimaSpaceItemDecoration extends RecyclerView.ItemDecoration
         }
     }
 
+    /**
+     * 布局策略：负责某一类 LayoutManager 的间距计算与分割线收集
+     */
+    public interface LayoutStrategy {
+        /**
+         * @param outRect  child view rect 空间
+         * @param view     child view
+         * @param position Item Position
+         * @param parent   RecycleView
+         * @param state    RecyclerView.State
+         */
+        void getItemOffsets(@NonNull Rect outRect, @NonNull View view, int position,
+                            @NonNull RecyclerView parent, @NonNull RecyclerView.State state);
+
+        /**
+         * @param sink     child 所属规则的分割线收集，由调用方按 ConcatAdapter 子 Adapter 规则、ViewType 规则、默认规则的顺序选择，
+         *                 线段按该规则的画笔绘制
+         * @param child    child view
+         * @param position Item Position
+         * @param parent   RecycleView
+         */
+        void collectDividers(@NonNull DividerSink sink, @NonNull View child, int position, @NonNull RecyclerView parent);
+
+        /**
+         * 一帧内所有 child 收集完成后每条规则各调用一次，用于输出跨 child 合并的分割线（如流式布局的列间隔线）；
+         * 合并的线段应按 {@link #collectDividers} 收到的 sink 分别累积，并只输出到同一个 sink
+         *
+         * @param sink   规则的分割线收集
+         * @param parent RecycleView
+         */
+        default void finishDividers(@NonNull DividerSink sink, @NonNull RecyclerView parent) {
+        }
+    }
+
+    /**
+     * 布局策略工厂，每个 LayoutManager 实例只调用一次
+     */
+    public interface LayoutStrategyFactory {
+        /**
+         * @param layoutManager LayoutManager
+         * @param config        间距及分割线配置
+         * @return 布局策略，不支持时返回 null
+         */
+        @Nullable
+        LayoutStrategy create(@Nullable RecyclerView.LayoutManager layoutManager, @NonNull SpacingConfig config);
+    }
+
+    /**
+     * Description: 性能统计监听，在绘制线程按上报间隔回调
+     */
+    public interface MetricsListener {
+        /**
+         * @param metrics 上一个上报周期内的统计快照
+         */
+        void onMetrics(@NonNull DecorationMetrics metrics);
+    }
+
+    /**
+     * Description: 区间过滤器，一次填充一段连续 position 的隐藏状态
+     */
+    public interface RangeVisibilityProvider {
+        /**
+         * @param positionStart 起始 position
+         * @param itemCount     数量
+         * @param outHidden     已清空的位集合，第 i 位对应 positionStart + i，置位表示不显示分割线
+         * @param parent        RecycleView
+         */
+        void fill(int positionStart, int itemCount, @NonNull BitSet outHidden, @NonNull RecyclerView parent);
+    }
+
     /**
      * @return DividerBuilder Divider 过滤器，控制是否显示
      */
@@ -967,121 +1618,541 @@ public final class UltimaSpaceItemDecoration extends RecyclerView.ItemDecoration
         boolean filter(int position, RecyclerView parent);
     }
 
-    class SpanInfo {
-        private List<Integer> firstSpanPositions = new ArrayList<>();
-        private List<Integer> lastSpanPositions = new ArrayList();
-        private Map<Integer, Integer> positionRowMapper = new LinkedHashMap<>();
-        private Map<Integer, List<Integer>> rowPositionMapper = new LinkedHashMap<>();
-        private Map<Integer, Integer> rowSumSpanCount = new LinkedHashMap<>();
-        private Map<Integer, Integer> rowOffsetIndex = new LinkedHashMap<>();
+    /**
+     * Description: 单个 RecycleView 的状态（Span 信息、间距缓存、分割线显示列表缓存、布局策略、Adapter 监听）
+     * <p>
+     * 1、保存在 RecycleView 的 Tag 中，随 RecycleView 释放，实例本身不持有任何 RecycleView；同一实例可同时用于多个 RecycleView，状态互不影响
+     * 2、Adapter 替换时从旧 Adapter 注销并注册到新 Adapter，同时清空所有缓存
+     * 3、RecycleView detach 时只注销监听并记录 Item 数量，缓存保留；下次计算间距或绘制时重新注册，
+     * Adapter 与 Item 数量均未变化时继续使用缓存，否则清空（detach 期间的局部通知已丢失）
+     * 4、{@link #release(RecyclerView)} 从 Tag 中移除并注销监听
+     */
+    private final class ParentState implements View.OnAttachStateChangeListener {
+        final RecyclerView mParent;
+        // 同一 RecycleView 上其他 UltimaSpaceItemDecoration 实例的状态
+        ParentState mNext;
+
+        SpanIndex mSpanInfo;
+        final OffsetCache mOffsetCache;
+        final DividerLayer mDividerLayer;
+        final VisibilityMask mVisibilityMask;
+        final GapCache mGapCache;
+        private RecyclerView.LayoutManager mStrategyLayoutManager;
+        private LayoutStrategy mLayoutStrategy;
+
+        private RecyclerView.Adapter mAdapter;
+        private AdapterChangeObserver mAdapterChangeObserver;
+        // detach 时 Adapter 的 Item 数量，未 detach 时为 -1
+        private int mDetachedItemCount = -1;
+        // ConcatAdapter 子 Adapter 的状态，首次用到时创建并注册监听
+        private IdentityHashMap<RecyclerView.Adapter<?>, AdapterScope> mAdapterScopes;
+
+        ParentState(RecyclerView parent, ParentState next) {
+            mParent = parent;
+            mNext = next;
+            mOffsetCache = mBuilder.offsetCache
+                    ? new OffsetCache(mBuilder.offsetCacheBlockSize, mBuilder.offsetCacheBlockCount)
+                    : null;
+            // RenderNode 录制需要 API 29，低版本走普通批量绘制
+            mDividerLayer = mBuilder.dividerLayerCache && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                    ? new DividerLayer()
+                    : null;
+            mVisibilityMask = mBuilder.rangeVisibilityProvider != null || mBuilder.hiddenViewTypes != null
+                    ? new VisibilityMask()
+                    : null;
+            mGapCache = mGapMatrix != null
+                    ? new GapCache(mBuilder.offsetCacheBlockSize, mBuilder.offsetCacheBlockCount)
+                    : null;
+        }
+
+        UltimaSpaceItemDecoration getDecoration() {
+            return UltimaSpaceItemDecoration.this;
+        }
 
-        SpanInfo(RecyclerView parent, GridLayoutManager layoutManager) {
-            final RecyclerView.Adapter adapter = parent.getAdapter();
-            final GridLayoutManager.SpanSizeLookup spanSizeLookup = layoutManager.getSpanSizeLookup();
-            final int spanCount = layoutManager.getSpanCount();
+        /**
+         * Description: Adapter 变化时重新注册监听，并清空依赖旧数据的状态；detach 后首次调用时按 Adapter 与 Item 数量决定是否保留缓存
+         *
+         * @param adapter 当前 Adapter
+         */
+        void bindAdapter(RecyclerView.Adapter adapter) {
+            if (mDetachedItemCount >= 0) {
+                final boolean unchanged = adapter == mAdapter && adapter.getItemCount() == mDetachedItemCount;
+                mDetachedItemCount = -1;
+                if (unchanged) {
+                    registerObservers();
+                    invalidateVisibility();
+                    return;
+                }
+                unbindAdapter();
+            }
+            if (adapter == mAdapter) {
+                return;
+            }
+            unbindAdapter();
+            if (adapter != null) {
+                mAdapter = adapter;
+                registerObservers();
+            }
+        }
+
+        private void registerObservers() {
+            mAdapterChangeObserver = new AdapterChangeObserver(this);
+            mAdapter.registerAdapterDataObserver(mAdapterChangeObserver);
+            if (mAdapterScopes != null) {
+                for (AdapterScope scope : mAdapterScopes.values()) {
+                    scope.mAdapter.registerAdapterDataObserver(scope);
+                }
+                // detach 期间子 Adapter 可能已从 ConcatAdapter 移除
+                refreshAdapterScopes();
+            }
+        }
 
-            int row = 0;
-            int resetWrapTotalSpanSize = 0;
-            for (int i = 0; i < adapter.getItemCount(); i++) {
+        private void unregisterObservers() {
+            if (mAdapterChangeObserver == null) {
+                return;
+            }
+            mAdapter.unregisterAdapterDataObserver(mAdapterChangeObserver);
+            mAdapterChangeObserver = null;
+            if (mAdapterScopes != null) {
+                for (AdapterScope scope : mAdapterScopes.values()) {
+                    scope.mAdapter.unregisterAdapterDataObserver(scope);
+                }
+            }
+        }
 
-                final int innerSpanSize = spanSizeLookup.getSpanSize(i);
-                resetWrapTotalSpanSize += innerSpanSize;
+        void unbindAdapter() {
+            unregisterObservers();
+            mAdapter = null;
+            mAdapterScopes = null;
+            mDetachedItemCount = -1;
+            // 未监听期间的通知已丢失
+            mSpanInfo = null;
+            if (mOffsetCache != null) {
+                mOffsetCache.invalidateAll();
+            }
+            if (mGapCache != null) {
+                mGapCache.invalidateAll();
+            }
+            invalidateVisibility();
+        }
 
-                List<Integer> positionList;
-                if (resetWrapTotalSpanSize == spanCount) {
+        /**
+         * @param child Child View
+         * @return child 所属子 Adapter 的状态，未使用 ConcatAdapter 或子 Adapter 未单独配置时返回 null
+         */
+        AdapterScope resolveAdapterScope(View child) {
+            if (mAdapterRules == null) {
+                return null;
+            }
+            final RecyclerView.Adapter<?> adapter = mParent.getChildViewHolder(child).getBindingAdapter();
+            if (adapter == null || adapter == mAdapter) {
+                return null;
+            }
+            AdapterScope scope = mAdapterScopes != null ? mAdapterScopes.get(adapter) : null;
+            if (scope == null) {
+                final SpacingRule rule = mAdapterRules.get(adapter);
+                if (rule == null) {
+                    return null;
+                }
+                if (mAdapterScopes == null) {
+                    mAdapterScopes = new IdentityHashMap<>();
+                }
+                scope = new AdapterScope(this, adapter, rule);
+                adapter.registerAdapterDataObserver(scope);
+                mAdapterScopes.put(adapter, scope);
+            }
+            return scope;
+        }
 
-                    positionList = rowPositionMapper.get(row);
-                    if (positionList == null || positionList.isEmpty()) {
-                        positionList = new ArrayList<>();
-                        rowPositionMapper.put(row, positionList);
-                        firstSpanPositions.add(i);
+        /**
+         * Description: ConcatAdapter 结构变化（任意子 Adapter 增删 Item、子 Adapter 增删）后刷新每个子 Adapter 的起始 position，
+         * 已从 ConcatAdapter 移除的子 Adapter 注销监听并释放
+         */
+        void refreshAdapterScopes() {
+            final IdentityHashMap<RecyclerView.Adapter<?>, AdapterScope> scopes = mAdapterScopes;
+            if (scopes == null) {
+                return;
+            }
+            for (AdapterScope scope : scopes.values()) {
+                scope.mAttached = false;
+            }
+            if (mAdapter instanceof ConcatAdapter) {
+                int globalStart = 0;
+                for (RecyclerView.Adapter<?> adapter : ((ConcatAdapter) mAdapter).getAdapters()) {
+                    final AdapterScope scope = scopes.get(adapter);
+                    if (scope != null) {
+                        scope.mGlobalStart = globalStart;
+                        scope.mAttached = true;
                     }
-                    positionList.add(i);
-                    positionRowMapper.put(i, row);
+                    globalStart += adapter.getItemCount();
+                }
+            }
+            final Iterator<AdapterScope> iterator = scopes.values().iterator();
+            while (iterator.hasNext()) {
+                final AdapterScope scope = iterator.next();
+                if (!scope.mAttached) {
+                    scope.mAdapter.unregisterAdapterDataObserver(scope);
+                    iterator.remove();
+                }
+            }
+        }
 
-                    lastSpanPositions.add(i);
+        void invalidateDividerLayer() {
+            if (mDividerLayer != null) {
+                mDividerLayer.invalidate();
+            }
+        }
 
-                    rowSumSpanCount.put(row, resetWrapTotalSpanSize);
-                    rowOffsetIndex.put(i, (resetWrapTotalSpanSize - 1) % spanCount);
+        /**
+         * Description: 隐藏掩码与分割线显示列表缓存失效
+         */
+        void invalidateVisibility() {
+            if (mVisibilityMask != null) {
+                mVisibilityMask.invalidate();
+            }
+            invalidateDividerLayer();
+        }
 
-                    resetWrapTotalSpanSize = 0;
-                    row++;
-                } else if (resetWrapTotalSpanSize > spanCount) {
+        /**
+         * Description: 按 LayoutManager 实例解析布局策略并缓存，LayoutManager 不变时直接返回
+         * <p>
+         * 优先使用 {@link DividerBuilder#addLayoutStrategyFactory(LayoutStrategyFactory)} 注册的策略，其次为内置的网格、线性、瀑布流布局
+         *
+         * @param parent RecycleView
+         * @return 布局策略，不支持的 LayoutManager 返回 null
+         */
+        LayoutStrategy resolveLayoutStrategy(RecyclerView parent) {
+            final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+            if (layoutManager == mStrategyLayoutManager) {
+                return mLayoutStrategy;
+            }
 
-                    rowSumSpanCount.put(row, resetWrapTotalSpanSize - innerSpanSize);
-                    positionList = rowPositionMapper.get(++row);
-                    if (positionList == null || positionList.isEmpty()) {
-                        positionList = new ArrayList<>();
-                        rowPositionMapper.put(row, positionList);
-                        firstSpanPositions.add(i);
-                    }
-                    positionList.add(i);
-                    positionRowMapper.put(i, row);
+            LayoutStrategy layoutStrategy = null;
+            for (int i = 0; i < mBuilder.layoutStrategyFactories.size() && layoutStrategy == null; i++) {
+                layoutStrategy = mBuilder.layoutStrategyFactories.get(i).create(layoutManager, mConfig);
+            }
+            if (layoutStrategy == null) {
+                if (layoutManager instanceof GridLayoutManager) {
+                    // 网格布局：建议使用间距+背景颜色方式实现
+                    layoutStrategy = new GridLayoutStrategy(this, (GridLayoutManager) layoutManager);
+                } else if (layoutManager instanceof LinearLayoutManager) {
+                    // 线性布局
+                    layoutStrategy = new LinearLayoutStrategy(this, (LinearLayoutManager) layoutManager);
+                } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+                    // 瀑布流布局：逐个 Item 绘制行分割线，列间隔线按列合并绘制
+                    layoutStrategy = new StaggeredGridLayoutStrategy(this, (StaggeredGridLayoutManager) layoutManager);
+                }
+            }
 
-                    rowOffsetIndex.put(i, (resetWrapTotalSpanSize - innerSpanSize - 1) % spanCount);
+            mStrategyLayoutManager = layoutManager;
+            mLayoutStrategy = layoutStrategy;
+            invalidateDividerLayer();
+            return layoutStrategy;
+        }
 
-                    resetWrapTotalSpanSize = innerSpanSize;
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            // 下次计算间距或绘制时注册
+        }
 
-                    rowSumSpanCount.put(row, resetWrapTotalSpanSize);
-                } else {
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            if (mAdapterChangeObserver == null) {
+                return;
+            }
+            // 只注销监听，缓存保留到重新 attach 后校验
+            unregisterObservers();
+            mDetachedItemCount = mAdapter.getItemCount();
+            invalidateDividerLayer();
+        }
+    }
 
-                    positionList = rowPositionMapper.get(row);
-                    if (positionList == null || positionList.isEmpty()) {
-                        positionList = new ArrayList<>();
-                        rowPositionMapper.put(row, positionList);
-                        firstSpanPositions.add(i);
-                    }
-                    positionList.add(i);
-                    positionRowMapper.put(i, row);
+    /**
+     * @param parent RecycleView
+     * @return 当前实例在 parent 上的状态，不存在时返回 null
+     */
+    private ParentState findParentState(RecyclerView parent) {
+        ParentState parentState = (ParentState) parent.getTag(R.id.ultima_space_item_decoration_state);
+        while (parentState != null && parentState.getDecoration() != this) {
+            parentState = parentState.mNext;
+        }
+        return parentState;
+    }
+
+    /**
+     * @param parent RecycleView
+     * @return 当前实例在 parent 上的状态，不存在时创建；同时按当前 Adapter 更新监听
+     */
+    private ParentState obtainParentState(RecyclerView parent) {
+        ParentState parentState = findParentState(parent);
+        if (parentState == null) {
+            parentState = new ParentState(parent,
+                    (ParentState) parent.getTag(R.id.ultima_space_item_decoration_state));
+            parent.setTag(R.id.ultima_space_item_decoration_state, parentState);
+            parent.addOnAttachStateChangeListener(parentState);
+        }
+        parentState.bindAdapter(parent.getAdapter());
+        return parentState;
+    }
+
+    /**
+     * Description: 监听 Adapter 局部通知，增量更新网格 Span 信息并按范围失效间距缓存；全量刷新时延迟到下次计算间距时重建
+     * <p>
+     * 只弱引用 RecycleView 状态：Adapter 比 RecycleView 存活更久时不会通过监听泄漏 RecycleView
+     */
+    private final class AdapterChangeObserver extends AdapterDataObserver {
+        private final WeakReference<ParentState> mParentState;
+
+        AdapterChangeObserver(ParentState parentState) {
+            mParentState = new WeakReference<>(parentState);
+        }
+
+        private SpanSizeProvider getSpanSizeProvider(ParentState parentState) {
+            final RecyclerView.LayoutManager layoutManager = parentState.mParent.getLayoutManager();
+            final SpanIndex spanInfo = parentState.mSpanInfo;
+            if (spanInfo == null || !(layoutManager instanceof GridLayoutManager)
+                    || ((GridLayoutManager) layoutManager).getSpanCount() != spanInfo.getSpanCount()) {
+                parentState.mSpanInfo = null;
+                return null;
+            }
+            return ((GridLayoutManager) layoutManager).getSpanSizeLookup()::getSpanSize;
+        }
+
+        /**
+         * @param position 变更的第一个 Item，Span 信息已按变更后的数据更新
+         * @return 偏移与相邻间距可能受影响的第一个 Item：跳过结尾时先向前扩展 endSkip 个（原最后一个参与计算的 Item），
+         * 网格布局再取其前一个 Item 所在行的上一行行首，线性布局取上一个 Item
+         */
+        private int getInvalidationStart(ParentState parentState, int position) {
+            final int anchor = position - mBuilder.endSkip;
+            final RecyclerView.LayoutManager layoutManager = parentState.mParent.getLayoutManager();
+            if (!(layoutManager instanceof GridLayoutManager)) {
+                return anchor - 1;
+            }
+            final SpanIndex spanInfo = parentState.mSpanInfo;
+            if (spanInfo != null && anchor <= spanInfo.getItemCount()) {
+                return spanInfo.getInvalidationStart(anchor);
+            }
+            // 没有 Span 信息时按每行最多 spanCount 个 Item 向前两行
+            return anchor - 2 * ((GridLayoutManager) layoutManager).getSpanCount();
+        }
+
+        private void invalidateOffsetsFrom(ParentState parentState, int position, int itemCountDelta) {
+            final int start = getInvalidationStart(parentState, position);
+            if (parentState.mOffsetCache != null) {
+                parentState.mOffsetCache.invalidateFrom(start, itemCountDelta);
+            }
+            if (parentState.mGapCache != null) {
+                parentState.mGapCache.invalidateFrom(start);
+            }
+        }
 
-                    rowSumSpanCount.put(row, resetWrapTotalSpanSize);
+        @Override
+        public void onChanged() {
+            final ParentState parentState = mParentState.get();
+            if (parentState == null) {
+                return;
+            }
+            parentState.invalidateVisibility();
+            parentState.refreshAdapterScopes();
+            parentState.mSpanInfo = null;
+            if (parentState.mOffsetCache != null) {
+                parentState.mOffsetCache.invalidateAll();
+            }
+            if (parentState.mGapCache != null) {
+                parentState.mGapCache.invalidateAll();
+            }
+        }
 
-                    rowOffsetIndex.put(i, (resetWrapTotalSpanSize - 1) % spanCount);
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            final ParentState parentState = mParentState.get();
+            if (parentState == null) {
+                return;
+            }
+            parentState.invalidateVisibility();
+            final SpanSizeProvider spanSizeProvider = getSpanSizeProvider(parentState);
+            if (spanSizeProvider != null) {
+                parentState.mSpanInfo.onItemRangeChanged(spanSizeProvider, positionStart, itemCount);
+            }
+            if (parentState.mParent.getLayoutManager() instanceof GridLayoutManager) {
+                // Span 大小可能变化，之后的行需要重新排布
+                invalidateOffsetsFrom(parentState, positionStart, 0);
+            } else {
+                if (parentState.mOffsetCache != null) {
+                    // 相邻间距依赖下一个 Item 的 ViewType
+                    final int dependency = parentState.mGapCache != null ? 1 : 0;
+                    parentState.mOffsetCache.invalidate(positionStart - dependency, itemCount + dependency);
                 }
+                if (parentState.mGapCache != null) {
+                    parentState.mGapCache.invalidate(positionStart, itemCount);
+                }
+            }
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            final ParentState parentState = mParentState.get();
+            if (parentState == null) {
+                return;
+            }
+            parentState.invalidateVisibility();
+            // 之后的子 Adapter 起始 position 随之变化
+            parentState.refreshAdapterScopes();
+            final SpanSizeProvider spanSizeProvider = getSpanSizeProvider(parentState);
+            if (spanSizeProvider != null) {
+                parentState.mSpanInfo.onItemRangeInserted(spanSizeProvider, positionStart, itemCount);
+            }
+            invalidateOffsetsFrom(parentState, positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            final ParentState parentState = mParentState.get();
+            if (parentState == null) {
+                return;
             }
+            parentState.invalidateVisibility();
+            // 之后的子 Adapter 起始 position 随之变化
+            parentState.refreshAdapterScopes();
+            final SpanSizeProvider spanSizeProvider = getSpanSizeProvider(parentState);
+            if (spanSizeProvider != null) {
+                parentState.mSpanInfo.onItemRangeRemoved(spanSizeProvider, positionStart, itemCount);
+            }
+            invalidateOffsetsFrom(parentState, positionStart, -itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            final ParentState parentState = mParentState.get();
+            if (parentState == null) {
+                return;
+            }
+            parentState.invalidateVisibility();
+            // 之后的子 Adapter 起始 position 随之变化
+            parentState.refreshAdapterScopes();
+            final SpanSizeProvider spanSizeProvider = getSpanSizeProvider(parentState);
+            if (spanSizeProvider != null) {
+                parentState.mSpanInfo.onItemRangeMoved(spanSizeProvider, fromPosition, toPosition, itemCount);
+            }
+            invalidateOffsetsFrom(parentState, Math.min(fromPosition, toPosition), 0);
+        }
+    }
 
-//            Log.d(TAG, "FirstSpan:" + firstSpanPositions);
-//            Log.d(TAG, "LastSpan:" + lastSpanPositions);
-//            Log.d(TAG, "RowPositionMapper:" + rowPositionMapper);
-//            Log.d(TAG, "PositionRowMapper:" + positionRowMapper);
-//            Log.d(TAG, "RowSumSpanCount:" + rowSumSpanCount);
-//            Log.d(TAG, "RowOffsetIndex:" + rowOffsetIndex);
+    /**
+     * Description: ConcatAdapter 中单个子 Adapter 的状态（规则、Span 信息），同时监听该子 Adapter 的变化
+     * <p>
+     * 1、子 Adapter 的通知只更新自身的 Span 信息，其他子 Adapter 的 Span 信息不受影响
+     * 2、起始 position 由 ConcatAdapter 上的 {@link AdapterChangeObserver} 在结构变化时刷新（{@link ParentState#refreshAdapterScopes()}），
+     * 按需计算的 Span 信息之后读取的 Span 大小始终对应子 Adapter 自身的 Item
+     * 3、只弱引用 RecycleView 状态，与 {@link AdapterChangeObserver} 一致
+     */
+    private final class AdapterScope extends AdapterDataObserver {
+        private final WeakReference<ParentState> mParentState;
+        final RecyclerView.Adapter<?> mAdapter;
+        final SpacingRule mRule;
+
+        private SpanIndex mSpanInfo;
+        // 子 Adapter 第一个 Item 在 ConcatAdapter 中的 position
+        int mGlobalStart;
+        // 刷新时是否仍在 ConcatAdapter 中
+        boolean mAttached;
+        private final SpanSizeProvider mSpanSizeProvider = this::getSpanSize;
+        private GridLayoutManager.SpanSizeLookup mSpanSizeLookup;
+
+        AdapterScope(ParentState parentState, RecyclerView.Adapter<?> adapter, SpacingRule rule) {
+            mParentState = new WeakReference<>(parentState);
+            mAdapter = adapter;
+            mRule = rule;
         }
 
-        boolean isFirstSpan(int position) {
-            return firstSpanPositions.contains(position);
+        private int getSpanSize(int position) {
+            return mSpanSizeLookup.getSpanSize(mGlobalStart + position);
         }
 
-        boolean isLastSpan(int position) {
-            return lastSpanPositions.contains(position);
+        /**
+         * @param layoutManager 网格布局
+         * @param parent        RecycleView
+         * @param child         Child View，用于确定子 Adapter 的起始 position
+         * @return 子 Adapter 的 Span 信息，Span 数量或 Item 数量变化时重新构建
+         */
+        SpanIndex obtainSpanInfo(GridLayoutManager layoutManager, RecyclerView parent, View child) {
+            final int spanCount = layoutManager.getSpanCount();
+            final int itemCount = mAdapter.getItemCount();
+            SpanIndex spanInfo = mSpanInfo;
+            if (spanInfo == null || spanInfo.getSpanCount() != spanCount || spanInfo.getItemCount() != itemCount) {
+                final RecyclerView.ViewHolder holder = parent.getChildViewHolder(child);
+                final int globalStart = holder.getAbsoluteAdapterPosition() - holder.getBindingAdapterPosition();
+                if (globalStart >= 0) {
+                    mGlobalStart = globalStart;
+                }
+                mSpanSizeLookup = layoutManager.getSpanSizeLookup();
+                spanInfo = mBuilder.lazySpanIndex
+                        ? new LazySpanInfo(mSpanSizeProvider, spanCount, itemCount,
+                        mBuilder.spanIndexCheckpointInterval, mBuilder.spanIndexCachedBlockCount,
+                        mBuilder.spanIndexWindowBlockCount)
+                        : new SpanInfo(mSpanSizeProvider, spanCount, itemCount);
+                mSpanInfo = spanInfo;
+            }
+            return spanInfo;
         }
 
-        int getRowByPosition(int position) {
-            return positionRowMapper.get(position);
+        /**
+         * @return 可以增量更新时返回 true，并刷新起始 position 与 SpanSizeLookup
+         */
+        private boolean prepareUpdate() {
+            final ParentState parentState = mParentState.get();
+            if (parentState == null || mSpanInfo == null) {
+                return false;
+            }
+            final RecyclerView.LayoutManager layoutManager = parentState.mParent.getLayoutManager();
+            if (!(layoutManager instanceof GridLayoutManager)
+                    || ((GridLayoutManager) layoutManager).getSpanCount() != mSpanInfo.getSpanCount()) {
+                mSpanInfo = null;
+                return false;
+            }
+            // 子 Adapter 与 ConcatAdapter 的监听先后顺序不确定，这里同样刷新一次
+            parentState.refreshAdapterScopes();
+            if (!mAttached) {
+                mSpanInfo = null;
+                return false;
+            }
+            mSpanSizeLookup = ((GridLayoutManager) layoutManager).getSpanSizeLookup();
+            return true;
         }
 
-        int getCurrentRowRelativeIndex(int position) {
-            final int currRow = getRowByPosition(position);
-            return rowPositionMapper.get(currRow).indexOf(position);
+        @Override
+        public void onChanged() {
+            mSpanInfo = null;
         }
 
-        int getCurrentRowRelativeOffsetIndex(int position) {
-            return rowOffsetIndex.get(position);
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            if (prepareUpdate()) {
+                mSpanInfo.onItemRangeChanged(mSpanSizeProvider, positionStart, itemCount);
+            }
         }
 
-        int getCurrentRowRelativeItemCount(int position) {
-            final int currRow = getRowByPosition(position);
-            return rowPositionMapper.get(currRow).size();
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            if (prepareUpdate()) {
+                mSpanInfo.onItemRangeInserted(mSpanSizeProvider, positionStart, itemCount);
+            }
         }
 
-        int getCurrentRowSumSpanCount(int position) {
-            final int currRow = getRowByPosition(position);
-            return rowSumSpanCount.get(currRow);
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            if (prepareUpdate()) {
+                mSpanInfo.onItemRangeRemoved(mSpanSizeProvider, positionStart, itemCount);
+            }
         }
 
-        boolean isInRow(int position, int row) {
-            return getRowByPosition(position) == row;
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            if (prepareUpdate()) {
+                mSpanInfo.onItemRangeMoved(mSpanSizeProvider, fromPosition, toPosition, itemCount);
+            }
         }
     }
 
-}
\ No newline at end of file
+}
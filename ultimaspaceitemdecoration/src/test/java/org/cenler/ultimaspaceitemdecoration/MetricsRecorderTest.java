@@ -0,0 +1,51 @@
+package org.cenler.ultimaspaceitemdecoration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MetricsRecorderTest {
+
+    private final List<DecorationMetrics> mReports = new ArrayList<>();
+    private final MetricsRecorder mRecorder = new MetricsRecorder(mReports::add, 1000, 0);
+
+    @Test
+    public void flush_aggregatesAndResetsCounters() {
+        mRecorder.recordDraw(30, 10, 3);
+        mRecorder.recordDraw(50, 12, 0);
+        mRecorder.recordItemOffsets(7);
+        mRecorder.recordSpanIndexRebuild(200, 64);
+        mRecorder.recordFilter(3);
+        mRecorder.recordFilter(4);
+
+        assertFalse(mRecorder.flushIfDue(999));
+        assertTrue(mRecorder.flushIfDue(1500));
+
+        assertEquals(1, mReports.size());
+        final DecorationMetrics metrics = mReports.get(0);
+        assertEquals(1500, metrics.getIntervalNanos());
+        assertEquals(2, metrics.getFrameCount());
+        assertEquals(80, metrics.getDrawTotalNanos());
+        assertEquals(50, metrics.getDrawMaxNanos());
+        assertEquals(22, metrics.getSegmentCount());
+        assertEquals(3, metrics.getCulledSegmentCount());
+        assertEquals(1, metrics.getItemOffsetsCount());
+        assertEquals(7, metrics.getItemOffsetsTotalNanos());
+        assertEquals(1, metrics.getSpanIndexRebuildCount());
+        assertEquals(200, metrics.getSpanIndexRebuildTotalNanos());
+        assertEquals(64, metrics.getSpanIndexRebuildItemCount());
+        assertEquals(2, metrics.getFilterCount());
+        assertEquals(7, metrics.getFilterTotalNanos());
+
+        // 下一个周期从零开始
+        assertFalse(mRecorder.flushIfDue(2000));
+        assertTrue(mRecorder.flushIfDue(2500));
+        assertEquals(0, mReports.get(1).getFrameCount());
+        assertEquals(0, mReports.get(1).getDrawMaxNanos());
+    }
+}